@@ -0,0 +1,16 @@
+package com.tekki.core;
+
+/**
+ * High-level choice an enemy brain makes on a decision tick; see {@link EnemyFighter#perform}.
+ */
+public enum AiAction {
+    /** Keep doing whatever the fighter is currently doing. */
+    HOLD,
+    IDLE,
+    APPROACH,
+    RETREAT,
+    ATTACK,
+    DEFEND,
+    DASH,
+    JUMP
+}
@@ -0,0 +1,13 @@
+package com.tekki.core;
+
+/**
+ * Which brain drives the enemy; select with -Dtekki.ai=dice|lookahead|policy.
+ */
+public enum AiMode {
+    /** Weighted dice rolls on a decision timer. */
+    DICE,
+    /** Monte Carlo rollouts on a background thread, see {@link LookaheadAi}. */
+    LOOKAHEAD,
+    /** Single lookup in the precomputed {@link PolicyTable}. */
+    POLICY
+}
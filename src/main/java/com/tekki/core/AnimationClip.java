@@ -2,23 +2,25 @@ package com.tekki.core;
 
 import java.awt.image.BufferedImage;
 
-public class SpriteAnimation {
+/**
+ * Immutable animation data (frames, timing, looping) sliced from a horizontal sprite sheet.
+ * <p>
+ * Clips are shared between every fighter using the same sheet; per-instance playback state lives in
+ * {@link AnimationPlayer}.
+ */
+public final class AnimationClip {
 
     private final BufferedImage[] frames;
     private final float frameDuration;
-    private float time;
-    private int currentFrame;
     private final boolean looping;
 
-    public SpriteAnimation(BufferedImage spriteSheet,
-                           int frameCount,
-                           float frameDuration,
-                           boolean looping) {
+    public AnimationClip(BufferedImage spriteSheet,
+                         int frameCount,
+                         float frameDuration,
+                         boolean looping) {
         this.frames = new BufferedImage[frameCount];
         this.frameDuration = frameDuration;
         this.looping = looping;
-        this.time = 0f;
-        this.currentFrame = 0;
 
         // echte Breite/Höhe aus dem Bild ableiten
         int sheetWidth  = spriteSheet.getWidth();
@@ -49,31 +51,28 @@ public class SpriteAnimation {
         }
     }
 
-    public void update(float deltaTime) {
-        if (frames.length == 0) {
-            return;
-        }
+    /**
+     * Clip with the same timing as {@code base} over already prepared frames.
+     */
+    AnimationClip(AnimationClip base, BufferedImage[] frames) {
+        this.frames = frames;
+        this.frameDuration = base.frameDuration;
+        this.looping = base.looping;
+    }
 
-        time += deltaTime;
-        int frameAdvance = (int) (time / frameDuration);
-        if (frameAdvance > 0) {
-            time -= frameAdvance * frameDuration;
-            currentFrame += frameAdvance;
-            if (looping) {
-                currentFrame %= frames.length;
-            } else if (currentFrame >= frames.length) {
-                currentFrame = frames.length - 1;
-            }
-        }
+    public int getFrameCount() {
+        return frames.length;
     }
 
-    public void reset() {
-        time = 0f;
-        currentFrame = 0;
+    public BufferedImage getFrame(int index) {
+        return frames[index];
     }
 
-    public BufferedImage getCurrentFrame() {
-        return frames[currentFrame];
+    public float getFrameDuration() {
+        return frameDuration;
     }
-}
 
+    public boolean isLooping() {
+        return looping;
+    }
+}
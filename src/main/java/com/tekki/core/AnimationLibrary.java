@@ -0,0 +1,132 @@
+package com.tekki.core;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Loads sprite sheets once and hands out shared {@link AnimationClip} sets, so any number of fighters
+ * using the same sprites reference a single copy of the frames.
+ */
+public final class AnimationLibrary {
+
+    private static final String SPRITE_ROOT = "Tekki/src/main/resources/sprites/";
+    private static final int CLIP_COUNT = EnemyAnimationConfig.AnimationType.values().length;
+
+    private static final Map<String, AnimationClip[]> CLIP_SETS = new ConcurrentHashMap<>();
+    private static final Map<AnimationClip, Map<SpriteVariant, AnimationClip>> VARIANTS = new ConcurrentHashMap<>();
+
+    private AnimationLibrary() {
+    }
+
+    /**
+     * Player clips indexed by {@link EnemyAnimationConfig.AnimationType} ordinal; the array is shared, do not modify.
+     */
+    public static AnimationClip[] playerClips() {
+        return CLIP_SETS.computeIfAbsent("player", key -> {
+            String basePath = SPRITE_ROOT + "player/";
+            AnimationClip[] clips = new AnimationClip[CLIP_COUNT];
+            put(clips, EnemyAnimationConfig.AnimationType.IDLE, basePath + "Idle.png", 8, 0.12f, true);
+            put(clips, EnemyAnimationConfig.AnimationType.RUN, basePath + "Run.png", 8, 0.08f, true);
+            put(clips, EnemyAnimationConfig.AnimationType.JUMP, basePath + "Jump.png", 2, 0.1f, false);
+            put(clips, EnemyAnimationConfig.AnimationType.FALL, basePath + "Fall.png", 2, 0.1f, false);
+            put(clips, EnemyAnimationConfig.AnimationType.ATTACK1, basePath + "Attack1.png", 6, 0.04f, false);
+            put(clips, EnemyAnimationConfig.AnimationType.ATTACK2, basePath + "Attack2.png", 6, 0.07f, false);
+            put(clips, EnemyAnimationConfig.AnimationType.TAKE_HIT, basePath + "Take Hit.png", 4, 0.09f, false);
+            put(clips, EnemyAnimationConfig.AnimationType.DEATH, basePath + "Death.png", 6, 0.12f, false);
+            return clips;
+        });
+    }
+
+    /**
+     * Recolored copy of a clip, rendered on first use and shared afterwards.
+     */
+    public static AnimationClip variant(AnimationClip clip, SpriteVariant variant) {
+        return VARIANTS.computeIfAbsent(clip, key -> new ConcurrentHashMap<>()).computeIfAbsent(variant, key -> {
+            BufferedImage[] frames = new BufferedImage[clip.getFrameCount()];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = variant.apply(clip.getFrame(i));
+            }
+            return new AnimationClip(clip, frames);
+        });
+    }
+
+    /**
+     * {@link #variant} applied to a whole clip set; null entries stay null and a null variant returns the set itself.
+     */
+    public static AnimationClip[] variantClips(AnimationClip[] clips, SpriteVariant variant) {
+        if (variant == null) {
+            return clips;
+        }
+        AnimationClip[] result = new AnimationClip[clips.length];
+        for (int i = 0; i < clips.length; i++) {
+            result[i] = clips[i] != null ? variant(clips[i], variant) : null;
+        }
+        return result;
+    }
+
+    /**
+     * Enemy clips for a sprite folder; missing animations (per {@link EnemyAnimationConfig}) stay null.
+     */
+    public static AnimationClip[] enemyClips(String spriteFolder) {
+        return CLIP_SETS.computeIfAbsent("enemies/" + spriteFolder, key -> {
+            String basePath = SPRITE_ROOT + "enemies/" + spriteFolder + "/";
+            EnemyAnimationConfig.AnimationSet config = EnemyAnimationConfig.forEnemy(spriteFolder);
+            AnimationClip[] clips = new AnimationClip[CLIP_COUNT];
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.IDLE, basePath + "Idle.png", 0.12f, true);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.RUN, basePath + "Run.png", 0.08f, true);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.JUMP, basePath + "Jump.png", 0.1f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.FALL, basePath + "Fall.png", 0.1f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.ATTACK1, basePath + "Attack1.png", 0.04f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.ATTACK2, basePath + "Attack2.png", 0.07f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.ATTACK3, basePath + "Attack3.png", 0.07f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.TAKE_HIT, basePath + "Take Hit.png", 0.09f, false);
+            putEnemy(clips, config, EnemyAnimationConfig.AnimationType.DEATH, basePath + "Death.png", 0.12f, false);
+            return clips;
+        });
+    }
+
+    private static void put(AnimationClip[] clips, EnemyAnimationConfig.AnimationType type, String path,
+                            int frameCount, float frameDuration, boolean loop) {
+        clips[type.ordinal()] = new AnimationClip(loadSheet(path), frameCount, frameDuration, loop);
+    }
+
+    private static void putEnemy(AnimationClip[] clips, EnemyAnimationConfig.AnimationSet config,
+                                 EnemyAnimationConfig.AnimationType type, String path, float frameDuration, boolean loop) {
+        Integer frameCount = config.getFrameCount(type);
+        if (frameCount != null) {
+            put(clips, type, path, frameCount, frameDuration, loop);
+        }
+    }
+
+    /**
+     * Load a sprite sheet from a path relative to the project root. Falls back to a case-insensitive
+     * match in the same folder, since sheet names are not cased consistently across sprite folders.
+     */
+    private static BufferedImage loadSheet(String relativePath) {
+        File file = new File(relativePath);
+        if (!file.exists()) {
+            file = findIgnoringCase(file);
+        }
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read sprite file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static File findIgnoringCase(File file) {
+        File[] siblings = file.getAbsoluteFile().getParentFile().listFiles();
+        if (siblings != null) {
+            for (File sibling : siblings) {
+                if (sibling.getName().equalsIgnoreCase(file.getName())) {
+                    return sibling;
+                }
+            }
+        }
+        throw new IllegalStateException("Sprite file not found: " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,84 @@
+package com.tekki.core;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Lightweight playback cursor over a shared {@link AnimationClip}.
+ */
+public final class AnimationPlayer {
+
+    private AnimationClip clip;
+    private float time;
+    private int currentFrame;
+
+    /**
+     * Switch to a clip, restarting playback only when the clip actually changes.
+     */
+    public void play(AnimationClip nextClip) {
+        if (nextClip != clip) {
+            clip = nextClip;
+            reset();
+        }
+    }
+
+    public void update(float deltaTime) {
+        if (clip == null || clip.getFrameCount() == 0) {
+            return;
+        }
+
+        time += deltaTime;
+        float frameDuration = clip.getFrameDuration();
+        int frameAdvance = (int) (time / frameDuration);
+        if (frameAdvance > 0) {
+            time -= frameAdvance * frameDuration;
+            currentFrame += frameAdvance;
+            if (clip.isLooping()) {
+                currentFrame %= clip.getFrameCount();
+            } else if (currentFrame >= clip.getFrameCount()) {
+                currentFrame = clip.getFrameCount() - 1;
+            }
+        }
+    }
+
+    public void reset() {
+        time = 0f;
+        currentFrame = 0;
+    }
+
+    /**
+     * Jump to a frame of the current clip, e.g. one received from a spectator stream.
+     */
+    public void seek(int frame) {
+        time = 0f;
+        currentFrame = clip != null ? Math.max(0, Math.min(frame, clip.getFrameCount() - 1)) : 0;
+    }
+
+    public void copyStateFrom(AnimationPlayer other) {
+        clip = other.clip;
+        time = other.time;
+        currentFrame = other.currentFrame;
+    }
+
+    /**
+     * @param playing the clip being played; the caller saves which one it is
+     */
+    void syncState(StateBuffer buffer, AnimationClip playing) {
+        if (buffer.isLoading()) {
+            clip = playing;
+        }
+        time = buffer.sync(time);
+        currentFrame = buffer.sync(currentFrame);
+    }
+
+    public AnimationClip getClip() {
+        return clip;
+    }
+
+    public int getFrameIndex() {
+        return currentFrame;
+    }
+
+    public BufferedImage getCurrentFrame() {
+        return clip != null ? clip.getFrame(currentFrame) : null;
+    }
+}
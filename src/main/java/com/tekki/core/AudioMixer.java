@@ -0,0 +1,205 @@
+package com.tekki.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Software mixer on a dedicated thread, writing small PCM blocks to an {@link AudioOutput}.
+ * <p>
+ * {@link #play} only writes the cue into a lock-free single-producer ring, so triggering from the simulation
+ * never allocates or blocks. At the start of every block the mixer moves pending cues into a fixed pool of
+ * voices (stealing the most advanced voice when all are busy) and sums them into the next block.
+ */
+public final class AudioMixer implements AutoCloseable {
+
+    public static final float SAMPLE_RATE = 44_100f;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+    /** Frames per mixed block, about 2.9 ms. */
+    public static final int BLOCK_FRAMES = 128;
+    /** Default device buffer: three blocks. */
+    public static final int DEFAULT_BUFFER_FRAMES = 3 * BLOCK_FRAMES;
+
+    private static final int VOICES = 16;
+    private static final int TRIGGER_CAPACITY = 64;
+    private static final float MASTER_GAIN = 0.8f;
+    private static final long BLOCK_NANOS = (long) (BLOCK_FRAMES * 1_000_000_000L / SAMPLE_RATE);
+
+    private final SoundBank bank;
+    private final AudioOutput output;
+    private final SoundCue[] cues = SoundCue.values();
+
+    private final int[] triggerCues = new int[TRIGGER_CAPACITY];
+    private final float[] triggerGains = new float[TRIGGER_CAPACITY];
+    private final long[] triggerNanos = new long[TRIGGER_CAPACITY];
+    private final AtomicLong triggerTail = new AtomicLong();
+    private final AtomicLong triggerHead = new AtomicLong();
+    private long droppedTriggers;
+
+    private final short[][] voiceClips = new short[VOICES][];
+    private final int[] voicePositions = new int[VOICES];
+    private final float[] voiceGains = new float[VOICES];
+
+    private final int[] accumulator = new int[BLOCK_FRAMES];
+    private final byte[] block = new byte[BLOCK_FRAMES * 2];
+
+    private volatile long maxTriggerLatencyNanos;
+    private volatile long totalTriggerLatencyNanos;
+    private volatile long startedVoices;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AudioMixer(SoundBank bank, AudioOutput output) {
+        this.bank = bank;
+        this.output = output;
+        this.thread = new Thread(this::run, "tekki-audio");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * Trigger a cue at full volume. Call from a single thread (the simulation).
+     */
+    public void play(SoundCue cue) {
+        play(cue, 1f);
+    }
+
+    /**
+     * Trigger a cue. Returns false if the mixer fell a full trigger ring behind.
+     */
+    public boolean play(SoundCue cue, float gain) {
+        long tail = triggerTail.get();
+        if (tail - triggerHead.get() >= TRIGGER_CAPACITY) {
+            droppedTriggers++;
+            return false;
+        }
+        int slot = (int) (tail % TRIGGER_CAPACITY);
+        triggerCues[slot] = cue.ordinal();
+        triggerGains[slot] = gain;
+        triggerNanos[slot] = System.nanoTime();
+        triggerTail.lazySet(tail + 1);
+        return true;
+    }
+
+    private void run() {
+        long nextBlock = System.nanoTime();
+        while (running) {
+            startTriggeredVoices();
+            mixBlock();
+            output.write(block, block.length);
+            if (!output.isRealTime()) {
+                nextBlock += BLOCK_NANOS;
+                long wait = nextBlock - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -8 * BLOCK_NANOS) {
+                    nextBlock = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    private void startTriggeredVoices() {
+        long head = triggerHead.get();
+        long tail = triggerTail.get();
+        if (head == tail) {
+            return;
+        }
+        long now = System.nanoTime();
+        long started = tail - head;
+        long latencyTotal = totalTriggerLatencyNanos;
+        long latencyMax = maxTriggerLatencyNanos;
+        while (head < tail) {
+            int slot = (int) (head % TRIGGER_CAPACITY);
+            int voice = claimVoice();
+            voiceClips[voice] = bank.getClip(cues[triggerCues[slot]]);
+            voicePositions[voice] = 0;
+            voiceGains[voice] = triggerGains[slot] * MASTER_GAIN;
+            long latency = now - triggerNanos[slot];
+            latencyTotal += latency;
+            latencyMax = Math.max(latencyMax, latency);
+            head++;
+        }
+        totalTriggerLatencyNanos = latencyTotal;
+        maxTriggerLatencyNanos = latencyMax;
+        startedVoices += started;
+        triggerHead.lazySet(head);
+    }
+
+    /**
+     * A free voice, or the one furthest into its clip.
+     */
+    private int claimVoice() {
+        int oldest = 0;
+        for (int voice = 0; voice < VOICES; voice++) {
+            if (voiceClips[voice] == null) {
+                return voice;
+            }
+            if (voicePositions[voice] > voicePositions[oldest]) {
+                oldest = voice;
+            }
+        }
+        return oldest;
+    }
+
+    private void mixBlock() {
+        Arrays.fill(accumulator, 0);
+        for (int voice = 0; voice < VOICES; voice++) {
+            short[] clip = voiceClips[voice];
+            if (clip == null) {
+                continue;
+            }
+            int position = voicePositions[voice];
+            int frames = Math.min(BLOCK_FRAMES, clip.length - position);
+            float gain = voiceGains[voice];
+            for (int i = 0; i < frames; i++) {
+                accumulator[i] += (int) (clip[position + i] * gain);
+            }
+            position += frames;
+            if (position >= clip.length) {
+                voiceClips[voice] = null;
+            } else {
+                voicePositions[voice] = position;
+            }
+        }
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, accumulator[i]));
+            block[2 * i] = (byte) sample;
+            block[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Worst time from {@link #play} until the cue's first block was mixed, excluding the device buffer.
+     */
+    public double getMaxTriggerLatencyMillis() {
+        return maxTriggerLatencyNanos / 1e6;
+    }
+
+    public double getAverageTriggerLatencyMillis() {
+        long started = startedVoices;
+        return started == 0 ? 0.0 : totalTriggerLatencyNanos / 1e6 / started;
+    }
+
+    public long getStartedVoiceCount() {
+        return startedVoices;
+    }
+
+    public long getDroppedTriggerCount() {
+        return droppedTriggers;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        output.close();
+    }
+}
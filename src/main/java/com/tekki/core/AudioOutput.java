@@ -0,0 +1,158 @@
+package com.tekki.core;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Destination for the mixer's PCM blocks in {@link AudioMixer#FORMAT}.
+ */
+public interface AudioOutput extends AutoCloseable {
+
+    void write(byte[] data, int length);
+
+    /**
+     * True when {@link #write} blocks until the device has room, so the device paces the mixer.
+     */
+    boolean isRealTime();
+
+    @Override
+    void close();
+
+    /**
+     * Open an output from a spec: {@code line} for the sound card, {@code null} to discard or
+     * {@code file:<path>} to record a WAV file. A missing sound card falls back to {@code null}.
+     */
+    static AudioOutput open(String spec, int bufferFrames) {
+        if (spec.startsWith("file:")) {
+            return new WavFile(new File(spec.substring("file:".length())));
+        }
+        if (spec.equals("null")) {
+            return new Discard();
+        }
+        if (!spec.equals("line")) {
+            throw new IllegalArgumentException("Unknown audio output: " + spec);
+        }
+        try {
+            return new Line(bufferFrames);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            return new Discard();
+        }
+    }
+
+    /**
+     * Sound card output through a small {@link SourceDataLine} buffer.
+     */
+    final class Line implements AudioOutput {
+
+        private final SourceDataLine line;
+
+        Line(int bufferFrames) throws LineUnavailableException {
+            line = AudioSystem.getSourceDataLine(AudioMixer.FORMAT);
+            line.open(AudioMixer.FORMAT, bufferFrames * AudioMixer.FORMAT.getFrameSize());
+            line.start();
+        }
+
+        @Override
+        public void write(byte[] data, int length) {
+            line.write(data, 0, length);
+        }
+
+        @Override
+        public boolean isRealTime() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            line.stop();
+            line.close();
+        }
+    }
+
+    /**
+     * Discards everything; for headless runs.
+     */
+    final class Discard implements AudioOutput {
+
+        @Override
+        public void write(byte[] data, int length) {
+        }
+
+        @Override
+        public boolean isRealTime() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Records the mix into a 16-bit mono WAV file; the header sizes are patched on close.
+     */
+    final class WavFile implements AudioOutput {
+
+        private static final int HEADER_BYTES = 44;
+
+        private final File file;
+        private final OutputStream out;
+        private long dataBytes;
+
+        WavFile(File file) {
+            this.file = file;
+            try {
+                this.out = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+                out.write(new byte[HEADER_BYTES]);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create audio file: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public void write(byte[] data, int length) {
+            try {
+                out.write(data, 0, length);
+                dataBytes += length;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write audio file: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public boolean isRealTime() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.close();
+                try (RandomAccessFile header = new RandomAccessFile(file, "rw")) {
+                    int sampleRate = (int) AudioMixer.SAMPLE_RATE;
+                    header.writeBytes("RIFF");
+                    header.writeInt(Integer.reverseBytes((int) (HEADER_BYTES - 8 + dataBytes)));
+                    header.writeBytes("WAVEfmt ");
+                    header.writeInt(Integer.reverseBytes(16));
+                    header.writeShort(Short.reverseBytes((short) 1));
+                    header.writeShort(Short.reverseBytes((short) 1));
+                    header.writeInt(Integer.reverseBytes(sampleRate));
+                    header.writeInt(Integer.reverseBytes(sampleRate * 2));
+                    header.writeShort(Short.reverseBytes((short) 2));
+                    header.writeShort(Short.reverseBytes((short) 16));
+                    header.writeBytes("data");
+                    header.writeInt(Integer.reverseBytes((int) dataBytes));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not finish audio file: " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+/**
+ * One parallax layer behind a stage, cut into square tiles of {@link TileCache#TILE_SIZE} pixels that are
+ * decoded one at a time, so a layer as wide as the stage never has to be in memory as a whole. Immutable.
+ * <p>
+ * A layer scrolls at {@code parallax} times the speed of the stage: 0 stays put, 1 moves with the fighters.
+ * Its tiles hang in {@code rows} rows above {@code bottom}; row 0 is the top one. They either come from
+ * {@code col_row.png} files cut by {@link BackgroundTiler} or are painted from a seed.
+ */
+public final class BackgroundLayer {
+
+    /** Look of a layer painted from a seed. */
+    public enum Style {
+        MOUNTAINS,
+        SKYLINE,
+        CLOUDS
+    }
+
+    /** Width of the plot each skyline building stands on, and of its windows. */
+    private static final int SKYLINE_LOT = 72;
+    private static final int WINDOW_WIDTH = 8;
+    private static final int WINDOW_HEIGHT = 12;
+    /** Cloud density below which the sky stays clear. */
+    private static final float CLOUD_THRESHOLD = 0.38f;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final String name;
+    private final String folder;
+    private final Style style;
+    private final Color color;
+    private final long seed;
+    private final float parallax;
+    private final int bottom;
+    private final int rows;
+
+    private BackgroundLayer(String name, String folder, Style style, Color color, long seed, float parallax,
+                            int bottom, int rows) {
+        this.name = name;
+        this.folder = folder;
+        this.style = style;
+        this.color = color;
+        this.seed = seed;
+        this.parallax = parallax;
+        this.bottom = bottom;
+        this.rows = rows;
+    }
+
+    /**
+     * Layer read from tile files in {@code folder}, a path relative to the project root like the sprite
+     * folders. A missing tile is left empty.
+     */
+    public static BackgroundLayer tiles(String name, String folder, float parallax, int bottom, int rows) {
+        return new BackgroundLayer(name, folder, null, null, 0L, parallax, bottom, rows);
+    }
+
+    /**
+     * Layer painted in {@code style}; the same seed always paints the same tiles.
+     */
+    public static BackgroundLayer painted(String name, Style style, Color color, long seed, float parallax,
+                                          int bottom, int rows) {
+        return new BackgroundLayer(name, null, style, color, seed, parallax, bottom, rows);
+    }
+
+    /**
+     * Process-wide number telling layers apart in the {@link TileCache}.
+     */
+    int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getParallax() {
+        return parallax;
+    }
+
+    /**
+     * World y of the bottom edge of the lowest row.
+     */
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * World y of the top edge of the highest row.
+     */
+    int getTop() {
+        return bottom - rows * TileCache.TILE_SIZE;
+    }
+
+    /**
+     * The pixels of one tile, or null where the tile has nothing to draw. Slow; called off the render thread.
+     */
+    BufferedImage decodeTile(int column, int row) {
+        return folder != null ? readTile(column, row) : paintTile(column, row);
+    }
+
+    private BufferedImage readTile(int column, int row) {
+        File file = new File(folder, column + "_" + row + ".png");
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read background tile: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private BufferedImage paintTile(int column, int row) {
+        int size = TileCache.TILE_SIZE;
+        int[] pixels = new int[size * size];
+        boolean empty = true;
+        for (int px = 0; px < size; px++) {
+            float x = column * size + px;
+            // Height of this pixel column's bottom pixel above the layer's bottom edge.
+            float base = (rows - 1 - row) * size;
+            float ridge = style == Style.CLOUDS ? 0f : ridgeHeight(x);
+            for (int py = 0; py < size; py++) {
+                float h = base + size - 1 - py;
+                int argb = switch (style) {
+                    case MOUNTAINS -> mountainPixel(h, ridge);
+                    case SKYLINE -> skylinePixel(x, h, ridge);
+                    case CLOUDS -> cloudPixel(x, h);
+                };
+                pixels[py * size + px] = argb;
+                empty &= argb == 0;
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, size, size, pixels, 0, size);
+        return image;
+    }
+
+    private float layerHeight() {
+        return rows * TileCache.TILE_SIZE;
+    }
+
+    /**
+     * Top of the mountains or of the building at {@code x}, in pixels above the layer's bottom edge.
+     */
+    private float ridgeHeight(float x) {
+        if (style == Style.SKYLINE) {
+            long building = (long) Math.floor(x / SKYLINE_LOT);
+            return layerHeight() * (0.3f + 0.65f * hash(building, 0L));
+        }
+        float noise = 0.6f * valueNoise(x / 420f, 1L) + 0.3f * valueNoise(x / 150f, 2L) + 0.1f * valueNoise(x / 50f, 3L);
+        return layerHeight() * (0.3f + 0.65f * noise);
+    }
+
+    private int mountainPixel(float h, float ridge) {
+        if (h >= ridge) {
+            return 0;
+        }
+        // Lighter towards the peaks, with a snow cap on the highest ones.
+        float shade = 0.75f + 0.25f * h / layerHeight();
+        if (ridge > 0.8f * layerHeight() && h > ridge - 18f) {
+            return argb(255, 225, 230, 240);
+        }
+        return argb(255, color.getRed() * shade, color.getGreen() * shade, color.getBlue() * shade);
+    }
+
+    private int skylinePixel(float x, float h, float ridge) {
+        long building = (long) Math.floor(x / SKYLINE_LOT);
+        float inLot = x - building * SKYLINE_LOT;
+        float width = SKYLINE_LOT * (0.7f + 0.3f * hash(building, 1L));
+        if (inLot >= width || h >= ridge) {
+            return 0;
+        }
+        int wx = (int) (inLot / WINDOW_WIDTH);
+        int wy = (int) (h / WINDOW_HEIGHT);
+        boolean frame = inLot - wx * WINDOW_WIDTH < 3f || h - wy * WINDOW_HEIGHT < 4f || h > ridge - WINDOW_HEIGHT;
+        if (!frame && hash(building, wx * 1_000L + wy) < 0.22f) {
+            return argb(255, 250, 215, 120);
+        }
+        return color.getRGB() | 0xFF000000;
+    }
+
+    private int cloudPixel(float x, float h) {
+        float band = h / layerHeight();
+        float falloff = 1f - Math.abs(band - 0.5f) * 2f;
+        if (falloff <= CLOUD_THRESHOLD) {
+            return 0;
+        }
+        float density = (0.65f * valueNoise2(x / 220f, h / 70f, 4L) + 0.35f * valueNoise2(x / 70f, h / 30f, 5L))
+                * falloff;
+        float alpha = Math.min(1f, Math.max(0f, (density - CLOUD_THRESHOLD) * 4f)) * 0.75f;
+        if (alpha <= 0f) {
+            return 0;
+        }
+        return argb(alpha * 255f, color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    private static int argb(float a, float r, float g, float b) {
+        return (Math.round(a) << 24) | (Math.round(r) << 16) | (Math.round(g) << 8) | Math.round(b);
+    }
+
+    /**
+     * Smooth noise in [0, 1) along x, continuous across tile edges since it only depends on layer coordinates.
+     */
+    private float valueNoise(float x, long octave) {
+        long cell = (long) Math.floor(x);
+        float t = smooth(x - cell);
+        return lerp(hash(cell, octave), hash(cell + 1, octave), t);
+    }
+
+    private float valueNoise2(float x, float y, long octave) {
+        long cx = (long) Math.floor(x);
+        long cy = (long) Math.floor(y);
+        float tx = smooth(x - cx);
+        float ty = smooth(y - cy);
+        float top = lerp(hash(cx, octave * 7_919L + cy), hash(cx + 1, octave * 7_919L + cy), tx);
+        float below = lerp(hash(cx, octave * 7_919L + cy + 1), hash(cx + 1, octave * 7_919L + cy + 1), tx);
+        return lerp(top, below, ty);
+    }
+
+    private static float smooth(float t) {
+        return t * t * (3f - 2f * t);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    /**
+     * Uniform value in [0, 1) for a cell of this layer.
+     */
+    private float hash(long a, long b) {
+        long z = seed + a * 0x9E3779B97F4A7C15L + b * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 40) / (float) (1L << 24);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tekki.core;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+
+/**
+ * Cuts a background painting into the {@code col_row.png} tiles read by {@link BackgroundLayer#tiles}. The
+ * bottom of the painting lines up with the bottom of the layer; tiles with nothing on them are not written.
+ * <p>
+ * Run from the folder containing the project with
+ * <pre>
+ * java com.tekki.core.BackgroundTiler painting.png outputFolder
+ * </pre>
+ * and use the printed row count for the layer.
+ */
+public final class BackgroundTiler {
+
+    private BackgroundTiler() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BackgroundTiler painting.png outputFolder");
+            System.exit(1);
+        }
+        File source = new File(args[0]);
+        File output = new File(args[1]);
+        BufferedImage painting;
+        try {
+            painting = ImageIO.read(source);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read painting: " + source.getAbsolutePath(), e);
+        }
+        if (painting == null) {
+            throw new IllegalStateException("Not an image: " + source.getAbsolutePath());
+        }
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IllegalStateException("Could not create output folder: " + output.getAbsolutePath());
+        }
+
+        int size = TileCache.TILE_SIZE;
+        int columns = (painting.getWidth() + size - 1) / size;
+        int rows = (painting.getHeight() + size - 1) / size;
+        int offsetY = rows * size - painting.getHeight();
+        int written = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g2d = tile.createGraphics();
+                g2d.drawImage(painting, -column * size, offsetY - row * size, null);
+                g2d.dispose();
+                if (isEmpty(tile)) {
+                    continue;
+                }
+                File file = new File(output, column + "_" + row + ".png");
+                try {
+                    ImageIO.write(tile, "png", file);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write tile: " + file.getAbsolutePath(), e);
+                }
+                written++;
+            }
+        }
+        System.out.println(written + " of " + columns * rows + " tiles written, " + rows + " rows");
+    }
+
+    private static boolean isEmpty(BufferedImage tile) {
+        for (int y = 0; y < tile.getHeight(); y++) {
+            for (int x = 0; x < tile.getWidth(); x++) {
+                if ((tile.getRGB(x, y) >>> 24) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tekki.core;
+
+/**
+ * Enemy brain driven by an external bot through a {@link BotBridge}. The bot answers every tick with an
+ * {@link AiAction} ordinal; while it misses deadlines the enemy falls back to its dice rolls.
+ */
+public final class BotBrain implements EnemyBrain {
+
+    private static final AiAction[] ACTIONS = AiAction.values();
+
+    private final BotBridge bridge;
+    private final Match match;
+    private boolean answering;
+
+    public BotBrain(BotBridge bridge, Match match) {
+        this.bridge = bridge;
+        this.match = match;
+    }
+
+    @Override
+    public AiAction poll(EnemyFighter self, PlayerFighter opponent) {
+        int action = bridge.exchange(match.getTick(), self, opponent);
+        answering = action >= 0 && action < ACTIONS.length;
+        return answering ? ACTIONS[action] : null;
+    }
+
+    @Override
+    public AiAction decide(EnemyFighter self, PlayerFighter opponent) {
+        return answering ? AiAction.HOLD : null;
+    }
+}
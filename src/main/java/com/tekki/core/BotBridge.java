@@ -0,0 +1,199 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Game side of the out-of-process bot protocol: two single-producer/single-consumer rings in a
+ * memory-mapped file, observations out and actions in.
+ * <p>
+ * File layout (native byte order, every counter on its own 64-byte line):
+ * <pre>
+ *   0  int magic "TKBB" (written last), int version, int slots, int observation floats,
+ *      int observation slot bytes, int action slot bytes, int observation ring offset, int action ring offset
+ *  64  long observations published   (game)
+ * 128  long observations consumed    (bot)
+ * 192  long actions published        (bot)
+ * 256  long actions consumed         (game)
+ * observation slot: long tick, {@link ObservationEncoder#SIZE} floats
+ * action slot:      long tick, int action
+ * </pre>
+ * A counter is bumped with release semantics after its slot is written, so a reader that sees the new
+ * value with acquire semantics also sees the slot. Every tick the game publishes one observation and waits
+ * until the bot answers with an action for the same tick or the deadline passes; a missed deadline returns
+ * {@link #NO_ACTION} so the caller can fall back to its built-in control. See {@link BotClient} for the bot
+ * side.
+ */
+public final class BotBridge implements AutoCloseable {
+
+    /** Which fighter the bot controls; actions are {@link AiAction} ordinals or {@link InputFrame} masks. */
+    public enum Role {
+        ENEMY,
+        PLAYER
+    }
+
+    public static final int NO_ACTION = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x544B4242; // "TKBB"
+    static final int VERSION = 1;
+    static final int LINE = 64;
+    static final int OBS_PUBLISHED = LINE;
+    static final int OBS_CONSUMED = 2 * LINE;
+    static final int ACT_PUBLISHED = 3 * LINE;
+    static final int ACT_CONSUMED = 4 * LINE;
+    static final int HEADER_BYTES = 5 * LINE;
+    static final int OBS_SLOT_BYTES = align(8 + ObservationEncoder.SIZE * 4);
+    static final int ACT_SLOT_BYTES = 16;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int actionBase;
+    private final FloatBuffer[] observationSlots;
+    private final int[] observationTickOffsets;
+    private final WaitStrategy waitStrategy;
+    private final long deadlineNanos;
+    private final float deltaTime;
+
+    private long published;
+    private long consumedActions;
+    private long receivedCount;
+    private long missedCount;
+    private long lateCount;
+    private long droppedCount;
+
+    private BotBridge(FileChannel channel, MappedByteBuffer buffer, int slots, WaitStrategy waitStrategy,
+                      long deadlineNanos, float deltaTime) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slots = slots;
+        this.waitStrategy = waitStrategy;
+        this.deadlineNanos = deadlineNanos;
+        this.deltaTime = deltaTime;
+
+        int observationBase = HEADER_BYTES;
+        this.actionBase = observationBase + slots * OBS_SLOT_BYTES;
+        this.observationSlots = new FloatBuffer[slots];
+        this.observationTickOffsets = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            int offset = observationBase + i * OBS_SLOT_BYTES;
+            observationTickOffsets[i] = offset;
+            observationSlots[i] = buffer.slice(offset + 8, ObservationEncoder.SIZE * 4)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, slots);
+        buffer.putInt(12, ObservationEncoder.SIZE);
+        buffer.putInt(16, OBS_SLOT_BYTES);
+        buffer.putInt(20, ACT_SLOT_BYTES);
+        buffer.putInt(24, observationBase);
+        buffer.putInt(28, actionBase);
+        INTS.setRelease(buffer, 0, MAGIC);
+    }
+
+    /**
+     * Create (or truncate) the shared file and map it.
+     *
+     * @param slots    ring capacity in ticks
+     * @param deadline how long {@link #exchange} may wait for the bot, in nanoseconds
+     */
+    public static BotBridge open(File file, int slots, WaitStrategy waitStrategy, long deadline, float deltaTime) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots must be positive: " + slots);
+        }
+        long size = HEADER_BYTES + (long) slots * (OBS_SLOT_BYTES + ACT_SLOT_BYTES);
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            return new BotBridge(channel, buffer, slots, waitStrategy, deadline, deltaTime);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map bot bridge file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Publish the observation for {@code tick} and wait for the bot's action for that tick.
+     * <p>
+     * Waits only while the bot has consumed every earlier observation; a bot that is behind or not attached
+     * costs a single poll. Answers for earlier ticks are discarded as late.
+     *
+     * @return the bot's action, or {@link #NO_ACTION} when it missed the deadline
+     */
+    public int exchange(long tick, Fighter self, Fighter opponent) {
+        long consumed = (long) LONGS.getAcquire(buffer, OBS_CONSUMED);
+        boolean botCaughtUp = consumed == published;
+        if (published - consumed >= slots) {
+            droppedCount++;
+        } else {
+            int slot = (int) (published % slots);
+            buffer.putLong(observationTickOffsets[slot], tick);
+            ObservationEncoder.encode(self, opponent, deltaTime, observationSlots[slot], 0);
+            published++;
+            LONGS.setRelease(buffer, OBS_PUBLISHED, published);
+        }
+
+        long deadline = System.nanoTime() + (botCaughtUp ? deadlineNanos : 0L);
+        while (true) {
+            long available = (long) LONGS.getAcquire(buffer, ACT_PUBLISHED);
+            while (consumedActions < available) {
+                int offset = actionBase + (int) (consumedActions % slots) * ACT_SLOT_BYTES;
+                long actionTick = buffer.getLong(offset);
+                int action = buffer.getInt(offset + 8);
+                consumedActions++;
+                LONGS.setRelease(buffer, ACT_CONSUMED, consumedActions);
+                if (actionTick == tick) {
+                    receivedCount++;
+                    return action;
+                }
+                lateCount++;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                missedCount++;
+                return NO_ACTION;
+            }
+            waitStrategy.idle();
+        }
+    }
+
+    public long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public long getMissedCount() {
+        return missedCount;
+    }
+
+    public long getLateCount() {
+        return lateCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close bot bridge", e);
+        }
+    }
+
+    private static int align(int bytes) {
+        return (bytes + LINE - 1) / LINE * LINE;
+    }
+}
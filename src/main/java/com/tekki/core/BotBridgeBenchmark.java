@@ -0,0 +1,70 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Measures {@link BotBridge} round-trip latency against an in-process {@link BotClient} that maps the same
+ * file, once per wait strategy.
+ * <p>
+ * Run from the folder containing the project with
+ * {@code java com.tekki.core.BotBridgeBenchmark [exchanges] [strategies...]}.
+ */
+public final class BotBridgeBenchmark {
+
+    private BotBridgeBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int exchanges = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        WaitStrategy[] strategies = args.length > 1
+                ? Arrays.stream(args, 1, args.length).map(s -> WaitStrategy.valueOf(s.toUpperCase(Locale.ROOT)))
+                        .toArray(WaitStrategy[]::new)
+                : WaitStrategy.values();
+
+        PlayerFighter player = new PlayerFighter(120f, 0f, null);
+        EnemyFighter enemy = new EnemyFighter(1460f, 0f, 1f, 1f, false, null, "enemy1");
+        File file = File.createTempFile("tekki-bot", ".mmap");
+        file.deleteOnExit();
+
+        for (WaitStrategy strategy : strategies) {
+            try (BotBridge bridge = BotBridge.open(file, 64, strategy, 50_000_000L, 1f / 60f);
+                 BotClient client = BotClient.connect(file, strategy)) {
+                Thread bot = new Thread(() -> answer(client), "tekki-bot-client");
+                bot.setDaemon(true);
+                bot.start();
+
+                long[] roundTrips = new long[exchanges];
+                for (int tick = 0; tick < exchanges; tick++) {
+                    long start = System.nanoTime();
+                    int action = bridge.exchange(tick, enemy, player);
+                    roundTrips[tick] = System.nanoTime() - start;
+                    if (action != AiAction.ATTACK.ordinal()) {
+                        throw new IllegalStateException("Unexpected answer " + action + " for tick " + tick);
+                    }
+                }
+                bot.interrupt();
+                bot.join();
+
+                Arrays.sort(roundTrips);
+                System.out.printf(Locale.ROOT, "%-5s median %7.2f us  p99 %8.2f us  max %9.2f us  missed %d%n",
+                        strategy, roundTrips[exchanges / 2] / 1e3, roundTrips[(int) (exchanges * 0.99)] / 1e3,
+                        roundTrips[exchanges - 1] / 1e3, bridge.getMissedCount());
+            }
+        }
+    }
+
+    private static void answer(BotClient client) {
+        FloatBuffer observation = FloatBuffer.allocate(ObservationEncoder.SIZE);
+        while (true) {
+            long tick = client.awaitObservation(observation);
+            if (tick < 0) {
+                return;
+            }
+            client.sendAction(tick, AiAction.ATTACK.ordinal());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bot side of the {@link BotBridge} protocol, for bots written in Java and as a reference for other
+ * languages: map the same file, read observations, answer with one action per observed tick.
+ */
+public final class BotClient implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int observationBase;
+    private final int observationSlotBytes;
+    private final int actionBase;
+    private final int actionSlotBytes;
+    private final WaitStrategy waitStrategy;
+
+    private long consumedObservations;
+    private long publishedActions;
+
+    private BotClient(FileChannel channel, MappedByteBuffer buffer, WaitStrategy waitStrategy) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.waitStrategy = waitStrategy;
+        if ((int) BotBridge.INTS.getAcquire(buffer, 0) != BotBridge.MAGIC || buffer.getInt(4) != BotBridge.VERSION) {
+            throw new IllegalStateException("Bot bridge file is not initialised or has another version");
+        }
+        this.slots = buffer.getInt(8);
+        this.observationSlotBytes = buffer.getInt(16);
+        this.actionSlotBytes = buffer.getInt(20);
+        this.observationBase = buffer.getInt(24);
+        this.actionBase = buffer.getInt(28);
+        // Join at the current position instead of replaying old observations.
+        this.consumedObservations = (long) BotBridge.LONGS.getAcquire(buffer, BotBridge.OBS_PUBLISHED);
+        this.publishedActions = (long) BotBridge.LONGS.getAcquire(buffer, BotBridge.ACT_PUBLISHED);
+        BotBridge.LONGS.setRelease(buffer, BotBridge.OBS_CONSUMED, consumedObservations);
+    }
+
+    /**
+     * Map a file the game has already opened with {@link BotBridge#open}.
+     */
+    public static BotClient connect(File file, WaitStrategy waitStrategy) {
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            return new BotClient(channel, buffer, waitStrategy);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map bot bridge file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Wait for the next observation, copy it into {@code out} and return its tick.
+     */
+    public long awaitObservation(FloatBuffer out) {
+        while ((long) BotBridge.LONGS.getAcquire(buffer, BotBridge.OBS_PUBLISHED) <= consumedObservations) {
+            if (Thread.currentThread().isInterrupted()) {
+                return -1L;
+            }
+            waitStrategy.idle();
+        }
+        int offset = observationBase + (int) (consumedObservations % slots) * observationSlotBytes;
+        long tick = buffer.getLong(offset);
+        for (int i = 0; i < ObservationEncoder.SIZE; i++) {
+            out.put(i, buffer.getFloat(offset + 8 + i * 4));
+        }
+        consumedObservations++;
+        BotBridge.LONGS.setRelease(buffer, BotBridge.OBS_CONSUMED, consumedObservations);
+        return tick;
+    }
+
+    /**
+     * Answer the observation of {@code tick}. Drops the action when the game has not drained the ring.
+     *
+     * @return false when the action ring was full
+     */
+    public boolean sendAction(long tick, int action) {
+        long consumed = (long) BotBridge.LONGS.getAcquire(buffer, BotBridge.ACT_CONSUMED);
+        if (publishedActions - consumed >= slots) {
+            return false;
+        }
+        int offset = actionBase + (int) (publishedActions % slots) * actionSlotBytes;
+        buffer.putLong(offset, tick);
+        buffer.putInt(offset + 8, action);
+        publishedActions++;
+        BotBridge.LONGS.setRelease(buffer, BotBridge.ACT_PUBLISHED, publishedActions);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close bot client", e);
+        }
+    }
+}
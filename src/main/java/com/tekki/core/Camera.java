@@ -0,0 +1,125 @@
+package com.tekki.core;
+
+/**
+ * View onto a stage that can be wider than the screen: follows the midpoint of both fighters and zooms out
+ * as they move apart, easing towards both so cuts and knockbacks do not jerk the picture.
+ * <p>
+ * The floor stays at the bottom of the screen; zooming out shows more sky. The view never leaves the stage
+ * sideways. Presentation only: the camera is not part of the simulation state.
+ */
+final class Camera {
+
+    /** Furthest zoom out, on stages wide enough for it. */
+    static final float MIN_ZOOM = 0.6f;
+    private static final float MAX_ZOOM = 1f;
+    /** World pixels kept visible beyond either fighter. */
+    private static final float MARGIN = 320f;
+    /** How quickly the view closes the gap to its target, per second. */
+    private static final float FOLLOW_RATE = 5f;
+
+    private final float viewWidth;
+    private final float viewHeight;
+    private float stageWidth;
+    private float centerX;
+    private float zoom = MAX_ZOOM;
+    private float velocityX;
+
+    Camera(int viewWidth, int viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.stageWidth = viewWidth;
+        this.centerX = viewWidth / 2f;
+    }
+
+    /**
+     * Jump straight to the fighters on a stage, e.g. when it starts or after time travel.
+     */
+    void reset(float stageWidth, Fighter a, Fighter b) {
+        this.stageWidth = stageWidth;
+        centerX = targetCenter(a, b);
+        zoom = targetZoom(a, b);
+        velocityX = 0f;
+        clampToStage();
+    }
+
+    /**
+     * Ease towards the fighters after a simulation step.
+     */
+    void update(float deltaTime, Fighter a, Fighter b) {
+        float blend = 1f - (float) Math.exp(-FOLLOW_RATE * deltaTime);
+        float previousX = centerX;
+        zoom += (targetZoom(a, b) - zoom) * blend;
+        centerX += (targetCenter(a, b) - centerX) * blend;
+        clampToStage();
+        velocityX = deltaTime > 0f ? (centerX - previousX) / deltaTime : 0f;
+    }
+
+    void copyFrom(Camera other) {
+        stageWidth = other.stageWidth;
+        centerX = other.centerX;
+        zoom = other.zoom;
+        velocityX = other.velocityX;
+    }
+
+    private static float targetCenter(Fighter a, Fighter b) {
+        return (a.getCenterX() + b.getCenterX()) / 2f;
+    }
+
+    private float targetZoom(Fighter a, Fighter b) {
+        float span = Math.abs(a.getCenterX() - b.getCenterX()) + Math.max(a.getWidth(), b.getWidth()) + 2f * MARGIN;
+        return Math.max(minimumZoom(), Math.min(MAX_ZOOM, viewWidth / span));
+    }
+
+    /**
+     * Zooming out further would show past the ends of the stage.
+     */
+    private float minimumZoom() {
+        return Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, viewWidth / stageWidth));
+    }
+
+    private void clampToStage() {
+        zoom = Math.max(minimumZoom(), Math.min(MAX_ZOOM, zoom));
+        float half = viewWidth / zoom / 2f;
+        centerX = half * 2f >= stageWidth ? stageWidth / 2f : Math.max(half, Math.min(stageWidth - half, centerX));
+    }
+
+    /**
+     * Left edge of the view in world pixels.
+     */
+    float getLeft() {
+        return centerX - viewWidth / zoom / 2f;
+    }
+
+    /**
+     * Top edge of the view in world pixels; negative when zoomed out.
+     */
+    float getTop() {
+        return viewHeight - viewHeight / zoom;
+    }
+
+    float getRight() {
+        return centerX + viewWidth / zoom / 2f;
+    }
+
+    float getBottom() {
+        return viewHeight;
+    }
+
+    /**
+     * Screen pixels per world pixel.
+     */
+    float getZoom() {
+        return zoom;
+    }
+
+    /**
+     * How fast the view moved along the stage in the last update, in world pixels per second.
+     */
+    float getVelocityX() {
+        return velocityX;
+    }
+
+    float getStageWidth() {
+        return stageWidth;
+    }
+}
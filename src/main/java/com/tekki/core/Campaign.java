@@ -0,0 +1,73 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The stages of a run and how each one's fight is set up, shared by the game and replays.
+ */
+final class Campaign {
+
+    /** Size of the screen in world pixels at zoom 1; stages can be wider, see {@link Level#getStageWidth()}. */
+    static final int ARENA_WIDTH = 1680;
+    static final int ARENA_HEIGHT = 720;
+    static final int FLOOR_HEIGHT = 60;
+
+    // Shared by every call to levels() so their tiles stay cached across runs.
+    private static final int FLOOR_TOP = ARENA_HEIGHT - FLOOR_HEIGHT;
+    private static final List<BackgroundLayer> DOJO_LAYERS = List.of(
+            BackgroundLayer.painted("Dojo peaks", BackgroundLayer.Style.MOUNTAINS, new Color(75, 95, 120), 11L,
+                    0.15f, FLOOR_TOP, 2),
+            BackgroundLayer.painted("Dojo hills", BackgroundLayer.Style.MOUNTAINS, new Color(45, 62, 58), 12L,
+                    0.45f, FLOOR_TOP, 1));
+    private static final List<BackgroundLayer> ROOFTOP_LAYERS = List.of(
+            BackgroundLayer.painted("Rooftop clouds", BackgroundLayer.Style.CLOUDS, new Color(170, 170, 215), 21L,
+                    0.1f, FLOOR_TOP - 300, 1),
+            BackgroundLayer.painted("Rooftop far", BackgroundLayer.Style.SKYLINE, new Color(58, 58, 105), 22L,
+                    0.3f, FLOOR_TOP, 2),
+            BackgroundLayer.painted("Rooftop near", BackgroundLayer.Style.SKYLINE, new Color(30, 30, 58), 23L,
+                    0.6f, FLOOR_TOP, 1));
+
+    private Campaign() {
+    }
+
+    static List<Level> levels() {
+        List<Level> levels = new ArrayList<>();
+        levels.add(new Level("Dojo", new Color(50, 70, 90), new Color(90, 70, 50), 1.0f, 1.0f, false, 10, "enemy1",
+                2 * ARENA_WIDTH, DOJO_LAYERS));
+        levels.add(new Level("Rooftop", new Color(40, 40, 90), new Color(80, 80, 90), 2.0f, 2.2f, true, 20, "enemy2",
+                3 * ARENA_WIDTH, ROOFTOP_LAYERS));
+        return levels;
+    }
+
+    /**
+     * Both fighters in their starting positions for a stage, with sprites. Deterministic for given seeds.
+     * The fighters start a screen apart around the middle of the stage and cannot leave it.
+     */
+    static Match newMatch(Level level, int levelIndex, PhysicsMode physicsMode, long matchSeed, long enemySeed) {
+        CharacterProfile playerProfile = new CharacterProfile("Player 1", new Color(70, 140, 255), null);
+        CharacterProfile enemyProfile = levelIndex == 0
+                ? new CharacterProfile("CPU Dojo", new Color(210, 100, 190), null)
+                : new CharacterProfile("CPU Rooftop", new Color(240, 120, 80), null,
+                        SpriteVariant.tint(new Color(240, 120, 80), 0.2f));
+        float floorTopY = FLOOR_TOP;
+        float screenLeft = (level.getStageWidth() - ARENA_WIDTH) / 2f;
+
+        PlayerFighter player = new PlayerFighter(screenLeft + 120f, 0f, playerProfile);
+        player.setStageBounds(0f, level.getStageWidth());
+        player.setPhysicsMode(physicsMode);
+        player.setGroundFromFloorTop(floorTopY);
+        player.snapToGround();
+
+        EnemyFighter enemy = new EnemyFighter(screenLeft + ARENA_WIDTH - 220f, 0f, level.getEnemySpeedMultiplier(),
+                level.getEnemyAggression(), level.isEnemyDashesMore(), enemyProfile, level.getEnemySpriteFolder());
+        enemy.setStageBounds(0f, level.getStageWidth());
+        enemy.setPhysicsMode(physicsMode);
+        enemy.setGroundFromFloorTop(floorTopY);
+        enemy.snapToGround();
+        enemy.reseed(enemySeed);
+
+        return new Match(player, enemy, level.getEnemyDamage() / (float) Level.BASE_ENEMY_DAMAGE, matchSeed);
+    }
+}
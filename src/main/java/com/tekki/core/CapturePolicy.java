@@ -0,0 +1,21 @@
+package com.tekki.core;
+
+/**
+ * Which rendered frames {@link FrameCapture} records when the encoders fall behind.
+ * <p>
+ * Either way a frame is dropped when no pooled buffer is free; capture never makes the painter wait.
+ */
+public enum CapturePolicy {
+    /** Record every frame while buffers are free. */
+    DROP,
+    /** Record every 2nd frame once the queue is half full and every 4th past three quarters. */
+    ADAPTIVE;
+
+    boolean accepts(long frame, int queued, int capacity) {
+        if (this == DROP || queued * 2 < capacity) {
+            return true;
+        }
+        int stride = queued * 4 < capacity * 3 ? 2 : 4;
+        return frame % stride == 0;
+    }
+}
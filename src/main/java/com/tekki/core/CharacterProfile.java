@@ -10,11 +10,20 @@ public class CharacterProfile {
     private final String name;
     private final Color baseColor;
     private final String texturePath;
+    private final SpriteVariant costume;
 
     public CharacterProfile(String name, Color baseColor, String texturePath) {
+        this(name, baseColor, texturePath, null);
+    }
+
+    /**
+     * @param costume recoloring applied to every sprite of this character, or null for the original sheet
+     */
+    public CharacterProfile(String name, Color baseColor, String texturePath, SpriteVariant costume) {
         this.name = name;
         this.baseColor = baseColor;
         this.texturePath = texturePath;
+        this.costume = costume;
     }
 
     public String getName() {
@@ -28,4 +37,8 @@ public class CharacterProfile {
     public String getTexturePath() {
         return texturePath;
     }
+
+    public SpriteVariant getCostume() {
+        return costume;
+    }
 }
@@ -0,0 +1,63 @@
+package com.tekki.core;
+
+/**
+ * Preallocated ring-buffer slot of the {@link CombatEventBus}. Slots are reused, so consumers must copy
+ * whatever they need before returning from {@link CombatEventHandler#onEvent}.
+ */
+public final class CombatEvent {
+
+    private CombatEventType type;
+    private long tick;
+    private boolean byPlayer;
+    private int damage;
+    private int move;
+    private float x;
+    private float y;
+
+    void set(CombatEventType type, long tick, boolean byPlayer, int damage, int move, float x, float y) {
+        this.type = type;
+        this.tick = tick;
+        this.byPlayer = byPlayer;
+        this.damage = damage;
+        this.move = move;
+        this.x = x;
+        this.y = y;
+    }
+
+    public CombatEventType getType() {
+        return type;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Whether the player caused the event (landed the hit, scored the KO, cleared the level).
+     */
+    public boolean isByPlayer() {
+        return byPlayer;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    /**
+     * {@link MoveTable} id of the move that hit, or -1.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Center of the defender when the event happened, in world coordinates.
+     */
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+}
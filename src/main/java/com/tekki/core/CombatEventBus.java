@@ -0,0 +1,171 @@
+package com.tekki.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer broadcast ring of preallocated {@link CombatEvent}s.
+ * <p>
+ * The simulation thread publishes into the next free slot and moves the cursor with release semantics;
+ * every consumer follows the cursor with its own sequence. Synchronous consumers run on the simulation
+ * thread inside {@link #dispatch()}; asynchronous ones poll on their own thread with a {@link WaitStrategy}.
+ * A slot is only reused once every consumer has passed it. If the slowest consumer is a full ring behind,
+ * the event is dropped and counted rather than blocking the simulation.
+ */
+public final class CombatEventBus implements AutoCloseable {
+
+    private final CombatEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1L);
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<Subscription> syncSubscriptions = new ArrayList<>();
+    private long gatingSequence = -1L;
+    private long droppedCount;
+
+    /**
+     * @param capacity ring size, a power of two
+     */
+    public CombatEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        ring = new CombatEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new CombatEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Register a consumer that runs on the publishing thread during {@link #dispatch()}.
+     */
+    public Subscription subscribe(String name, CombatEventHandler handler) {
+        Subscription subscription = new Subscription(name, handler);
+        subscriptions.add(subscription);
+        syncSubscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Register a consumer with its own daemon thread. Subscribe before publishing starts.
+     */
+    public Subscription subscribeAsync(String name, CombatEventHandler handler, WaitStrategy waitStrategy) {
+        Subscription subscription = new Subscription(name, handler);
+        subscriptions.add(subscription);
+        Thread thread = new Thread(() -> subscription.run(waitStrategy), "tekki-events-" + name);
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+        return subscription;
+    }
+
+    /**
+     * Claim, fill and publish the next slot. Never blocks and never allocates.
+     *
+     * @return false when the ring was full and the event was dropped
+     */
+    public boolean publish(CombatEventType type, long tick, boolean byPlayer, int damage, int move, float x, float y) {
+        long next = cursor.get() + 1;
+        if (next - gatingSequence > ring.length) {
+            gatingSequence = minimumSequence(next - 1);
+            if (next - gatingSequence > ring.length) {
+                droppedCount++;
+                return false;
+            }
+        }
+        ring[(int) (next & mask)].set(type, tick, byPlayer, damage, move, x, y);
+        cursor.setRelease(next);
+        return true;
+    }
+
+    /**
+     * Run the synchronous consumers over everything published so far, including events they publish.
+     */
+    public void dispatch() {
+        for (int i = 0; i < syncSubscriptions.size(); i++) {
+            syncSubscriptions.get(i).drain();
+        }
+    }
+
+    private long minimumSequence(long upperBound) {
+        long minimum = upperBound;
+        for (int i = 0; i < subscriptions.size(); i++) {
+            minimum = Math.min(minimum, subscriptions.get(i).sequence.getAcquire());
+        }
+        return minimum;
+    }
+
+    /**
+     * Events dropped because a consumer was a full ring behind.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getPublishedCount() {
+        return cursor.get() + 1;
+    }
+
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.running = false;
+            if (subscription.thread != null) {
+                subscription.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * One consumer's position in the ring.
+     */
+    public final class Subscription {
+
+        private final String name;
+        private final CombatEventHandler handler;
+        private final AtomicLong sequence;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        private Subscription(String name, CombatEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+            this.sequence = new AtomicLong(cursor.get());
+        }
+
+        private boolean drain() {
+            long current = sequence.get();
+            long available = cursor.getAcquire();
+            if (current >= available) {
+                return false;
+            }
+            while (current < available) {
+                current++;
+                handler.onEvent(ring[(int) (current & mask)], current);
+                sequence.setRelease(current);
+                available = cursor.getAcquire();
+            }
+            return true;
+        }
+
+        private void run(WaitStrategy waitStrategy) {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                if (!drain()) {
+                    waitStrategy.idle();
+                }
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Published events this consumer has not handled yet.
+         */
+        public long getLag() {
+            return cursor.get() - sequence.get();
+        }
+    }
+}
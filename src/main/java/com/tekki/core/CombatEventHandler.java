@@ -0,0 +1,10 @@
+package com.tekki.core;
+
+/**
+ * Consumer of the {@link CombatEventBus}.
+ */
+@FunctionalInterface
+public interface CombatEventHandler {
+
+    void onEvent(CombatEvent event, long sequence);
+}
@@ -0,0 +1,17 @@
+package com.tekki.core;
+
+/**
+ * Kinds of {@link CombatEvent} published on the {@link CombatEventBus}.
+ */
+public enum CombatEventType {
+    /** A normal hit landed. */
+    HIT,
+    /** A critical hit landed; replaces HIT for that hit. */
+    CRIT,
+    /** A hit landed on a defending fighter; replaces HIT for that hit. */
+    BLOCK,
+    /** The defender was knocked out. */
+    KO,
+    /** The player cleared the current level; follows the enemy's KO in the same tick. */
+    LEVEL_CLEAR
+}
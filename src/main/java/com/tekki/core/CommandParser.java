@@ -0,0 +1,121 @@
+package com.tekki.core;
+
+/**
+ * Matches the recent {@link InputHistory} against a prioritised list of {@link CommandPattern}s each tick.
+ * <p>
+ * Matching walks backwards from the current tick, allowing at most the pattern's leniency between two steps,
+ * so the cost is bounded by the patterns' size and independent of play time; nothing is allocated.
+ * A command only fires on the tick its final step is freshly entered, so holding a button does not repeat it.
+ */
+public final class CommandParser {
+
+    private final CommandPattern[] patterns;
+    private final InputHistory history = new InputHistory();
+    private boolean lastMatchFacingRight = true;
+
+    /**
+     * @param patterns commands in priority order; the first match wins
+     */
+    public CommandParser(CommandPattern... patterns) {
+        this.patterns = patterns.clone();
+    }
+
+    /**
+     * Record this tick's input and return the index of the highest-priority command completed on it, or -1.
+     * Directional commands are tried in the fighter's facing first, then mirrored.
+     */
+    public int update(InputFrame input, boolean facingRight) {
+        history.record(input);
+        for (int i = 0; i < patterns.length; i++) {
+            if (matches(patterns[i], facingRight)) {
+                lastMatchFacingRight = facingRight;
+                return i;
+            }
+            if (matches(patterns[i], !facingRight)) {
+                lastMatchFacingRight = !facingRight;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Orientation in which the last returned command was entered; "forward" pointed this way.
+     */
+    public boolean isLastMatchFacingRight() {
+        return lastMatchFacingRight;
+    }
+
+    public void reset() {
+        history.clear();
+    }
+
+    /**
+     * Take over another parser's input history; both must use the same patterns.
+     */
+    public void copyFrom(CommandParser other) {
+        history.copyFrom(other.history);
+        lastMatchFacingRight = other.lastMatchFacingRight;
+    }
+
+    void syncState(StateBuffer buffer) {
+        history.syncState(buffer);
+        lastMatchFacingRight = buffer.sync(lastMatchFacingRight);
+    }
+
+    private boolean matches(CommandPattern pattern, boolean facingRight) {
+        int last = pattern.stepCount() - 1;
+        int lastStep = pattern.step(last);
+        if (!stepMatches(lastStep, 0, facingRight) || !isFresh(lastStep, facingRight)) {
+            return false;
+        }
+
+        int tick = 0;
+        int available = history.size();
+        for (int i = last - 1; i >= 0; i--) {
+            int step = pattern.step(i);
+            // A direction and a button may share a tick; two steps of the same kind may not.
+            int from = isButton(step) == isButton(pattern.step(i + 1)) ? tick + 1 : tick;
+            int to = Math.min(tick + pattern.getLeniencyFrames(), available - 1);
+            int found = -1;
+            for (int t = from; t <= to; t++) {
+                if (stepMatches(step, t, facingRight)) {
+                    found = t;
+                    break;
+                }
+            }
+            if (found < 0) {
+                return false;
+            }
+            tick = found;
+        }
+        return true;
+    }
+
+    private boolean stepMatches(int step, int ticksAgo, boolean facingRight) {
+        if (isButton(step)) {
+            return (history.pressedButtons(ticksAgo) & step & ~CommandPattern.BUTTON_STEP) != 0;
+        }
+        int direction = history.direction(ticksAgo);
+        return (facingRight ? direction : mirror(direction)) == step;
+    }
+
+    /**
+     * The final step must begin on the current tick: buttons are presses already, directions must change.
+     */
+    private boolean isFresh(int step, boolean facingRight) {
+        return isButton(step) || history.size() < 2 || !stepMatches(step, 1, facingRight);
+    }
+
+    private static boolean isButton(int step) {
+        return (step & CommandPattern.BUTTON_STEP) != 0;
+    }
+
+    /**
+     * Swap left and right on the numpad (4 <-> 6, 1 <-> 3, 7 <-> 9).
+     */
+    private static int mirror(int direction) {
+        int column = (direction - 1) % 3;
+        return direction - column + (2 - column);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tekki.core;
+
+/**
+ * A motion or button-string command compiled from numpad notation.
+ * <p>
+ * Tokens are separated by spaces: digits 1-9 are directions relative to facing (6 = forward, 2 = down,
+ * 5 = neutral), {@code J} is an attack press and {@code K} a defend press. For example {@code "2 3 6 J"}
+ * is a quarter-circle forward into attack and {@code "6 5 6"} a double-tap forward.
+ */
+public final class CommandPattern {
+
+    /** Step flag marking a button press rather than a direction. */
+    static final int BUTTON_STEP = 1 << 16;
+
+    private final String name;
+    private final int[] steps;
+    private final int leniencyFrames;
+
+    private CommandPattern(String name, int[] steps, int leniencyFrames) {
+        this.name = name;
+        this.steps = steps;
+        this.leniencyFrames = leniencyFrames;
+    }
+
+    /**
+     * @param leniencyFrames maximum frames allowed between two consecutive steps
+     */
+    public static CommandPattern compile(String name, String notation, int leniencyFrames) {
+        String[] tokens = notation.trim().split("\\s+");
+        if (tokens.length == 0 || tokens[0].isEmpty()) {
+            throw new IllegalArgumentException("Empty command notation for " + name);
+        }
+        if (leniencyFrames <= 0 || leniencyFrames * tokens.length >= InputHistory.CAPACITY) {
+            throw new IllegalArgumentException("Command " + name + " does not fit into the input history");
+        }
+        int[] steps = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            steps[i] = switch (tokens[i]) {
+                case "J" -> BUTTON_STEP | InputFrame.ATTACK;
+                case "K" -> BUTTON_STEP | InputFrame.DEFEND;
+                default -> {
+                    if (tokens[i].length() != 1 || tokens[i].charAt(0) < '1' || tokens[i].charAt(0) > '9') {
+                        throw new IllegalArgumentException("Unknown token '" + tokens[i] + "' in command " + name);
+                    }
+                    yield tokens[i].charAt(0) - '0';
+                }
+            };
+        }
+        return new CommandPattern(name, steps, leniencyFrames);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int stepCount() {
+        return steps.length;
+    }
+
+    int step(int index) {
+        return steps[index];
+    }
+
+    int getLeniencyFrames() {
+        return leniencyFrames;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tekki.core;
+
+/**
+ * SplitMix64 generator whose whole state is a single long, so simulations using it can be copied
+ * into a snapshot and replayed exactly.
+ */
+public final class DeterministicRandom {
+
+    private long state;
+
+    public DeterministicRandom(long seed) {
+        this.state = seed;
+    }
+
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void copyFrom(DeterministicRandom other) {
+        state = other.state;
+    }
+
+    void syncState(StateBuffer buffer) {
+        state = buffer.sync(state);
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Uniform value in {@code [0, bound)}.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * Uniform value in {@code [0, 1)}.
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+}
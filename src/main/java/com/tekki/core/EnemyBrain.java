@@ -0,0 +1,22 @@
+package com.tekki.core;
+
+/**
+ * Pluggable decision maker for an {@link EnemyFighter}. Both methods run on the simulation thread and
+ * must return quickly.
+ */
+public interface EnemyBrain {
+
+    /**
+     * Called when the enemy's decision timer expires.
+     *
+     * @return the action to perform now, or null to fall back to the built-in dice rolls
+     */
+    AiAction decide(EnemyFighter self, PlayerFighter opponent);
+
+    /**
+     * Called every tick; returns an action that became available since the last call, or null.
+     */
+    default AiAction poll(EnemyFighter self, PlayerFighter opponent) {
+        return null;
+    }
+}
@@ -1,14 +1,10 @@
 package com.tekki.core;
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.util.Random;
-import javax.imageio.ImageIO;
+import java.util.Arrays;
 
 /**
- * Simple AI-controlled fighter without critical-hit visual effects.
+ * Simple AI-controlled fighter.
  */
 public class EnemyFighter extends Fighter {
 
@@ -23,7 +19,8 @@ public class EnemyFighter extends Fighter {
     private final float aiDecisionInterval;
     private final float baseAttackCooldown;
     private float attackCooldownTimer;
-    private final Random random = new Random();
+    private final DeterministicRandom random = new DeterministicRandom(System.nanoTime());
+    private EnemyBrain brain;
 
     private boolean isDashing = false;
     private float dashSpeed = 800f;
@@ -37,22 +34,19 @@ public class EnemyFighter extends Fighter {
     private boolean dashMore;
 
     private final String spriteFolder;
+    /** White silhouettes of this enemy's clips, flashed over the sprite during a critical hit. */
+    private AnimationClip[] criticalHitClips;
 
-    private SpriteAnimation idleAnimation;
-    private SpriteAnimation runAnimation;
-    private SpriteAnimation jumpAnimation;
-    private SpriteAnimation fallAnimation;
-    private SpriteAnimation attack1Animation;
-    private SpriteAnimation attack2Animation;
-    private SpriteAnimation attack3Animation;
-    private SpriteAnimation takeHitAnimation;
-    private SpriteAnimation deathAnimation;
-    private SpriteAnimation currentAnimation;
-    private SpriteAnimation activeAttackAnimation;
-    private boolean useFirstAttackNext = true;
+    private final int[] attackMoves;
+    private int nextAttackIndex = 0;
 
     public EnemyFighter(float startX, float startY, float speedMultiplier, float aggression, boolean dashMore,
                         CharacterProfile profile, String spriteFolder) {
+        this(startX, startY, speedMultiplier, aggression, dashMore, profile, spriteFolder, true);
+    }
+
+    private EnemyFighter(float startX, float startY, float speedMultiplier, float aggression, boolean dashMore,
+                         CharacterProfile profile, String spriteFolder, boolean loadSprites) {
         super(startX, startY, COLLISION_WIDTH, COLLISION_HEIGHT, 100, profile);
         this.name = profile != null ? profile.getName() : "CPU Fighter";
         this.attackRange = 110f;
@@ -68,59 +62,105 @@ public class EnemyFighter extends Fighter {
         this.dashSpeed = 800f * this.speedMultiplier * (dashMore ? 1.3f : 1.0f);
         this.spriteFolder = spriteFolder;
 
-        loadAnimations();
-        this.currentAnimation = idleAnimation;
+        if (loadSprites) {
+            AnimationClip[] clips = AnimationLibrary.variantClips(AnimationLibrary.enemyClips(spriteFolder),
+                    profile != null ? profile.getCostume() : null);
+            this.animator = new FighterAnimator(clips);
+            this.criticalHitClips = AnimationLibrary.variantClips(clips, SpriteVariant.WHITE_SILHOUETTE);
+        }
+        this.attackMoves = buildAttackRotation();
+    }
+
+    /**
+     * Sprite-less copy with the same tuning and current state, for simulations off the render path.
+     */
+    public EnemyFighter copyWithoutSprites() {
+        EnemyFighter copy = new EnemyFighter(x, y, speedMultiplier, aggression, dashMore, profile, spriteFolder, false);
+        copy.copyStateFrom(this);
+        return copy;
+    }
+
+    @Override
+    public void copyStateFrom(Fighter other) {
+        super.copyStateFrom(other);
+        if (other instanceof EnemyFighter enemy) {
+            aiDecisionTimer = enemy.aiDecisionTimer;
+            attackCooldownTimer = enemy.attackCooldownTimer;
+            random.copyFrom(enemy.random);
+            isDashing = enemy.isDashing;
+            dashTimer = enemy.dashTimer;
+            dashCooldownTimer = enemy.dashCooldownTimer;
+            nextAttackIndex = enemy.nextAttackIndex;
+        }
+    }
+
+    @Override
+    void syncState(StateBuffer buffer) {
+        super.syncState(buffer);
+        aiDecisionTimer = buffer.sync(aiDecisionTimer);
+        attackCooldownTimer = buffer.sync(attackCooldownTimer);
+        random.syncState(buffer);
+        isDashing = buffer.sync(isDashing);
+        dashTimer = buffer.sync(dashTimer);
+        dashCooldownTimer = buffer.sync(dashCooldownTimer);
+        nextAttackIndex = buffer.sync(nextAttackIndex);
+    }
+
+    /**
+     * Replace the dice rolls with another decision maker; null restores the dice.
+     */
+    public void setBrain(EnemyBrain brain) {
+        this.brain = brain;
+    }
+
+    public void reseed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Cycle through every attack move this enemy has an animation for.
+     */
+    private int[] buildAttackRotation() {
+        EnemyAnimationConfig.AnimationSet animationConfig = EnemyAnimationConfig.forEnemy(spriteFolder);
+        int[] rotation = new int[]{
+                moves.idOf("enemy_attack1"),
+                moves.idOf("enemy_attack2"),
+                moves.idOf("enemy_attack3")
+        };
+        int count = 0;
+        for (int move : rotation) {
+            if (move >= 0 && animationConfig.hasAnimation(moves.getAnimation(move))) {
+                rotation[count++] = move;
+            }
+        }
+        return count > 0 ? Arrays.copyOf(rotation, count) : new int[]{rotation[0]};
     }
 
     /**
      * Decide movement and actions relative to the player.
      */
     public void updateAI(float deltaTime, PlayerFighter player) {
-        aiDecisionTimer -= deltaTime;
-        attackCooldownTimer -= deltaTime;
+        aiDecisionTimer = countDown(aiDecisionTimer, deltaTime);
+        attackCooldownTimer = countDown(attackCooldownTimer, deltaTime);
         if (dashCooldownTimer > 0f) {
-            dashCooldownTimer -= deltaTime;
+            dashCooldownTimer = countDown(dashCooldownTimer, deltaTime);
         }
 
         float dx = player.getCenterX() - getCenterX();
         facingRight = dx >= 0;
 
+        if (brain != null) {
+            AiAction ready = brain.poll(this, player);
+            if (ready != null && canDecide()) {
+                perform(ready, player);
+            }
+        }
+
         if (aiDecisionTimer <= 0f) {
             aiDecisionTimer = aiDecisionInterval;
-            float distance = Math.abs(dx);
-
-            if (state != FighterState.ATTACKING && state != FighterState.DEFENDING && state != FighterState.DASHING) {
-                if (distance > attackRange) {
-                    if (shouldDash(distance)) {
-                        startDashToward(player);
-                    } else {
-                        if (dx > 0) {
-                            moveRight();
-                        } else {
-                            moveLeft();
-                        }
-                    }
-                } else {
-                    int roll = random.nextInt(100);
-                    if (roll < (int) (25 * aggression)) {
-                        stopMoving();
-                        startDefending();
-                    } else if (roll < (int) (65 * aggression) && attackCooldownTimer <= 0f) {
-                        stopMoving();
-                        startAttack();
-                        attackCooldownTimer = Math.max(0.35f, baseAttackCooldown);
-                    } else {
-                        if (distance < preferredDistance) {
-                            if (dx > 0) {
-                                moveLeft();
-                            } else {
-                                moveRight();
-                            }
-                        } else if (!isDashing) {
-                            stopMoving();
-                        }
-                    }
-                }
+            if (canDecide()) {
+                AiAction action = brain != null ? brain.decide(this, player) : null;
+                perform(action != null ? action : rollAction(Math.abs(dx)), player);
             }
         }
 
@@ -129,55 +169,132 @@ public class EnemyFighter extends Fighter {
         }
     }
 
-    @Override
-    public void moveLeft() {
-        if (state == FighterState.DEFENDING || state == FighterState.DASHING) {
-            return;
+    /**
+     * Perform an action chosen outside the decision timer and restart the timer, as if it had just expired.
+     */
+    public void forceDecision(AiAction action, PlayerFighter player) {
+        aiDecisionTimer = aiDecisionInterval;
+        perform(action, player);
+    }
+
+    /**
+     * Whether a new decision may interrupt the current state.
+     */
+    public boolean canDecide() {
+        return state != FighterState.ATTACKING && state != FighterState.DEFENDING && state != FighterState.DASHING;
+    }
+
+    public float getAggression() {
+        return aggression;
+    }
+
+    public float getAttackCooldownTimer() {
+        return attackCooldownTimer;
+    }
+
+    public float getDashCooldownTimer() {
+        return dashCooldownTimer;
+    }
+
+    public boolean isAttackReady() {
+        return attackCooldownTimer <= 0f;
+    }
+
+    public boolean isDashReady() {
+        return onGround && !isDashing && dashCooldownTimer <= 0f;
+    }
+
+    /**
+     * Weighted dice rolls: close in from range, then defend, attack or keep spacing.
+     */
+    private AiAction rollAction(float distance) {
+        if (distance > attackRange) {
+            return shouldDash(distance) ? AiAction.DASH : AiAction.APPROACH;
         }
-        speedX = -450f * speedMultiplier;
-        facingRight = false;
-        if (state != FighterState.ATTACKING && state != FighterState.JUMPING) {
-            state = FighterState.WALKING;
+        int roll = random.nextInt(100);
+        if (roll < (int) (25 * aggression)) {
+            return AiAction.DEFEND;
+        } else if (roll < (int) (65 * aggression) && attackCooldownTimer <= 0f) {
+            return AiAction.ATTACK;
+        } else if (distance < preferredDistance) {
+            return AiAction.RETREAT;
+        }
+        return isDashing ? AiAction.HOLD : AiAction.IDLE;
+    }
+
+    /**
+     * Translate a high-level action into fighter commands relative to the player.
+     */
+    public void perform(AiAction action, PlayerFighter player) {
+        boolean playerIsRight = player.getCenterX() - getCenterX() > 0;
+        switch (action) {
+            case HOLD -> {
+            }
+            case IDLE -> stopMoving();
+            case APPROACH -> {
+                if (playerIsRight) {
+                    moveRight();
+                } else {
+                    moveLeft();
+                }
+            }
+            case RETREAT -> {
+                if (playerIsRight) {
+                    moveLeft();
+                } else {
+                    moveRight();
+                }
+            }
+            case ATTACK -> {
+                if (attackCooldownTimer <= 0f) {
+                    stopMoving();
+                    startAttack();
+                    attackCooldownTimer = Math.max(0.35f, baseAttackCooldown);
+                }
+            }
+            case DEFEND -> {
+                stopMoving();
+                startDefending();
+            }
+            case DASH -> startDashToward(player);
+            case JUMP -> jump();
         }
     }
 
+    @Override
+    public void moveLeft() {
+        move(-450f * speedMultiplier);
+    }
+
     @Override
     public void moveRight() {
-        if (state == FighterState.DEFENDING || state == FighterState.DASHING) {
-            return;
-        }
-        speedX = 450f * speedMultiplier;
-        facingRight = true;
-        if (state != FighterState.ATTACKING && state != FighterState.JUMPING) {
-            state = FighterState.WALKING;
-        }
+        move(450f * speedMultiplier);
     }
 
     @Override
-    public void startAttack() {
-        FighterState previousState = state;
-        super.startAttack();
-        if (state == FighterState.ATTACKING && previousState != FighterState.ATTACKING) {
-            activeAttackAnimation = useFirstAttackNext ? attack1Animation : attack2Animation;
-            if (activeAttackAnimation != null) {
-                activeAttackAnimation.reset();
-            }
-            useFirstAttackNext = !useFirstAttackNext;
-        }
+    protected int nextAttackMove() {
+        return attackMoves[nextAttackIndex];
+    }
+
+    @Override
+    protected void attackStarted() {
+        nextAttackIndex = (nextAttackIndex + 1) % attackMoves.length;
     }
 
     @Override
     public void update(float deltaTime) {
         if (state == FighterState.KO) {
-            updateCurrentAnimation(deltaTime);
+            beginStep();
+            updateAnimation(deltaTime);
+            updateCriticalEffect(deltaTime);
             return;
         }
 
         if (dashCooldownTimer > 0f) {
-            dashCooldownTimer -= deltaTime;
+            dashCooldownTimer = countDown(dashCooldownTimer, deltaTime);
         }
         if (isDashing) {
-            dashTimer -= deltaTime;
+            dashTimer = countDown(dashTimer, deltaTime);
             if (dashTimer <= 0f) {
                 isDashing = false;
                 dashCooldownTimer = dashCooldown;
@@ -188,14 +305,14 @@ public class EnemyFighter extends Fighter {
             }
         }
         super.update(deltaTime);
-        updateCurrentAnimation(deltaTime);
+        updateAnimation(deltaTime);
     }
 
     @Override
-    public void render(Graphics2D g2d) {
-        SpriteAnimation animationToDraw = currentAnimation != null ? currentAnimation : idleAnimation;
-        BufferedImage frame = animationToDraw != null ? animationToDraw.getCurrentFrame() : null;
+    protected void captureSprite(FighterView view) {
+        BufferedImage frame = animator != null ? animator.getCurrentFrame() : null;
         if (frame == null) {
+            view.clearSprite();
             return;
         }
 
@@ -209,11 +326,8 @@ public class EnemyFighter extends Fighter {
         float centerX = getCenterX();
         int drawX = Math.round(centerX - drawWidth / 2f);
 
-        if (facingRight) {
-            g2d.drawImage(frame, drawX, drawY, drawWidth, drawHeight, null);
-        } else {
-            g2d.drawImage(frame, drawX + drawWidth, drawY, -drawWidth, drawHeight, null);
-        }
+        BufferedImage overlay = isCriticalFlashVisible() ? animator.getCurrentFrame(criticalHitClips) : null;
+        view.setSprite(frame, overlay, drawX, drawY, drawWidth, drawHeight, facingRight);
     }
 
     private boolean shouldDash(float distance) {
@@ -224,90 +338,14 @@ public class EnemyFighter extends Fighter {
     }
 
     private void startDashToward(PlayerFighter player) {
-        if (!onGround || isDashing || state == FighterState.DEFENDING || state == FighterState.ATTACKING || dashCooldownTimer > 0
-                || state == FighterState.HIT) {
+        // Unlike the player, the enemy cannot dash-cancel its own attacks.
+        if (!onGround || isDashing || state == FighterState.ATTACKING || !canPerform(FighterAction.DASH)
+                || dashCooldownTimer > 0) {
             return;
         }
         isDashing = true;
         dashTimer = dashDuration;
         speedX = player.getCenterX() >= getCenterX() ? dashSpeed : -dashSpeed;
-        state = FighterState.DASHING;
-    }
-
-    private void loadAnimations() {
-        String basePath = "Tekki/src/main/resources/sprites/enemies/" + spriteFolder + "/";
-        EnemyAnimationConfig.AnimationSet animationConfig = EnemyAnimationConfig.forEnemy(spriteFolder);
-
-        idleAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.IDLE,
-                basePath + "Idle.png", 0.12f, true);
-        runAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.RUN,
-                basePath + "Run.png", 0.08f, true);
-        jumpAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.JUMP,
-                basePath + "Jump.png", 0.1f, false);
-        fallAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.FALL,
-                basePath + "Fall.png", 0.1f, false);
-        attack1Animation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.ATTACK1,
-                basePath + "Attack1.png", 0.04f, false);
-        attack2Animation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.ATTACK2,
-                basePath + "Attack2.png", 0.07f, false);
-        attack3Animation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.ATTACK3,
-                basePath + "Attack3.png", 0.07f, false);
-        takeHitAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.TAKE_HIT,
-                basePath + "Take Hit.png", 0.09f, false);
-        deathAnimation = createAnimation(animationConfig, EnemyAnimationConfig.AnimationType.DEATH,
-                basePath + "Death.png", 0.12f, false);
-    }
-
-    private SpriteAnimation createAnimation(EnemyAnimationConfig.AnimationSet animationConfig,
-            EnemyAnimationConfig.AnimationType type, String path, float frameDuration, boolean loop) {
-        Integer frameCount = animationConfig.getFrameCount(type);
-        if (frameCount == null) {
-            return null;
-        }
-        BufferedImage sheet = loadSpriteFromFile(path);
-        return new SpriteAnimation(sheet, frameCount, frameDuration, loop);
-    }
-
-    private void updateCurrentAnimation(float deltaTime) {
-        SpriteAnimation nextAnimation = idleAnimation;
-
-        if (state == FighterState.KO) {
-            nextAnimation = deathAnimation;
-        } else if (state == FighterState.HIT) {
-            nextAnimation = takeHitAnimation;
-        } else if (state == FighterState.ATTACKING) {
-            nextAnimation = activeAttackAnimation != null ? activeAttackAnimation : attack1Animation;
-        } else if (state == FighterState.JUMPING || !onGround) {
-            nextAnimation = yVelocity < 0 ? jumpAnimation : fallAnimation;
-        } else if (state == FighterState.WALKING || state == FighterState.DASHING) {
-            nextAnimation = runAnimation;
-        }
-
-        if (nextAnimation != currentAnimation && nextAnimation != null) {
-            nextAnimation.reset();
-        }
-
-        currentAnimation = nextAnimation;
-
-        if (currentAnimation != null) {
-            currentAnimation.update(deltaTime);
-        }
-    }
-
-    private BufferedImage loadSpriteFromFile(String relativePath) {
-        File file = new File(relativePath);
-        if (!file.exists()) {
-            throw new IllegalStateException("Sprite file not found: " + file.getAbsolutePath());
-        }
-        try {
-            return ImageIO.read(file);
-        } catch (IOException e) {
-            throw new IllegalStateException("Could not read sprite file: " + file.getAbsolutePath(), e);
-        }
-    }
-
-    @Override
-    protected void onCriticalHitTriggered() {
-        // Enemies currently have no critical-hit visual effect assets.
+        state = FighterTransitions.next(FighterAction.DASH, state);
     }
 }
@@ -0,0 +1,56 @@
+package com.tekki.core;
+
+/**
+ * Visual reactions to a fight: crit flashes and hit sparks from combat events, trails behind dashing fighters.
+ * <p>
+ * Shared by the live game and {@link ReplayRenderer}, so replays show the same effects.
+ */
+final class FightEffects implements CombatEventHandler {
+
+    private final ParticleSystem particles;
+    private Fighter player;
+    private Fighter enemy;
+
+    FightEffects(ParticleSystem particles) {
+        this.particles = particles;
+    }
+
+    void setFighters(Fighter player, Fighter enemy) {
+        this.player = player;
+        this.enemy = enemy;
+    }
+
+    @Override
+    public void onEvent(CombatEvent event, long sequence) {
+        CombatEventType type = event.getType();
+        if (type != CombatEventType.HIT && type != CombatEventType.CRIT && type != CombatEventType.BLOCK) {
+            return;
+        }
+        if (type == CombatEventType.CRIT) {
+            (event.isByPlayer() ? enemy : player).triggerCriticalHitEffect();
+            particles.emitRing(event.getX(), event.getY(), ParticleSystem.SPARK_CRIT, 48, 420f, 0.45f);
+        }
+        // Sparks fly away from the attacker.
+        float direction = event.isByPlayer() == (enemy.getCenterX() >= player.getCenterX()) ? 1f : -1f;
+        if (type == CombatEventType.BLOCK) {
+            particles.emitBurst(event.getX(), event.getY(), ParticleSystem.SPARK_BLOCK, 12, 260f, -direction, 0.2f);
+            return;
+        }
+        int color = event.isByPlayer() ? ParticleSystem.SPARK_PLAYER : ParticleSystem.SPARK_ENEMY;
+        particles.emitBurst(event.getX(), event.getY(), color, 16 + event.getDamage(), 380f, direction, 0.4f);
+    }
+
+    /**
+     * Call once per tick after the match stepped.
+     */
+    void afterStep() {
+        emitDashTrail(player, ParticleSystem.TRAIL_PLAYER);
+        emitDashTrail(enemy, ParticleSystem.TRAIL_ENEMY);
+    }
+
+    private void emitDashTrail(Fighter fighter, int color) {
+        if (fighter.getState() == FighterState.DASHING) {
+            particles.emitTrail(fighter, color, 6);
+        }
+    }
+}
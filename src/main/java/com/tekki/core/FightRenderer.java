@@ -0,0 +1,362 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws a {@link RenderSnapshot}: the fight with its HUD, and the menu and end screens.
+ * <p>
+ * Only reads the snapshot and immutable sprites, so it can run on any thread; use one instance per thread.
+ */
+final class FightRenderer {
+
+    private static final int FLOOR_TILE_WIDTH = 240;
+    /** Background tiles are prefetched as far ahead as the camera moves in this time. */
+    private static final float PREFETCH_SECONDS = 0.5f;
+
+    private final ParticleSystem particles;
+    private final TileCache tiles;
+    private final boolean waitForTiles;
+    private int width;
+    private int height;
+
+    /**
+     * @param particles    supplies the particle sprites; its live particles are not read
+     * @param waitForTiles decode missing background tiles before drawing instead of leaving them out for a
+     *                     frame or two; for offline rendering
+     */
+    FightRenderer(ParticleSystem particles, TileCache tiles, boolean waitForTiles) {
+        this.particles = particles;
+        this.tiles = tiles;
+        this.waitForTiles = waitForTiles;
+    }
+
+    void draw(Graphics2D g2d, RenderSnapshot snapshot, int width, int height) {
+        this.width = width;
+        this.height = height;
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g2d.setColor(new Color(30, 40, 60));
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 32));
+        switch (snapshot.gameState) {
+            case MENU -> drawMenu(g2d, snapshot);
+            case FIGHT -> drawFight(g2d, snapshot);
+            case LEVEL_TRANSITION -> drawLevelTransition(g2d, snapshot);
+            case GAME_OVER -> drawGameOver(g2d, snapshot);
+            case VICTORY -> drawVictory(g2d, snapshot);
+            default -> drawMenu(g2d, snapshot);
+        }
+        if (snapshot.historyLabel != null) {
+            g2d.setFont(new Font("SansSerif", Font.BOLD, 20));
+            drawCenteredTextAt(g2d, snapshot.historyLabel, new Color(255, 220, 80), 130);
+        }
+    }
+
+    private void drawMenu(Graphics2D g2d, RenderSnapshot snapshot) {
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setColor(new Color(0, 0, 0, 120));
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 72));
+        drawCenteredTextAt(g2d, "JAVA BRAWL", Color.WHITE, 150);
+
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 32));
+        String prompt = "Press ENTER to Start";
+        Color promptColor = snapshot.promptHighlighted ? new Color(200, 200, 255) : Color.WHITE;
+        drawCenteredTextAt(g2d, prompt, promptColor, 260);
+
+        drawHighScores(g2d, snapshot, 330);
+
+        g2d.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        drawCenteredTextAt(g2d, "© 2025 Student Project – Prototype Build", new Color(200, 200, 200), height - 30);
+    }
+
+    private void drawFight(Graphics2D g2d, RenderSnapshot snapshot) {
+        g2d.setColor(snapshot.backgroundColor);
+        g2d.fillRect(0, 0, width, height);
+
+        // The world is drawn through the camera; everything outside its rectangle is skipped before drawing.
+        AffineTransform screen = g2d.getTransform();
+        g2d.scale(snapshot.cameraZoom, snapshot.cameraZoom);
+        g2d.translate(-snapshot.cameraLeft, -snapshot.cameraTop);
+        drawBackground(g2d, snapshot);
+        drawFloor(g2d, snapshot);
+        if (snapshot.hasFighters) {
+            float left = snapshot.cameraLeft;
+            float top = snapshot.cameraTop;
+            float right = snapshot.cameraRight;
+            float bottom = snapshot.cameraBottom;
+            if (snapshot.player.intersects(left, top, right, bottom)) {
+                snapshot.player.draw(g2d);
+            }
+            if (snapshot.enemy.intersects(left, top, right, bottom)) {
+                snapshot.enemy.draw(g2d);
+            }
+        }
+        particles.render(g2d, snapshot.particleX, snapshot.particleY, snapshot.particleSprite, snapshot.particleCount);
+        g2d.setTransform(screen);
+
+        if (snapshot.showingStageIntro && snapshot.levelName != null) {
+            drawStageIntro(g2d, snapshot);
+        }
+
+        drawHud(g2d, snapshot);
+    }
+
+    /**
+     * Parallax layers, farthest first. Each is shifted so it scrolls at its share of the camera's speed, and
+     * only its tiles in view are drawn; the tiles just past the edge the camera is moving towards are
+     * prefetched so they are decoded before they scroll in.
+     */
+    private void drawBackground(Graphics2D g2d, RenderSnapshot snapshot) {
+        int size = TileCache.TILE_SIZE;
+        int lastColumn = (snapshot.stageWidth - 1) / size;
+        for (BackgroundLayer layer : snapshot.backgroundLayers) {
+            float parallax = layer.getParallax();
+            // The layer spans the stage when the view is at either end, so it never needs more columns.
+            float shift = snapshot.cameraLeft * (1f - parallax);
+            int first = Math.max(0, (int) Math.floor((snapshot.cameraLeft - shift) / size));
+            int last = Math.min(lastColumn, (int) Math.floor((snapshot.cameraRight - shift) / size));
+            int top = layer.getTop();
+            int firstRow = Math.max(0, (int) Math.floor((snapshot.cameraTop - top) / size));
+            int lastRow = Math.min(layer.getRows() - 1, (int) Math.floor((snapshot.cameraBottom - top) / size));
+
+            g2d.translate(shift, 0);
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = first; column <= last; column++) {
+                    TileCache.Tile tile = waitForTiles
+                            ? tiles.getNow(layer, column, row)
+                            : tiles.get(layer, column, row);
+                    if (tile != null) {
+                        tile.draw(g2d, column * size, top + row * size);
+                    }
+                }
+            }
+            g2d.translate(-shift, 0);
+
+            float velocity = snapshot.cameraVelocityX * parallax;
+            if (!waitForTiles && velocity != 0f) {
+                int ahead = 1 + (int) (Math.abs(velocity) * PREFETCH_SECONDS / size);
+                int from = velocity > 0f ? last + 1 : Math.max(0, first - ahead);
+                int to = velocity > 0f ? Math.min(lastColumn, last + ahead) : first - 1;
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = from; column <= to; column++) {
+                        tiles.prefetch(layer, column, row);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Floor boards across the visible part of the stage only, so the cost does not grow with the stage.
+     */
+    private void drawFloor(Graphics2D g2d, RenderSnapshot snapshot) {
+        int floorTopY = Campaign.ARENA_HEIGHT - Campaign.FLOOR_HEIGHT;
+        int first = Math.max(0, (int) Math.floor(snapshot.cameraLeft / FLOOR_TILE_WIDTH));
+        int last = Math.min((snapshot.stageWidth - 1) / FLOOR_TILE_WIDTH,
+                (int) Math.floor(snapshot.cameraRight / FLOOR_TILE_WIDTH));
+        Color floor = snapshot.floorColor;
+        Color seam = floor.darker();
+        for (int tile = first; tile <= last; tile++) {
+            int x = tile * FLOOR_TILE_WIDTH;
+            g2d.setColor(floor);
+            g2d.fillRect(x, floorTopY, FLOOR_TILE_WIDTH, Campaign.FLOOR_HEIGHT);
+            g2d.setColor(seam);
+            g2d.fillRect(x, floorTopY, 3, Campaign.FLOOR_HEIGHT);
+        }
+    }
+
+    private void drawHud(Graphics2D g2d, RenderSnapshot snapshot) {
+        int barWidth = 300;
+        int barHeight = 20;
+        int padding = 18;
+        int topMargin = 40;
+        int textSpacing = 18;
+
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.fillRect(padding, topMargin, barWidth, barHeight);
+        g2d.fillRect(width - barWidth - padding, topMargin, barWidth, barHeight);
+
+        if (snapshot.hasFighters) {
+            FighterView player = snapshot.player;
+            float ratio = player.getHealth() / (float) player.getMaxHealth();
+            int fill = (int) (barWidth * ratio);
+            g2d.setColor(new Color(80, 200, 120));
+            g2d.fillRect(padding, topMargin, fill, barHeight);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(player.getName() + " HP: " + player.getHealth() + "/" + player.getMaxHealth(), padding, topMargin + barHeight + textSpacing);
+
+            FighterView enemy = snapshot.enemy;
+            ratio = enemy.getHealth() / (float) enemy.getMaxHealth();
+            fill = (int) (barWidth * ratio);
+            g2d.setColor(new Color(200, 120, 80));
+            g2d.fillRect(width - barWidth - padding, topMargin, fill, barHeight);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString("CPU " + enemy.getName() + " HP: " + enemy.getHealth() + "/" + enemy.getMaxHealth(), width - barWidth - padding, topMargin + barHeight + textSpacing);
+        }
+
+        g2d.setColor(Color.WHITE);
+        if (snapshot.levelName != null && snapshot.levelCount > 0) {
+            String scoreLabel = "Score: " + snapshot.score;
+            int scoreWidth = g2d.getFontMetrics().stringWidth(scoreLabel);
+            int scoreX = (width - scoreWidth) / 2;
+            int scoreY = topMargin + barHeight + 10;
+            g2d.drawString(scoreLabel, scoreX, scoreY);
+
+            String stageLabel = "Stage " + (snapshot.levelIndex + 1) + "/" + snapshot.levelCount + " – " + snapshot.levelName;
+            int stageWidth = g2d.getFontMetrics().stringWidth(stageLabel);
+            int stageX = (width - stageWidth) / 2;
+            int stageY = scoreY + textSpacing;
+            g2d.drawString(stageLabel, stageX, stageY);
+        }
+
+        if (snapshot.hasFighters) {
+            drawDashIndicator(g2d, snapshot, padding, height - 70, barWidth / 2, 12);
+        }
+
+        if (snapshot.showInputStats) {
+            drawInputStats(g2d, snapshot, width - barWidth - padding, height - 70);
+        }
+    }
+
+    private void drawStageIntro(Graphics2D g2d, RenderSnapshot snapshot) {
+        float alpha = Math.min(1f, snapshot.stageIntroFade);
+        Color overlay = new Color(0f, 0f, 0f, 0.5f * alpha);
+        g2d.setColor(overlay);
+        g2d.fillRect(0, 0, width, height);
+        String label = "Stage " + (snapshot.levelIndex + 1) + "/" + snapshot.levelCount + " - " + snapshot.levelName;
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 42));
+        drawCenteredText(g2d, label, Color.WHITE);
+    }
+
+    private void drawLevelTransition(Graphics2D g2d, RenderSnapshot snapshot) {
+        g2d.setColor(new Color(60, 60, 30));
+        g2d.fillRect(0, 0, width, height);
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 42));
+        String message = "Next Stage: " + snapshot.nextLevelName;
+        drawCenteredText(g2d, message, Color.WHITE);
+        g2d.setFont(new Font("SansSerif", Font.PLAIN, 22));
+        drawCenteredTextOffset(g2d, "Get Ready...", Color.LIGHT_GRAY, 40);
+        if (snapshot.standings != null && !snapshot.standings.getTop(snapshot.levelIndex).isEmpty()) {
+            RunResult best = snapshot.standings.getTop(snapshot.levelIndex).get(0);
+            drawCenteredTextOffset(g2d, "Stage record: " + best.getStageScore(snapshot.levelIndex) + " by "
+                    + best.getProfile(), new Color(220, 220, 160), 100);
+        }
+    }
+
+    private void drawGameOver(Graphics2D g2d, RenderSnapshot snapshot) {
+        g2d.setColor(new Color(80, 20, 30));
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 64));
+        if (snapshot.koOverlayFade > 0f) {
+            drawKOOverlay(g2d, snapshot);
+        }
+        drawCenteredText(g2d, "YOU LOSE", Color.WHITE);
+        g2d.setFont(new Font("SansSerif", Font.PLAIN, 24));
+        drawCenteredTextOffset(g2d, "Final Score: " + snapshot.score, Color.LIGHT_GRAY, 40);
+        drawCenteredTextOffset(g2d, "Press ENTER to return to menu", Color.WHITE, 80);
+        drawHighScores(g2d, snapshot, height / 2 + 140);
+    }
+
+    private void drawVictory(Graphics2D g2d, RenderSnapshot snapshot) {
+        g2d.setColor(new Color(20, 80, 60));
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setFont(new Font("SansSerif", Font.BOLD, 64));
+        if (snapshot.koOverlayFade > 0f) {
+            drawKOOverlay(g2d, snapshot);
+        }
+        drawCenteredText(g2d, "YOU WIN", Color.WHITE);
+        g2d.setFont(new Font("SansSerif", Font.PLAIN, 24));
+        drawCenteredTextOffset(g2d, "Final Score: " + snapshot.score, Color.LIGHT_GRAY, 40);
+        drawCenteredTextOffset(g2d, "Press ENTER to return to menu", Color.WHITE, 80);
+        drawHighScores(g2d, snapshot, height / 2 + 140);
+    }
+
+    /**
+     * The player's profile line and the five best runs, from {@code y} down.
+     */
+    private void drawHighScores(Graphics2D g2d, RenderSnapshot snapshot, int y) {
+        Leaderboard.Standings standings = snapshot.standings;
+        if (standings == null) {
+            return;
+        }
+        g2d.setFont(new Font("SansSerif", Font.PLAIN, 18));
+        Leaderboard.Profile profile = standings.getProfile(snapshot.profileName);
+        if (profile != null) {
+            drawCenteredTextAt(g2d, String.format(Locale.ROOT, "%s: best %d, %d runs, %d won",
+                    profile.getName(), profile.getBestScore(), profile.getRuns(), profile.getVictories()),
+                    new Color(200, 200, 255), y);
+        }
+        List<RunResult> overall = standings.getOverall();
+        for (int i = 0; i < Math.min(5, overall.size()); i++) {
+            RunResult run = overall.get(i);
+            drawCenteredTextAt(g2d, String.format(Locale.ROOT, "%d. %s   %d%s", i + 1, run.getProfile(),
+                    run.getScore(), run.isVictory() ? "  *" : ""), new Color(220, 220, 220), y + 26 + 22 * i);
+        }
+    }
+
+    private void drawKOOverlay(Graphics2D g2d, RenderSnapshot snapshot) {
+        float t = Math.min(1f, snapshot.koOverlayFade);
+        int size = (int) (120 + 60 * t);
+        g2d.setFont(new Font("SansSerif", Font.BOLD, size));
+        drawCenteredText(g2d, "KO", new Color(255, 180, 80));
+    }
+
+    private void drawCenteredText(Graphics2D g2d, String text, Color color) {
+        int textWidth = g2d.getFontMetrics().stringWidth(text);
+        int x = (width - textWidth) / 2;
+        int y = height / 2;
+        g2d.setColor(color);
+        g2d.drawString(text, x, y);
+    }
+
+    private void drawCenteredTextAt(Graphics2D g2d, String text, Color color, int y) {
+        int textWidth = g2d.getFontMetrics().stringWidth(text);
+        int x = (width - textWidth) / 2;
+        g2d.setColor(color);
+        g2d.drawString(text, x, y);
+    }
+
+    private void drawCenteredTextOffset(Graphics2D g2d, String text, Color color, int yOffset) {
+        int textWidth = g2d.getFontMetrics().stringWidth(text);
+        int x = (width - textWidth) / 2;
+        int y = (height / 2) + yOffset;
+        g2d.setColor(color);
+        g2d.drawString(text, x, y);
+    }
+
+    private void drawDashIndicator(Graphics2D g2d, RenderSnapshot snapshot, int x, int y, int width, int height) {
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.fillRect(x, y, width, height);
+        if (snapshot.dashCooldown > 0f) {
+            float remaining = Math.max(0f, snapshot.dashCooldownTimer);
+            float ratio = 1f - Math.min(1f, remaining / snapshot.dashCooldown);
+            int fill = (int) (width * ratio);
+            g2d.setColor(snapshot.dashReady ? new Color(100, 220, 255) : new Color(120, 120, 120));
+            g2d.fillRect(x, y, fill, height);
+        }
+        g2d.setColor(Color.WHITE);
+        String label = snapshot.dashReady ? "Dash: READY" : "Dash: COOLDOWN";
+        g2d.drawString(label, x, y + height + 14);
+    }
+
+    private void drawInputStats(Graphics2D g2d, RenderSnapshot snapshot, int x, int y) {
+        g2d.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(String.format(Locale.ROOT, "Input lag avg %.2f ms  p99 %.2f ms  max %.2f ms",
+                snapshot.inputAverageMillis, snapshot.inputP99Millis, snapshot.inputMaxMillis), x, y);
+        g2d.drawString("Presses " + snapshot.inputEventCount + "  dropped " + snapshot.inputDroppedCount, x, y + 16);
+    }
+}
@@ -11,6 +11,9 @@ public abstract class Fighter {
 
     protected float x;
     protected float y;
+    /** Position at the start of the current step, used for swept collision. */
+    protected float previousX;
+    protected float previousY;
     protected int width;
     protected int height;
     protected int maxHealth;
@@ -24,6 +27,9 @@ public abstract class Fighter {
     private boolean criticalEffectActive = false;
     private float critEffectTimer = 0f;
     private final float critEffectDuration = 0.3f;
+    private static final float CRIT_FLASH_PERIOD = 0.05f;
+    private static final FighterState[] STATES = FighterState.values();
+    private static final PhysicsMode[] PHYSICS_MODES = PhysicsMode.values();
 
     protected float yVelocity = 0f;
     protected float gravity = 4800f;
@@ -31,22 +37,47 @@ public abstract class Fighter {
     protected float maxFallSpeed = 3000f;
     protected boolean onGround = false;
     protected float groundY = 380f;
+    /** Horizontal limits of the stage; unbounded until {@link #setStageBounds}. */
+    private boolean stageBounded;
+    private float stageLeft;
+    private float stageRight;
+
+    protected FighterAnimator animator;
 
     protected String name = "Fighter";
+    private FighterView renderView;
     protected CharacterProfile profile;
 
-    private float attackTimer = 0f;
-    private final float attackDuration = 0.25f;
+    protected final MoveTable moves = MoveTable.getDefault();
+    protected int currentMove = -1;
+    private float moveTime = 0f;
+    /**
+     * Move the last step advanced and its move time before and after, so hits can be tested on every frame the
+     * step passed through. Only set between {@link #update} and the match resolving hits.
+     */
+    private int stepMove = -1;
+    private float stepStartTime;
+    private float stepEndTime;
 
-    private final int attackBoxWidth = 50;
-    private final int attackBoxHeight = 50;
+    private final Rectangle attackHitbox = new Rectangle();
+    private final Rectangle hurtbox = new Rectangle();
 
     protected float hitStunDuration = 0.35f;
     protected float hitStunTimer = 0f;
 
+    protected PhysicsMode physicsMode = PhysicsMode.FLOAT;
+    private int fixedX;
+    private int fixedY;
+    private int fixedYVelocity;
+    private int fixedGroundY;
+    private int fixedGravity;
+    private int fixedMaxFallSpeed;
+
     protected Fighter(float x, float y, int width, int height, int maxHealth, CharacterProfile profile) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.width = width;
         this.height = height;
         this.maxHealth = maxHealth;
@@ -61,6 +92,7 @@ public abstract class Fighter {
      * Update position and timers for this fighter.
      */
     public void update(float deltaTime) {
+        beginStep();
         updateCriticalEffect(deltaTime);
         if (state == FighterState.KO) {
             speedX = 0f;
@@ -69,7 +101,7 @@ public abstract class Fighter {
 
         if (state == FighterState.HIT) {
             speedX = 0f;
-            hitStunTimer -= deltaTime;
+            hitStunTimer = countDown(hitStunTimer, deltaTime);
             if (hitStunTimer <= 0f) {
                 hitStunTimer = 0f;
                 if (!onGround) {
@@ -80,21 +112,45 @@ public abstract class Fighter {
             }
         }
 
-        x += speedX * deltaTime;
+        if (physicsMode == PhysicsMode.FIXED) {
+            fixedX += FixedPoint.mul(FixedPoint.fromFloat(speedX), FixedPoint.fromFloat(deltaTime));
+            x = FixedPoint.toFloat(fixedX);
+        } else {
+            x += speedX * deltaTime;
+        }
+        clampToStage();
         applyVerticalMovement(deltaTime);
         updateAttack(deltaTime);
     }
 
     private void applyVerticalMovement(float deltaTime) {
-        y += yVelocity * deltaTime;
-        yVelocity += gravity * deltaTime;
-        if (yVelocity > maxFallSpeed) {
-            yVelocity = maxFallSpeed;
+        boolean landed;
+        if (physicsMode == PhysicsMode.FIXED) {
+            int dt = FixedPoint.fromFloat(deltaTime);
+            fixedY += FixedPoint.mul(fixedYVelocity, dt);
+            fixedYVelocity += FixedPoint.mul(fixedGravity, dt);
+            fixedYVelocity = Math.min(fixedYVelocity, fixedMaxFallSpeed);
+            landed = fixedY >= fixedGroundY;
+            if (landed) {
+                fixedY = fixedGroundY;
+                fixedYVelocity = 0;
+            }
+            y = FixedPoint.toFloat(fixedY);
+            yVelocity = FixedPoint.toFloat(fixedYVelocity);
+        } else {
+            y += yVelocity * deltaTime;
+            yVelocity += gravity * deltaTime;
+            if (yVelocity > maxFallSpeed) {
+                yVelocity = maxFallSpeed;
+            }
+            landed = y >= groundY;
+            if (landed) {
+                y = groundY;
+                yVelocity = 0f;
+            }
         }
 
-        if (y >= groundY) {
-            y = groundY;
-            yVelocity = 0f;
+        if (landed) {
             if (!onGround) {
                 onGround = true;
                 onLanding();
@@ -107,6 +163,204 @@ public abstract class Fighter {
         }
     }
 
+    /**
+     * Copy the simulation state of another fighter of the same kind; sprites, name and profile are left alone.
+     */
+    public void copyStateFrom(Fighter other) {
+        x = other.x;
+        y = other.y;
+        previousX = other.previousX;
+        previousY = other.previousY;
+        width = other.width;
+        height = other.height;
+        maxHealth = other.maxHealth;
+        health = other.health;
+        speedX = other.speedX;
+        facingRight = other.facingRight;
+        state = other.state;
+        hasHitDuringCurrentAttack = other.hasHitDuringCurrentAttack;
+        criticalEffectActive = other.criticalEffectActive;
+        critEffectTimer = other.critEffectTimer;
+        yVelocity = other.yVelocity;
+        gravity = other.gravity;
+        jumpStrength = other.jumpStrength;
+        maxFallSpeed = other.maxFallSpeed;
+        onGround = other.onGround;
+        groundY = other.groundY;
+        stageBounded = other.stageBounded;
+        stageLeft = other.stageLeft;
+        stageRight = other.stageRight;
+        currentMove = other.currentMove;
+        moveTime = other.moveTime;
+        hitStunDuration = other.hitStunDuration;
+        hitStunTimer = other.hitStunTimer;
+        physicsMode = other.physicsMode;
+        fixedX = other.fixedX;
+        fixedY = other.fixedY;
+        fixedYVelocity = other.fixedYVelocity;
+        fixedGroundY = other.fixedGroundY;
+        fixedGravity = other.fixedGravity;
+        fixedMaxFallSpeed = other.fixedMaxFallSpeed;
+    }
+
+    /**
+     * Save or load everything {@link #copyStateFrom} copies, plus animation playback.
+     */
+    void syncState(StateBuffer buffer) {
+        x = buffer.sync(x);
+        y = buffer.sync(y);
+        previousX = buffer.sync(previousX);
+        previousY = buffer.sync(previousY);
+        width = buffer.sync(width);
+        height = buffer.sync(height);
+        maxHealth = buffer.sync(maxHealth);
+        health = buffer.sync(health);
+        speedX = buffer.sync(speedX);
+        facingRight = buffer.sync(facingRight);
+        state = buffer.sync(state, STATES);
+        hasHitDuringCurrentAttack = buffer.sync(hasHitDuringCurrentAttack);
+        criticalEffectActive = buffer.sync(criticalEffectActive);
+        critEffectTimer = buffer.sync(critEffectTimer);
+        yVelocity = buffer.sync(yVelocity);
+        gravity = buffer.sync(gravity);
+        jumpStrength = buffer.sync(jumpStrength);
+        maxFallSpeed = buffer.sync(maxFallSpeed);
+        onGround = buffer.sync(onGround);
+        groundY = buffer.sync(groundY);
+        stageBounded = buffer.sync(stageBounded);
+        stageLeft = buffer.sync(stageLeft);
+        stageRight = buffer.sync(stageRight);
+        currentMove = buffer.sync(currentMove);
+        moveTime = buffer.sync(moveTime);
+        hitStunDuration = buffer.sync(hitStunDuration);
+        hitStunTimer = buffer.sync(hitStunTimer);
+        physicsMode = buffer.sync(physicsMode, PHYSICS_MODES);
+        fixedX = buffer.sync(fixedX);
+        fixedY = buffer.sync(fixedY);
+        fixedYVelocity = buffer.sync(fixedYVelocity);
+        fixedGroundY = buffer.sync(fixedGroundY);
+        fixedGravity = buffer.sync(fixedGravity);
+        fixedMaxFallSpeed = buffer.sync(fixedMaxFallSpeed);
+        if (animator != null) {
+            animator.syncState(buffer);
+        }
+    }
+
+    /**
+     * Copy the animation playback position of another fighter with the same sprites.
+     */
+    public void copyAnimationFrom(Fighter other) {
+        if (animator != null && other.animator != null) {
+            animator.copyStateFrom(other.animator);
+        }
+    }
+
+    /**
+     * Remember the start-of-step position for swept collision.
+     */
+    protected void beginStep() {
+        previousX = x;
+        previousY = y;
+        stepMove = -1;
+    }
+
+    /**
+     * Switch between float and fixed-point integration, carrying the current position over.
+     */
+    public void setPhysicsMode(PhysicsMode mode) {
+        physicsMode = mode;
+        syncFixedState();
+    }
+
+    public PhysicsMode getPhysicsMode() {
+        return physicsMode;
+    }
+
+    /**
+     * Count a timer down by one step in the arithmetic of the current physics mode.
+     */
+    protected float countDown(float timer, float deltaTime) {
+        if (physicsMode == PhysicsMode.FIXED) {
+            return FixedPoint.toFloat(FixedPoint.fromFloat(timer) - FixedPoint.fromFloat(deltaTime));
+        }
+        return timer - deltaTime;
+    }
+
+    /**
+     * Count a timer up by one step in the arithmetic of the current physics mode.
+     */
+    protected float countUp(float timer, float deltaTime) {
+        return countDown(timer, -deltaTime);
+    }
+
+    /**
+     * Shift the fighter horizontally outside of normal integration (pushback, body separation).
+     */
+    protected void translateX(float dx) {
+        if (physicsMode == PhysicsMode.FIXED) {
+            fixedX += FixedPoint.fromFloat(dx);
+            x = FixedPoint.toFloat(fixedX);
+        } else {
+            x += dx;
+        }
+        clampToStage();
+    }
+
+    /**
+     * Keep the whole body between the stage bounds, in the arithmetic of the current physics mode.
+     */
+    private void clampToStage() {
+        if (!stageBounded) {
+            return;
+        }
+        float maxX = stageRight - width;
+        if (physicsMode == PhysicsMode.FIXED) {
+            int left = FixedPoint.fromFloat(stageLeft);
+            int right = FixedPoint.fromFloat(maxX);
+            if (fixedX >= left && fixedX <= right) {
+                return;
+            }
+            fixedX = Math.max(left, Math.min(right, fixedX));
+            x = FixedPoint.toFloat(fixedX);
+        } else {
+            x = Math.max(stageLeft, Math.min(maxX, x));
+        }
+    }
+
+    public void setStageBounds(float left, float right) {
+        stageBounded = true;
+        stageLeft = left;
+        stageRight = right;
+    }
+
+    /**
+     * Left edge of the stage; 0 without stage bounds.
+     */
+    public float getStageLeft() {
+        return stageBounded ? stageLeft : 0f;
+    }
+
+    /**
+     * Width of the stage; one screen without stage bounds.
+     */
+    public float getStageWidth() {
+        return stageBounded ? stageRight - stageLeft : Campaign.ARENA_WIDTH;
+    }
+
+    protected void setYVelocity(float velocity) {
+        yVelocity = velocity;
+        fixedYVelocity = FixedPoint.fromFloat(velocity);
+    }
+
+    private void syncFixedState() {
+        fixedX = FixedPoint.fromFloat(x);
+        fixedY = FixedPoint.fromFloat(y);
+        fixedYVelocity = FixedPoint.fromFloat(yVelocity);
+        fixedGroundY = FixedPoint.fromFloat(groundY);
+        fixedGravity = FixedPoint.fromFloat(gravity);
+        fixedMaxFallSpeed = FixedPoint.fromFloat(maxFallSpeed);
+    }
+
     /**
      * Simple rectangle representing the current hurtbox.
      */
@@ -125,119 +379,209 @@ public abstract class Fighter {
      * Move fighter left by setting horizontal velocity and state.
      */
     public void moveLeft() {
-        if (state == FighterState.KO || state == FighterState.HIT || state == FighterState.DEFENDING || state == FighterState.DASHING) {
-            return;
-        }
-        speedX = -450f;
-        facingRight = false;
-        if (state != FighterState.ATTACKING && state != FighterState.JUMPING) {
-            state = FighterState.WALKING;
-        }
+        move(-450f);
     }
 
     /**
      * Move fighter right by setting horizontal velocity and state.
      */
     public void moveRight() {
-        if (state == FighterState.KO || state == FighterState.HIT || state == FighterState.DEFENDING || state == FighterState.DASHING) {
+        move(450f);
+    }
+
+    /**
+     * Shared horizontal movement; the sign of the velocity decides the facing.
+     */
+    protected void move(float velocityX) {
+        if (!canPerform(FighterAction.MOVE)) {
             return;
         }
-        speedX = 450f;
-        facingRight = true;
-        if (state != FighterState.ATTACKING && state != FighterState.JUMPING) {
-            state = FighterState.WALKING;
-        }
+        speedX = velocityX;
+        facingRight = velocityX > 0f;
+        state = FighterTransitions.next(FighterAction.MOVE, state);
     }
 
     /**
      * Stop horizontal movement.
      */
     public void stopMoving() {
-        if (state == FighterState.KO || state == FighterState.HIT) {
-            return;
-        }
-        if (state == FighterState.DASHING) {
+        if (!canPerform(FighterAction.STOP)) {
             return;
         }
         speedX = 0f;
-        if (state != FighterState.ATTACKING && state != FighterState.DEFENDING && state != FighterState.JUMPING) {
-            state = FighterState.IDLE;
-        }
+        state = FighterTransitions.next(FighterAction.STOP, state);
     }
 
     /**
-     * Begin a simple attack animation.
+     * Begin this fighter's next default attack.
      */
     public void startAttack() {
-        if (state == FighterState.ATTACKING || state == FighterState.DEFENDING || state == FighterState.DASHING || state == FighterState.JUMPING || state == FighterState.HIT || state == FighterState.KO) {
-            return;
+        if (startMove(nextAttackMove())) {
+            attackStarted();
         }
-        attackTimer = attackDuration;
-        state = FighterState.ATTACKING;
+    }
+
+    /**
+     * Begin a specific move from the {@link MoveTable}.
+     *
+     * @return whether the move started; false for no move or while the fighter cannot attack
+     */
+    public boolean startMove(int move) {
+        if (move < 0 || !canPerform(FighterAction.ATTACK)) {
+            return false;
+        }
+        currentMove = move;
+        moveTime = 0f;
+        state = FighterTransitions.next(FighterAction.ATTACK, state);
         hasHitDuringCurrentAttack = false;
+        if (animator != null) {
+            animator.restart();
+        }
+        return true;
     }
 
     /**
-     * Handle attack timer countdown.
+     * Move id used by {@link #startAttack()}; must not change state, since the move may not start.
+     */
+    protected abstract int nextAttackMove();
+
+    /**
+     * Called once the move from {@link #nextAttackMove()} has started.
+     */
+    protected void attackStarted() {
+    }
+
+    /**
+     * Advance the current move; it ends after its last recovery frame.
      */
     protected void updateAttack(float deltaTime) {
         if (state == FighterState.ATTACKING) {
-            attackTimer -= deltaTime;
-            if (attackTimer <= 0f) {
-                attackTimer = 0f;
+            stepMove = currentMove;
+            stepStartTime = moveTime;
+            moveTime = countUp(moveTime, deltaTime);
+            stepEndTime = moveTime;
+            if (getMoveFrame() >= moves.getTotalFrames(currentMove)) {
+                endMove();
                 state = speedX != 0 ? FighterState.WALKING : FighterState.IDLE;
             }
         }
     }
 
+    private void endMove() {
+        currentMove = -1;
+        moveTime = 0f;
+    }
+
+    /**
+     * Frame index of the current move, counted at {@link MoveTable#FRAME_RATE}.
+     */
+    public int getMoveFrame() {
+        // Round to the nearest frame so accumulated steps landing just short of a boundary still count.
+        return (int) (moveTime * MoveTable.FRAME_RATE + 0.5f);
+    }
+
+    public int getCurrentMove() {
+        return state == FighterState.ATTACKING ? currentMove : -1;
+    }
+
     /**
      * Begin defending; cancels movement and attack animation.
      */
     public void startDefending() {
-        if (!onGround || state == FighterState.DASHING || state == FighterState.JUMPING || state == FighterState.KO || state == FighterState.HIT) {
+        if (!onGround || !canPerform(FighterAction.DEFEND)) {
             return;
         }
         speedX = 0f;
-        attackTimer = 0f;
-        state = FighterState.DEFENDING;
+        endMove();
+        state = FighterTransitions.next(FighterAction.DEFEND, state);
     }
 
     /**
      * Stop defending; return to idle or walking depending on movement.
      */
     public void stopDefending() {
-        if (state == FighterState.KO || state == FighterState.HIT) {
+        if (!canPerform(FighterAction.STOP_DEFEND)) {
             return;
         }
-        if (state == FighterState.DEFENDING) {
-            state = speedX != 0 ? FighterState.WALKING : FighterState.IDLE;
-        }
+        state = speedX != 0 ? FighterState.WALKING : FighterTransitions.next(FighterAction.STOP_DEFEND, state);
     }
 
     /**
      * Attempt to jump if on the ground.
      */
     public void jump() {
-        if (!onGround || state == FighterState.DEFENDING || state == FighterState.DASHING || state == FighterState.KO || state == FighterState.HIT) {
+        if (!onGround || !canPerform(FighterAction.JUMP)) {
             return;
         }
-        yVelocity = jumpStrength;
+        setYVelocity(jumpStrength);
         onGround = false;
-        state = FighterState.JUMPING;
+        state = FighterTransitions.next(FighterAction.JUMP, state);
     }
 
+    /**
+     * Whether the transition table allows the action from the current state.
+     */
+    public boolean canPerform(FighterAction action) {
+        return FighterTransitions.isAllowed(action, state);
+    }
+
+    /**
+     * Hitbox of the current move frame, or null outside active frames. The rectangle is reused between calls.
+     */
     public Rectangle getAttackHitbox() {
-        if (state != FighterState.ATTACKING) {
+        if (state != FighterState.ATTACKING || currentMove < 0) {
             return null;
         }
-        Rectangle bounds = getBounds();
-        int attackX = facingRight ? bounds.x + bounds.width : bounds.x - attackBoxWidth;
-        int attackY = bounds.y + (bounds.height / 4);
-        return new Rectangle(attackX, attackY, attackBoxWidth, attackBoxHeight);
+        return moves.fillHitbox(currentMove, getMoveFrame(), x, y, width, facingRight, attackHitbox) ? attackHitbox : null;
+    }
+
+    /**
+     * Area that can be hit: the move's hurtbox while attacking, otherwise the collision box.
+     * The rectangle is reused between calls.
+     */
+    public Rectangle getHurtbox() {
+        if (state == FighterState.ATTACKING && currentMove >= 0
+                && moves.fillHurtbox(currentMove, getMoveFrame(), x, y, width, facingRight, hurtbox)) {
+            return hurtbox;
+        }
+        hurtbox.setBounds((int) x, (int) y, width, height);
+        return hurtbox;
     }
 
     public boolean canHit() {
-        return state == FighterState.ATTACKING && !hasHitDuringCurrentAttack && state != FighterState.KO;
+        return state == FighterState.ATTACKING && !hasHitDuringCurrentAttack && currentMove >= 0
+                && moves.hasHitbox(currentMove, getMoveFrame());
+    }
+
+    /**
+     * Whether the last step advanced a move that has not hit yet, even if the move ended during the step.
+     */
+    public boolean canHitDuringStep() {
+        return stepMove >= 0 && !hasHitDuringCurrentAttack;
+    }
+
+    /**
+     * Move advanced by the last step, or -1.
+     */
+    public int getStepMove() {
+        return stepMove;
+    }
+
+    public float getStepStartTime() {
+        return stepStartTime;
+    }
+
+    public float getStepEndTime() {
+        return stepEndTime;
+    }
+
+    /**
+     * Hitbox of a frame of the step's move with the fighter at {@code originX}, {@code originY}.
+     *
+     * @return false when the frame has no hitbox
+     */
+    public boolean fillStepHitbox(int frame, float originX, float originY, Rectangle out) {
+        return moves.fillHitbox(stepMove, frame, originX, originY, width, facingRight, out);
     }
 
     public void markHit() {
@@ -245,21 +589,35 @@ public abstract class Fighter {
     }
 
     public void takeDamage(int amount) {
+        takeHit(amount, hitStunDuration, 0f, 0f);
+    }
+
+    /**
+     * Apply a hit from a move: damage, hitstun in seconds and pushback away from the attacker's center.
+     */
+    public void takeHit(int amount, float hitStun, float pushback, float attackerCenterX) {
         if (state == FighterState.KO) {
             return;
         }
+        if (pushback != 0f) {
+            translateX(getCenterX() >= attackerCenterX ? pushback : -pushback);
+        }
+        // An interrupted move does not get to hit with the rest of this step.
+        stepMove = -1;
         health -= amount;
         if (health < 0) {
             health = 0;
         }
 
         if (health == 0) {
+            endMove();
             speedX = 0f;
-            yVelocity = 0f;
+            setYVelocity(0f);
             state = FighterState.KO;
         } else {
+            endMove();
             state = FighterState.HIT;
-            hitStunTimer = hitStunDuration;
+            hitStunTimer = hitStun;
         }
     }
 
@@ -293,15 +651,56 @@ public abstract class Fighter {
         return criticalEffectActive;
     }
 
+    /**
+     * Whether the flickering critical-hit silhouette is drawn this frame.
+     */
+    public boolean isCriticalFlashVisible() {
+        return criticalEffectActive && ((int) (critEffectTimer / CRIT_FLASH_PERIOD) & 1) == 0;
+    }
+
     protected void onCriticalHitTriggered() {
     }
 
     protected void onLanding() {
     }
 
+    /**
+     * Mirror the visible state of a fighter streamed by a {@link SpectatorServer}; physics is not touched.
+     */
+    void applySpectatorState(float x, float y, FighterState state, int health, boolean facingRight,
+                             boolean criticalFlash, int clip, int frame) {
+        this.x = x;
+        this.y = y;
+        this.state = state;
+        this.health = health;
+        this.facingRight = facingRight;
+        criticalEffectActive = criticalFlash;
+        critEffectTimer = 0f;
+        if (animator != null) {
+            animator.showFrame(clip, frame);
+        }
+    }
+
+    int getAnimationClip() {
+        return animator != null ? animator.getClipIndex() : 0;
+    }
+
+    int getAnimationFrame() {
+        return animator != null ? animator.getPlayer().getFrameIndex() : 0;
+    }
+
+    /**
+     * Select and advance the sprite clip for the current state.
+     */
+    protected void updateAnimation(float deltaTime) {
+        if (animator != null) {
+            animator.update(this, deltaTime);
+        }
+    }
+
     protected void updateCriticalEffect(float deltaTime) {
         if (critEffectTimer > 0f) {
-            critEffectTimer -= deltaTime;
+            critEffectTimer = countDown(critEffectTimer, deltaTime);
             if (critEffectTimer <= 0f) {
                 critEffectTimer = 0f;
                 criticalEffectActive = false;
@@ -310,9 +709,28 @@ public abstract class Fighter {
     }
 
     /**
-     * Render the fighter. Subclasses should override for custom visuals.
+     * Record name, health and the sprite to draw this frame, so the view can be drawn on another thread.
      */
-    public abstract void render(Graphics2D g2d);
+    public final void capture(FighterView view) {
+        view.setStatus(getName(), health, maxHealth);
+        captureSprite(view);
+    }
+
+    /**
+     * Fill in the frame and its placement; clear the sprite when no sprites are loaded.
+     */
+    protected abstract void captureSprite(FighterView view);
+
+    /**
+     * Draw the fighter directly from its live state, on the thread that updates it.
+     */
+    public void render(Graphics2D g2d) {
+        if (renderView == null) {
+            renderView = new FighterView();
+        }
+        capture(renderView);
+        renderView.draw(g2d);
+    }
 
     /**
      * Utility to choose a simple color based on state.
@@ -349,6 +767,10 @@ public abstract class Fighter {
         return state;
     }
 
+    public float getYVelocity() {
+        return yVelocity;
+    }
+
     public boolean isOnGround() {
         return onGround;
     }
@@ -363,11 +785,14 @@ public abstract class Fighter {
 
     public void setGroundFromFloorTop(float floorTopY) {
         this.groundY = floorTopY - height;
+        this.fixedGroundY = FixedPoint.fromFloat(groundY);
     }
 
     public void snapToGround() {
         this.y = groundY;
-        this.yVelocity = 0f;
+        this.previousY = groundY;
+        this.fixedY = fixedGroundY;
+        setYVelocity(0f);
         this.onGround = true;
     }
 }
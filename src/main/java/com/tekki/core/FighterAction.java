@@ -0,0 +1,14 @@
+package com.tekki.core;
+
+/**
+ * Voluntary actions a fighter can request; permission is decided by {@link FighterTransitions}.
+ */
+public enum FighterAction {
+    MOVE,
+    STOP,
+    ATTACK,
+    DEFEND,
+    STOP_DEFEND,
+    JUMP,
+    DASH
+}
@@ -0,0 +1,149 @@
+package com.tekki.core;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Picks the clip for a fighter from a precomputed (state, airborne, rising) table and plays it.
+ * Shared by player and enemy fighters; the clips themselves are shared via {@link AnimationLibrary}.
+ */
+public final class FighterAnimator {
+
+    private static final EnemyAnimationConfig.AnimationType[] TYPES = EnemyAnimationConfig.AnimationType.values();
+    /** Table entry meaning "use the animation of the move being performed". */
+    private static final byte FROM_MOVE = -1;
+    private static final byte[] CLIP_TABLE = buildClipTable();
+
+    private final AnimationClip[] clips;
+    private final AnimationPlayer player = new AnimationPlayer();
+    private boolean restartRequested;
+    private int clipIndex;
+
+    /**
+     * @param clips clips indexed by {@link EnemyAnimationConfig.AnimationType} ordinal; null entries fall back to idle
+     */
+    public FighterAnimator(AnimationClip[] clips) {
+        this.clips = clips.clone();
+    }
+
+    /**
+     * Select the clip matching the fighter's current state and advance playback.
+     */
+    public void update(Fighter fighter, float deltaTime) {
+        clipIndex = clipIndexFor(fighter);
+        if (clips[clipIndex] == null) {
+            clipIndex = EnemyAnimationConfig.AnimationType.IDLE.ordinal();
+        }
+        AnimationClip clip = clips[clipIndex];
+        player.play(clip);
+        if (restartRequested) {
+            restartRequested = false;
+            player.reset();
+        }
+        player.update(deltaTime);
+    }
+
+    /**
+     * Restart the clip on the next update even if it does not change, e.g. for back-to-back attacks.
+     */
+    public void restart() {
+        restartRequested = true;
+    }
+
+    /**
+     * Clip index ({@link EnemyAnimationConfig.AnimationType} ordinal) for the fighter's current situation.
+     */
+    public static int clipIndexFor(Fighter fighter) {
+        int key = tableIndex(fighter.getState().ordinal(), !fighter.isOnGround(), fighter.getYVelocity() < 0f);
+        int index = CLIP_TABLE[key];
+        if (index == FROM_MOVE) {
+            int move = fighter.getCurrentMove();
+            index = move >= 0
+                    ? fighter.moves.getAnimation(move).ordinal()
+                    : EnemyAnimationConfig.AnimationType.ATTACK1.ordinal();
+        }
+        return index;
+    }
+
+    /**
+     * Take over another animator's playback position; both must play the same clip set.
+     */
+    public void copyStateFrom(FighterAnimator other) {
+        player.copyStateFrom(other.player);
+        restartRequested = other.restartRequested;
+        clipIndex = other.clipIndex;
+    }
+
+    /**
+     * Show a given frame of a clip without advancing time; used to mirror a fighter from another machine.
+     */
+    public void showFrame(int index, int frame) {
+        clipIndex = index >= 0 && index < clips.length && clips[index] != null
+                ? index
+                : EnemyAnimationConfig.AnimationType.IDLE.ordinal();
+        player.play(clips[clipIndex]);
+        player.seek(frame);
+    }
+
+    public int getClipIndex() {
+        return clipIndex;
+    }
+
+    void syncState(StateBuffer buffer) {
+        clipIndex = buffer.sync(clipIndex);
+        restartRequested = buffer.sync(restartRequested);
+        boolean playing = buffer.sync(player.getClip() != null);
+        player.syncState(buffer, playing ? clips[clipIndex] : null);
+    }
+
+    public AnimationPlayer getPlayer() {
+        return player;
+    }
+
+    public BufferedImage getCurrentFrame() {
+        return player.getCurrentFrame();
+    }
+
+    /**
+     * The current frame taken from a variant of this animator's clip set, e.g. from
+     * {@link AnimationLibrary#variantClips}.
+     */
+    public BufferedImage getCurrentFrame(AnimationClip[] variantClips) {
+        AnimationClip clip = variantClips[clipIndex];
+        return clip != null && player.getClip() != null ? clip.getFrame(player.getFrameIndex()) : null;
+    }
+
+    private static int tableIndex(int stateOrdinal, boolean airborne, boolean rising) {
+        return (stateOrdinal << 2) | (airborne ? 2 : 0) | (rising ? 1 : 0);
+    }
+
+    private static byte[] buildClipTable() {
+        FighterState[] states = FighterState.values();
+        byte[] table = new byte[states.length << 2];
+        for (FighterState state : states) {
+            for (int flags = 0; flags < 4; flags++) {
+                boolean airborne = (flags & 2) != 0;
+                boolean rising = (flags & 1) != 0;
+                table[tableIndex(state.ordinal(), airborne, rising)] = select(state, airborne, rising);
+            }
+        }
+        return table;
+    }
+
+    private static byte select(FighterState state, boolean airborne, boolean rising) {
+        EnemyAnimationConfig.AnimationType type;
+        if (state == FighterState.KO) {
+            type = EnemyAnimationConfig.AnimationType.DEATH;
+        } else if (state == FighterState.HIT) {
+            type = EnemyAnimationConfig.AnimationType.TAKE_HIT;
+        } else if (state == FighterState.ATTACKING) {
+            return FROM_MOVE;
+        } else if (state == FighterState.JUMPING || airborne) {
+            type = rising ? EnemyAnimationConfig.AnimationType.JUMP : EnemyAnimationConfig.AnimationType.FALL;
+        } else if (state == FighterState.WALKING || state == FighterState.DASHING) {
+            type = EnemyAnimationConfig.AnimationType.RUN;
+        } else {
+            type = EnemyAnimationConfig.AnimationType.IDLE;
+        }
+        return (byte) type.ordinal();
+    }
+}
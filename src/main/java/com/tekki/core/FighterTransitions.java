@@ -0,0 +1,134 @@
+package com.tekki.core;
+
+import java.util.Arrays;
+
+/**
+ * Declarative transition table mapping {@link FighterState} x {@link FighterAction} to the next state.
+ * <p>
+ * The table is compiled once into one bitmask per action (bit n set = allowed from state ordinal n),
+ * so every permission check is a single shift-and-mask that the JIT can inline.
+ */
+public final class FighterTransitions {
+
+    private static final FighterState[] STATES = FighterState.values();
+    private static final FighterAction[] ACTIONS = FighterAction.values();
+
+    /** Marks a transition that is allowed but leaves the current state untouched. */
+    private static final byte KEEP = -1;
+    /** Marks a transition that is not allowed. */
+    private static final byte DENY = -2;
+
+    private static final byte[] NEXT = new byte[ACTIONS.length * STATES.length];
+    private static final int[] ALLOWED_MASKS = new int[ACTIONS.length];
+
+    static {
+        Arrays.fill(NEXT, DENY);
+
+        // MOVE: walking keeps an ongoing attack or jump, otherwise starts walking.
+        allow(FighterAction.MOVE, FighterState.IDLE, FighterState.WALKING);
+        allow(FighterAction.MOVE, FighterState.WALKING, FighterState.WALKING);
+        keep(FighterAction.MOVE, FighterState.ATTACKING);
+        keep(FighterAction.MOVE, FighterState.JUMPING);
+
+        // STOP: cancels horizontal speed; attack, guard and jump keep running.
+        allow(FighterAction.STOP, FighterState.IDLE, FighterState.IDLE);
+        allow(FighterAction.STOP, FighterState.WALKING, FighterState.IDLE);
+        keep(FighterAction.STOP, FighterState.ATTACKING);
+        keep(FighterAction.STOP, FighterState.DEFENDING);
+        keep(FighterAction.STOP, FighterState.JUMPING);
+
+        allow(FighterAction.ATTACK, FighterState.IDLE, FighterState.ATTACKING);
+        allow(FighterAction.ATTACK, FighterState.WALKING, FighterState.ATTACKING);
+
+        // DEFEND additionally requires the fighter to be on the ground.
+        allow(FighterAction.DEFEND, FighterState.IDLE, FighterState.DEFENDING);
+        allow(FighterAction.DEFEND, FighterState.WALKING, FighterState.DEFENDING);
+        allow(FighterAction.DEFEND, FighterState.ATTACKING, FighterState.DEFENDING);
+        allow(FighterAction.DEFEND, FighterState.DEFENDING, FighterState.DEFENDING);
+
+        // STOP_DEFEND resolves to IDLE or WALKING depending on speed, see Fighter#stopDefending.
+        allow(FighterAction.STOP_DEFEND, FighterState.DEFENDING, FighterState.IDLE);
+
+        // JUMP additionally requires the fighter to be on the ground.
+        allow(FighterAction.JUMP, FighterState.IDLE, FighterState.JUMPING);
+        allow(FighterAction.JUMP, FighterState.WALKING, FighterState.JUMPING);
+        allow(FighterAction.JUMP, FighterState.ATTACKING, FighterState.JUMPING);
+        allow(FighterAction.JUMP, FighterState.JUMPING, FighterState.JUMPING);
+
+        allow(FighterAction.DASH, FighterState.IDLE, FighterState.DASHING);
+        allow(FighterAction.DASH, FighterState.WALKING, FighterState.DASHING);
+        // Dash-cancelling an attack is the player's; EnemyFighter refuses it on its own.
+        allow(FighterAction.DASH, FighterState.ATTACKING, FighterState.DASHING);
+        allow(FighterAction.DASH, FighterState.JUMPING, FighterState.DASHING);
+
+        compileMasks();
+        validate();
+    }
+
+    private FighterTransitions() {
+    }
+
+    /**
+     * Branch-free permission check for an action in the given state.
+     */
+    public static boolean isAllowed(FighterAction action, FighterState state) {
+        return ((ALLOWED_MASKS[action.ordinal()] >>> state.ordinal()) & 1) != 0;
+    }
+
+    /**
+     * Next state after performing an allowed action. Callers must check {@link #isAllowed} first.
+     */
+    public static FighterState next(FighterAction action, FighterState state) {
+        byte next = NEXT[index(action, state)];
+        return next == KEEP ? state : STATES[next];
+    }
+
+    private static void allow(FighterAction action, FighterState from, FighterState to) {
+        NEXT[index(action, from)] = (byte) to.ordinal();
+    }
+
+    private static void keep(FighterAction action, FighterState from) {
+        NEXT[index(action, from)] = KEEP;
+    }
+
+    private static int index(FighterAction action, FighterState state) {
+        return action.ordinal() * STATES.length + state.ordinal();
+    }
+
+    private static void compileMasks() {
+        for (FighterAction action : ACTIONS) {
+            int mask = 0;
+            for (FighterState state : STATES) {
+                if (NEXT[index(action, state)] != DENY) {
+                    mask |= 1 << state.ordinal();
+                }
+            }
+            ALLOWED_MASKS[action.ordinal()] = mask;
+        }
+    }
+
+    /**
+     * Sanity checks run once at class initialisation so a broken table fails fast at startup.
+     */
+    private static void validate() {
+        if (STATES.length > Integer.SIZE) {
+            throw new IllegalStateException("Too many fighter states for an int transition mask: " + STATES.length);
+        }
+        for (FighterAction action : ACTIONS) {
+            if (ALLOWED_MASKS[action.ordinal()] == 0) {
+                throw new IllegalStateException("Action " + action + " is not allowed from any state");
+            }
+            for (FighterState state : new FighterState[]{FighterState.HIT, FighterState.KO}) {
+                if (isAllowed(action, state)) {
+                    throw new IllegalStateException("Action " + action + " must not be allowed while " + state);
+                }
+            }
+            for (FighterState state : STATES) {
+                byte next = NEXT[index(action, state)];
+                if (next >= 0 && (next == FighterState.HIT.ordinal() || next == FighterState.KO.ordinal())) {
+                    throw new IllegalStateException("Action " + action + " from " + state + " must not lead to " + STATES[next]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.tekki.core;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * What to draw for one fighter in one frame, captured by {@link Fighter#capture}.
+ * <p>
+ * Frames are shared, immutable sprite images, so a view can be drawn on another thread while the fighter moves on.
+ */
+public final class FighterView {
+
+    private String name;
+    private int health;
+    private int maxHealth;
+    private BufferedImage frame;
+    private BufferedImage overlay;
+    private int drawX;
+    private int drawY;
+    private int drawWidth;
+    private int drawHeight;
+    private boolean facingRight;
+
+    void setStatus(String name, int health, int maxHealth) {
+        this.name = name;
+        this.health = health;
+        this.maxHealth = maxHealth;
+    }
+
+    /**
+     * @param overlay drawn over the frame with the same placement, e.g. the crit silhouette; may be null
+     */
+    void setSprite(BufferedImage frame, BufferedImage overlay, int drawX, int drawY, int drawWidth, int drawHeight,
+                   boolean facingRight) {
+        this.frame = frame;
+        this.overlay = overlay;
+        this.drawX = drawX;
+        this.drawY = drawY;
+        this.drawWidth = drawWidth;
+        this.drawHeight = drawHeight;
+        this.facingRight = facingRight;
+    }
+
+    void clearSprite() {
+        frame = null;
+        overlay = null;
+    }
+
+    public void draw(Graphics2D g2d) {
+        drawImage(g2d, frame);
+        drawImage(g2d, overlay);
+    }
+
+    private void drawImage(Graphics2D g2d, BufferedImage image) {
+        if (image == null) {
+            return;
+        }
+        if (facingRight) {
+            g2d.drawImage(image, drawX, drawY, drawWidth, drawHeight, null);
+        } else {
+            g2d.drawImage(image, drawX + drawWidth, drawY, -drawWidth, drawHeight, null);
+        }
+    }
+
+    /**
+     * Whether the sprite overlaps a world rectangle; nothing is drawn for a view outside it.
+     */
+    boolean intersects(float left, float top, float right, float bottom) {
+        return frame != null && drawX + drawWidth >= left && drawX <= right && drawY + drawHeight >= top
+                && drawY <= bottom;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    public int getDrawX() {
+        return drawX;
+    }
+
+    public int getDrawY() {
+        return drawY;
+    }
+
+    public int getDrawWidth() {
+        return drawWidth;
+    }
+
+    public int getDrawHeight() {
+        return drawHeight;
+    }
+
+    public boolean isFacingRight() {
+        return facingRight;
+    }
+
+    public BufferedImage getFrame() {
+        return frame;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tekki.core;
+
+/**
+ * 16.16 fixed-point helpers used by {@link PhysicsMode#FIXED}.
+ * <p>
+ * Integer arithmetic gives bit-identical results on every JVM, JIT tier and platform, and the
+ * state can be hashed or compared directly for replays and lockstep sessions. Values whose magnitude
+ * stays below 128 (every timer in the game) are also exactly representable as a float.
+ */
+public final class FixedPoint {
+
+    public static final int SHIFT = 16;
+    public static final int ONE = 1 << SHIFT;
+    /** Largest whole number a fixed-point value can hold. */
+    public static final int MAX_WHOLE = Integer.MAX_VALUE >> SHIFT;
+
+    private FixedPoint() {
+    }
+
+    public static int fromFloat(float value) {
+        return Math.round(value * ONE);
+    }
+
+    public static float toFloat(int value) {
+        return value / (float) ONE;
+    }
+
+    /**
+     * Fixed-point product with a 64-bit intermediate; rounds toward negative infinity.
+     */
+    public static int mul(int a, int b) {
+        return (int) (((long) a * b) >> SHIFT);
+    }
+}
@@ -0,0 +1,198 @@
+package com.tekki.core;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records rendered frames without slowing the painter down.
+ * <p>
+ * The painter renders into a pooled image from {@link #beginFrame} and hands it back with {@link #endFrame()};
+ * the image then waits in a bounded queue until one of the background encoder threads has compressed it and
+ * returned it to the pool. Neither call blocks: when no image is free, or the {@link CapturePolicy} skips the
+ * frame under pressure, the frame is simply not recorded.
+ * <p>
+ * Every recorded frame carries the simulation tick it shows, and a tick painted twice is recorded once, so
+ * the encoder can keep the recording on the game's timeline through skipped, dropped and coalesced frames.
+ */
+public final class FrameCapture implements AutoCloseable {
+
+    private final BlockingQueue<Slot> free;
+    private final BlockingQueue<Slot> pending;
+    private final int poolSize;
+    private final CapturePolicy policy;
+    private final FrameEncoder encoder;
+    private final Thread[] encoderThreads;
+
+    // Painter-side state.
+    private Slot current;
+    private long renderedFrames;
+    private long nextSequence;
+    private long currentTick;
+    private long lastTick = -1L;
+    private long droppedFrames;
+    private long skippedFrames;
+    private int maxQueueDepth;
+
+    private final AtomicLong encodedFrames = new AtomicLong();
+    private final AtomicLong failedFrames = new AtomicLong();
+    private volatile boolean closed;
+
+    public FrameCapture(int width, int height, int poolSize, int threads, CapturePolicy policy, FrameEncoder encoder) {
+        this.poolSize = poolSize;
+        this.policy = policy;
+        this.encoder = encoder;
+        this.free = new ArrayBlockingQueue<>(poolSize);
+        this.pending = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new Slot(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)));
+        }
+        encoderThreads = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::runEncoder, "tekki-capture-" + i);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            encoderThreads[i] = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Painter side: an image to render this frame into, or null when the frame is not recorded.
+     *
+     * @param tick simulation tick the frame shows; not recorded again once a frame of it was
+     */
+    public BufferedImage beginFrame(long tick) {
+        long frame = renderedFrames++;
+        if (closed || tick <= lastTick) {
+            return null;
+        }
+        if (!policy.accepts(frame, pending.size(), poolSize)) {
+            skippedFrames++;
+            return null;
+        }
+        current = free.poll();
+        if (current == null) {
+            droppedFrames++;
+            return null;
+        }
+        currentTick = tick;
+        return current.image;
+    }
+
+    /**
+     * Painter side: queue the image from {@link #beginFrame} for encoding. Stop drawing into it first.
+     */
+    public void endFrame() {
+        Slot slot = current;
+        if (slot == null) {
+            return;
+        }
+        current = null;
+        slot.sequence = nextSequence++;
+        slot.tick = currentTick;
+        lastTick = currentTick;
+        pending.add(slot);
+        maxQueueDepth = Math.max(maxQueueDepth, pending.size());
+    }
+
+    private void runEncoder() {
+        while (true) {
+            Slot slot;
+            try {
+                slot = pending.poll(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (slot == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                encoder.encode(slot.image, slot.sequence, slot.tick);
+                encodedFrames.incrementAndGet();
+            } catch (RuntimeException e) {
+                // Keep the encoder thread and the slot; later frames must not wait for this one.
+                System.err.println("Capture frame " + slot.sequence + " not recorded: " + e.getMessage());
+                failedFrames.incrementAndGet();
+                skip(slot.sequence);
+            } finally {
+                free.add(slot);
+            }
+        }
+    }
+
+    private void skip(long sequence) {
+        try {
+            encoder.skip(sequence);
+        } catch (RuntimeException e) {
+            System.err.println("Capture output failed: " + e.getMessage());
+        }
+    }
+
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    public long getCapturedFrames() {
+        return nextSequence;
+    }
+
+    /**
+     * Frames lost because every pooled image was still waiting to be encoded, or because encoding failed.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames + failedFrames.get();
+    }
+
+    /**
+     * Frames left out on purpose by the {@link CapturePolicy}.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    public long getEncodedFrames() {
+        return encodedFrames.get();
+    }
+
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Stop recording, let the encoders finish the queue and close the output.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread thread : encoderThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        encoder.close();
+    }
+
+    private static final class Slot {
+
+        private final BufferedImage image;
+        private long sequence;
+        private long tick;
+
+        private Slot(BufferedImage image) {
+            this.image = image;
+        }
+    }
+}
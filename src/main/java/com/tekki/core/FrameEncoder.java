@@ -0,0 +1,334 @@
+package com.tekki.core;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Compresses captured frames; {@link #encode} is called concurrently from several encoder threads.
+ */
+public interface FrameEncoder extends AutoCloseable {
+
+    /**
+     * @param sequence  order of the frame among those recorded, starting at 0 with no gaps; frames may arrive
+     *                  out of order
+     * @param timestamp simulation tick the frame shows; increases with {@code sequence}, and ticks that were
+     *                  not recorded leave gaps
+     */
+    void encode(BufferedImage frame, long sequence, long timestamp);
+
+    /**
+     * A recorded frame that could not be encoded, so later frames need not wait for it.
+     */
+    default void skip(long sequence) {
+    }
+
+    @Override
+    void close();
+
+    /**
+     * Open an encoder from a spec: {@code png:<directory>} for a numbered PNG sequence or {@code avi:<file>} for
+     * a Motion-JPEG AVI.
+     */
+    static FrameEncoder open(String spec, int width, int height, int framesPerSecond) {
+        if (spec.startsWith("png:")) {
+            return new PngSequence(new File(spec.substring("png:".length())));
+        }
+        if (spec.startsWith("avi:")) {
+            return new MjpegAvi(new File(spec.substring("avi:".length())), width, height, framesPerSecond);
+        }
+        throw new IllegalArgumentException("Unknown capture format: " + spec);
+    }
+
+    /**
+     * One {@code frame_000000.png} per frame, numbered by tick so unrecorded ticks show as gaps; frames are
+     * independent, so the encoder threads never coordinate.
+     */
+    final class PngSequence implements FrameEncoder {
+
+        private final File directory;
+
+        PngSequence(File directory) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Could not create capture folder: " + directory.getAbsolutePath());
+            }
+            this.directory = directory;
+        }
+
+        @Override
+        public void encode(BufferedImage frame, long sequence, long timestamp) {
+            File file = new File(directory, String.format(Locale.ROOT, "frame_%06d.png", timestamp));
+            try {
+                ImageIO.write(frame, "png", file);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write capture frame: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Motion-JPEG in an AVI container. Frames are JPEG-compressed in parallel and appended in sequence order;
+     * header sizes, frame count and the index are written on close.
+     * <p>
+     * The index has one entry per tick from the first recorded one: a tick that was not recorded repeats the
+     * previous frame, so the file plays in real time however many frames capture left out.
+     */
+    final class MjpegAvi implements FrameEncoder {
+
+        private static final float JPEG_QUALITY = 0.85f;
+        private static final int AVIF_HASINDEX = 0x10;
+        private static final int AVIIF_KEYFRAME = 0x10;
+
+        private final File file;
+        private final RandomAccessFile out;
+        private final int width;
+        private final int height;
+        /** Stand-in in {@link #reorder} for a frame that was skipped. */
+        private static final Chunk SKIPPED = new Chunk(null, 0L);
+
+        private final Map<Long, Chunk> reorder = new HashMap<>();
+        private long nextSequence;
+        private long lastTimestamp = -1L;
+        private int frameCount;
+        private int[] indexOffsets = new int[1024];
+        private int[] indexSizes = new int[1024];
+        private int maxChunkSize;
+        private long moviStart;
+
+        // Positions of fields patched on close.
+        private long riffSizeAt;
+        private long totalFramesAt;
+        private long suggestedBufferAt;
+        private long streamLengthAt;
+        private long streamBufferAt;
+        private long moviSizeAt;
+
+        MjpegAvi(File file, int width, int height, int framesPerSecond) {
+            this.file = file;
+            this.width = width;
+            this.height = height;
+            try {
+                out = new RandomAccessFile(file, "rw");
+                out.setLength(0L);
+                writeHeaders(framesPerSecond);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create capture file: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        private void writeHeaders(int framesPerSecond) throws IOException {
+            out.writeBytes("RIFF");
+            riffSizeAt = out.getFilePointer();
+            writeInt(0);
+            out.writeBytes("AVI ");
+
+            out.writeBytes("LIST");
+            writeInt(4 + 8 + 56 + 8 + 4 + 8 + 56 + 8 + 40);
+            out.writeBytes("hdrl");
+            out.writeBytes("avih");
+            writeInt(56);
+            writeInt(1_000_000 / framesPerSecond);
+            writeInt(0);
+            writeInt(0);
+            writeInt(AVIF_HASINDEX);
+            totalFramesAt = out.getFilePointer();
+            writeInt(0);
+            writeInt(0);
+            writeInt(1);
+            suggestedBufferAt = out.getFilePointer();
+            writeInt(0);
+            writeInt(width);
+            writeInt(height);
+            for (int i = 0; i < 4; i++) {
+                writeInt(0);
+            }
+
+            out.writeBytes("LIST");
+            writeInt(4 + 8 + 56 + 8 + 40);
+            out.writeBytes("strl");
+            out.writeBytes("strh");
+            writeInt(56);
+            out.writeBytes("vids");
+            out.writeBytes("MJPG");
+            writeInt(0);
+            writeInt(0);
+            writeInt(0);
+            writeInt(1);
+            writeInt(framesPerSecond);
+            writeInt(0);
+            streamLengthAt = out.getFilePointer();
+            writeInt(0);
+            streamBufferAt = out.getFilePointer();
+            writeInt(0);
+            writeInt(-1);
+            writeInt(0);
+            writeShort(0);
+            writeShort(0);
+            writeShort(width);
+            writeShort(height);
+
+            out.writeBytes("strf");
+            writeInt(40);
+            writeInt(40);
+            writeInt(width);
+            writeInt(height);
+            writeShort(1);
+            writeShort(24);
+            out.writeBytes("MJPG");
+            writeInt(width * height * 3);
+            for (int i = 0; i < 4; i++) {
+                writeInt(0);
+            }
+
+            out.writeBytes("LIST");
+            moviSizeAt = out.getFilePointer();
+            writeInt(0);
+            moviStart = out.getFilePointer();
+            out.writeBytes("movi");
+        }
+
+        @Override
+        public void encode(BufferedImage frame, long sequence, long timestamp) {
+            deliver(sequence, new Chunk(compress(frame), timestamp));
+        }
+
+        @Override
+        public void skip(long sequence) {
+            deliver(sequence, SKIPPED);
+        }
+
+        private synchronized void deliver(long sequence, Chunk chunk) {
+            if (sequence >= nextSequence) {
+                reorder.put(sequence, chunk);
+            }
+            drain();
+        }
+
+        private void drain() {
+            Chunk next;
+            while ((next = reorder.remove(nextSequence)) != null) {
+                nextSequence++;
+                if (next != SKIPPED) {
+                    appendChunk(next);
+                }
+            }
+        }
+
+        private static byte[] compress(BufferedImage frame) {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+            ImageWriter writer = writers.next();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            try (ImageOutputStream stream = new MemoryCacheImageOutputStream(bytes)) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(frame, null, null), param);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not compress capture frame", e);
+            } finally {
+                writer.dispose();
+            }
+            return bytes.toByteArray();
+        }
+
+        private void appendChunk(Chunk chunk) {
+            byte[] jpeg = chunk.jpeg;
+            try {
+                if (lastTimestamp >= 0L) {
+                    for (long tick = lastTimestamp + 1; tick < chunk.timestamp; tick++) {
+                        addIndexEntry(indexOffsets[frameCount - 1], indexSizes[frameCount - 1]);
+                    }
+                }
+                lastTimestamp = chunk.timestamp;
+                addIndexEntry((int) (out.getFilePointer() - moviStart), jpeg.length);
+                maxChunkSize = Math.max(maxChunkSize, jpeg.length);
+                out.writeBytes("00dc");
+                writeInt(jpeg.length);
+                out.write(jpeg);
+                if ((jpeg.length & 1) != 0) {
+                    out.write(0);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write capture file: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        private void addIndexEntry(int offset, int size) {
+            if (frameCount == indexOffsets.length) {
+                indexOffsets = Arrays.copyOf(indexOffsets, frameCount * 2);
+                indexSizes = Arrays.copyOf(indexSizes, frameCount * 2);
+            }
+            indexOffsets[frameCount] = offset;
+            indexSizes[frameCount] = size;
+            frameCount++;
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                drain();
+                long moviEnd = out.getFilePointer();
+                out.writeBytes("idx1");
+                writeInt(16 * frameCount);
+                for (int i = 0; i < frameCount; i++) {
+                    out.writeBytes("00dc");
+                    writeInt(AVIIF_KEYFRAME);
+                    writeInt(indexOffsets[i]);
+                    writeInt(indexSizes[i]);
+                }
+                long end = out.getFilePointer();
+                patch(riffSizeAt, (int) (end - 8));
+                patch(moviSizeAt, (int) (moviEnd - moviStart));
+                patch(totalFramesAt, frameCount);
+                patch(streamLengthAt, frameCount);
+                patch(suggestedBufferAt, maxChunkSize + 8);
+                patch(streamBufferAt, maxChunkSize + 8);
+                out.close();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not finish capture file: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        private void patch(long position, int value) throws IOException {
+            out.seek(position);
+            writeInt(value);
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.writeInt(Integer.reverseBytes(value));
+        }
+
+        private void writeShort(int value) throws IOException {
+            out.writeShort(Short.reverseBytes((short) value));
+        }
+
+        private static final class Chunk {
+
+            private final byte[] jpeg;
+            private final long timestamp;
+
+            private Chunk(byte[] jpeg, long timestamp) {
+                this.jpeg = jpeg;
+                this.timestamp = timestamp;
+            }
+        }
+    }
+}
@@ -2,32 +2,65 @@ package com.tekki.core;
 
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
-import java.awt.RenderingHints;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
 import javax.swing.JPanel;
-import javax.swing.Timer;
 
 /**
- * GamePanel hosts rendering and update loop using a Swing Timer.
+ * GamePanel hosts the game loop and its rendering.
+ * <p>
+ * The simulation runs at a fixed tick rate on its own thread and publishes a {@link RenderSnapshot} after
+ * every tick; painting on the EDT only ever reads the latest snapshot, so a slow frame never delays the game.
  */
-public class GamePanel extends JPanel implements ActionListener, KeyListener {
-
-    private static final int PANEL_WIDTH = 1680;
-    private static final int PANEL_HEIGHT = 720;
-    private static final int TARGET_FPS = 60;
-    private static final int FLOOR_HEIGHT = 60;
-
-    private final Timer gameTimer;
+public class GamePanel extends JPanel implements KeyListener {
+
+    private static final int PANEL_WIDTH = Campaign.ARENA_WIDTH;
+    private static final int PANEL_HEIGHT = Campaign.ARENA_HEIGHT;
+    /** Simulation ticks per second; -Dtekki.tickRate=30 runs a coarser sim on weak machines. */
+    private static final int TARGET_FPS = Integer.getInteger("tekki.tickRate", 60);
+    private static final Color DEFAULT_BACKGROUND = new Color(50, 70, 90);
+    private static final Color DEFAULT_FLOOR = new Color(80, 60, 40);
+    /** Select with -Dtekki.physics=fixed for deterministic fixed-point fighters. */
+    private static final PhysicsMode PHYSICS_MODE =
+            PhysicsMode.valueOf(System.getProperty("tekki.physics", "float").toUpperCase(Locale.ROOT));
+    /** Select with -Dtekki.ai=lookahead or -Dtekki.ai=policy for a stronger enemy. */
+    private static final AiMode AI_MODE =
+            AiMode.valueOf(System.getProperty("tekki.ai", "dice").toUpperCase(Locale.ROOT));
+    /** -Dtekki.audio=line|null|file:out.wav picks where the mixer writes. */
+    private static final String AUDIO_OUTPUT = System.getProperty("tekki.audio", "line");
+    /** -Dtekki.capture=png:folder or avi:file.avi records every painted frame, see {@link FrameCapture}. */
+    private static final String CAPTURE_OUTPUT = System.getProperty("tekki.capture");
+    /** -Dtekki.bot=enemy|player hands that fighter to an external bot, see {@link BotBridge}. */
+    private static final String BOT_ROLE = System.getProperty("tekki.bot");
+    /** -Dtekki.replay.dir=folder saves a {@link Replay} of every finished stage, see {@link ReplayRenderer}. */
+    private static final String REPLAY_DIR = System.getProperty("tekki.replay.dir");
+    /** -Dtekki.spectator.port=7777 streams the match to {@link SpectatorViewer}s. */
+    private static final Integer SPECTATOR_PORT = Integer.getInteger("tekki.spectator.port");
+    /** -Dtekki.debug.history=10 keeps the last 10 s of the fight for the time-travel debugger (F9, F7/F8, PgUp/PgDn). */
+    private static final Integer HISTORY_SECONDS = Integer.getInteger("tekki.debug.history");
+    private static final int SCRUB_TICKS = 4;
+    /** -Dtekki.tiles.cache=96 caps how many decoded background tiles stay in memory, 256 KB each. */
+    private static final int TILE_CACHE = Integer.getInteger("tekki.tiles.cache", TileCache.DEFAULT_CAPACITY);
+    /** -Dtekki.log.dir=folder records every tick and combat event for {@link MatchLogQuery}. */
+    private static final String LOG_DIR = System.getProperty("tekki.log.dir");
+    /** High scores live in ~/.tekki unless -Dtekki.leaderboard.dir names another folder, or "off". */
+    private static final String LEADERBOARD_DIR = System.getProperty("tekki.leaderboard.dir",
+            new File(System.getProperty("user.home"), ".tekki").getPath());
+    private static final String PROFILE = System.getProperty("tekki.profile", System.getProperty("user.name", "player"));
+    private static final GameState[] GAME_STATES = GameState.values();
+
+    private final Thread simulationThread;
     private long frameCounter = 0;
     private GameState gameState = GameState.MENU;
 
@@ -40,35 +73,80 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     private float stageIntroTimer = 0f;
     private boolean showingStageIntro = false;
     private static final float STAGE_INTRO_DURATION = 2.0f;
-    private float hitFlashTimer = 0f;
-    private static final float HIT_FLASH_DURATION = 0.15f;
-    private Color hitFlashColor = Color.WHITE;
     private float koOverlayTimer = 0f;
     private static final float KO_OVERLAY_DURATION = 1.5f;
 
     private PlayerFighter player;
     private EnemyFighter enemy;
-
-    private final Random random = new Random();
-
-    private boolean leftPressed;
-    private boolean rightPressed;
-    private boolean attackPressed;
-    private boolean defendPressed;
-    private boolean jumpPressed;
+    private Match match;
+    private LookaheadAi lookaheadAi;
+    private final BotBridge.Role botRole;
+    private final BotBridge botBridge;
+    private int botHeld;
+    private final CombatEventBus combatEvents = new CombatEventBus(256);
+    private final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY);
+    private final Camera camera = new Camera(PANEL_WIDTH, PANEL_HEIGHT);
+    private final FightEffects effects = new FightEffects(particles);
+    private final FightRenderer renderer = new FightRenderer(particles, new TileCache(TILE_CACHE), false);
+    private Replay replay;
+    private final TripleBuffer<RenderSnapshot> snapshots =
+            new TripleBuffer<>(() -> new RenderSnapshot(particles.getCapacity()));
+    private final FrameCapture capture;
+    private final SpectatorServer spectators;
+    private final SpectatorState spectatorState = new SpectatorState();
+    private final SnapshotHistory history;
+    private final MatchLog matchLog;
+    private final Leaderboard leaderboard;
+    /** Points earned in each stage of the current run, by level. */
+    private int[] stageScores;
+    private int stageStartScore;
+    private final StateBuffer historyState = new StateBuffer();
+    private boolean paused;
+    private long viewedEntry;
+    private String historyLabel;
+    private final AudioMixer audio = openAudio();
+
+    private final InputSampler inputSampler = new InputSampler();
+    private boolean showInputStats = false;
 
     public GamePanel() {
         setPreferredSize(new Dimension(PANEL_WIDTH, PANEL_HEIGHT));
         setBackground(Color.DARK_GRAY);
         setFocusable(true);
         addKeyListener(this);
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                inputSampler.clearHeld();
+            }
+        });
 
         initLevels();
         currentLevel = levels.get(0);
-
-        int delayMs = 1000 / TARGET_FPS;
-        gameTimer = new Timer(delayMs, this);
-        gameTimer.start();
+        stageScores = new int[levels.size()];
+        leaderboard = !"off".equals(LEADERBOARD_DIR) ? openLeaderboard(levels.size()) : null;
+
+        botRole = BOT_ROLE != null ? BotBridge.Role.valueOf(BOT_ROLE.toUpperCase(Locale.ROOT)) : null;
+        botBridge = botRole != null ? openBotBridge() : null;
+        combatEvents.subscribe("audio", this::playCombatSound);
+        combatEvents.subscribe("effects", effects);
+        combatEvents.subscribe("game", this::onCombatEvent);
+        matchLog = LOG_DIR != null ? openMatchLog() : null;
+        if (matchLog != null) {
+            combatEvents.subscribe("log", matchLog);
+        }
+
+        capture = CAPTURE_OUTPUT != null ? openCapture() : null;
+        history = HISTORY_SECONDS != null
+                ? new SnapshotHistory(HISTORY_SECONDS * TARGET_FPS, TARGET_FPS / 2, HISTORY_SECONDS * TARGET_FPS * 64)
+                : null;
+        spectators = SPECTATOR_PORT != null
+                ? new SpectatorServer(SPECTATOR_PORT, TARGET_FPS, Integer.getInteger("tekki.spectator.keyframe", 60))
+                : null;
+
+        simulationThread = new Thread(this::runSimulation, "tekki-sim");
+        simulationThread.setDaemon(true);
+        simulationThread.start();
     }
 
     @Override
@@ -80,41 +158,94 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g.create();
-
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        RenderSnapshot snapshot = snapshots.acquire();
+        BufferedImage captureFrame = capture != null ? capture.beginFrame(snapshot.frameCounter) : null;
+        Graphics2D g2d = (Graphics2D) (captureFrame != null ? captureFrame.createGraphics() : g.create());
+        renderer.draw(g2d, snapshot, getWidth(), getHeight());
+        g2d.dispose();
+        if (captureFrame != null) {
+            g.drawImage(captureFrame, 0, 0, null);
+            capture.endFrame();
+        }
+    }
 
-        g2d.setColor(new Color(30, 40, 60));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+    /**
+     * Fixed-rate loop on the simulation thread: tick, publish a snapshot, ask Swing for a repaint.
+     */
+    private void runSimulation() {
+        long periodNanos = 1_000_000_000L / TARGET_FPS;
+        float deltaTime = 1f / TARGET_FPS;
+        long nextTick = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            frameCounter++;
+            updateGame(deltaTime);
+            captureSnapshot(snapshots.back());
+            snapshots.publish();
+            repaint();
+            if (spectators != null) {
+                spectatorState.capture(frameCounter, gameState, currentLevelIndex, score, player, enemy);
+                spectators.publish(spectatorState);
+            }
 
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 32));
-        switch (gameState) {
-            case MENU -> drawMenu(g2d);
-            case FIGHT -> drawFight(g2d);
-            case LEVEL_TRANSITION -> drawLevelTransition(g2d);
-            case GAME_OVER -> drawGameOver(g2d);
-            case VICTORY -> drawVictory(g2d);
-            default -> drawMenu(g2d);
+            nextTick += periodNanos;
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -5 * periodNanos) {
+                // Too far behind to catch up, e.g. after a debugger pause: drop the missed ticks.
+                nextTick = System.nanoTime();
+            }
         }
-
-        g2d.dispose();
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        frameCounter++;
-        float deltaTime = 1f / TARGET_FPS;
-        updateGame(deltaTime);
-        repaint();
+    /**
+     * Copy everything the painter needs out of the live game state.
+     */
+    private void captureSnapshot(RenderSnapshot snapshot) {
+        snapshot.gameState = gameState;
+        snapshot.frameCounter = frameCounter;
+        snapshot.promptHighlighted = (frameCounter / (TARGET_FPS / 2)) % 2 != 0;
+        snapshot.score = score;
+
+        snapshot.levelIndex = currentLevelIndex;
+        snapshot.levelCount = levels.size();
+        snapshot.levelName = currentLevel != null ? currentLevel.getName() : null;
+        snapshot.nextLevelName = currentLevelIndex + 1 < levels.size() ? levels.get(currentLevelIndex + 1).getName() : "";
+        snapshot.backgroundColor = currentLevel != null ? currentLevel.getBackgroundColor() : DEFAULT_BACKGROUND;
+        snapshot.floorColor = currentLevel != null ? currentLevel.getFloorColor() : DEFAULT_FLOOR;
+        snapshot.backgroundLayers = currentLevel != null ? currentLevel.getBackgroundLayers() : List.of();
+        snapshot.showingStageIntro = showingStageIntro;
+        snapshot.stageIntroFade = stageIntroTimer / STAGE_INTRO_DURATION;
+        snapshot.koOverlayFade = koOverlayTimer / KO_OVERLAY_DURATION;
+        snapshot.captureFight(player, enemy, particles, camera);
+
+        snapshot.standings = leaderboard != null ? leaderboard.getStandings() : null;
+        snapshot.profileName = PROFILE;
+        snapshot.historyLabel = historyLabel;
+        snapshot.showInputStats = showInputStats;
+        if (showInputStats) {
+            InputLatencyMetrics metrics = inputSampler.getMetrics();
+            snapshot.inputAverageMillis = metrics.getAverageMillis();
+            snapshot.inputP99Millis = metrics.getPercentileMillis(99.0);
+            snapshot.inputMaxMillis = metrics.getMaxMillis();
+            snapshot.inputEventCount = metrics.getEventCount();
+            snapshot.inputDroppedCount = inputSampler.getDroppedEventCount();
+        }
     }
 
     private void updateGame(float deltaTime) {
-        if (hitFlashTimer > 0f) {
-            hitFlashTimer -= deltaTime;
-            if (hitFlashTimer < 0f) {
-                hitFlashTimer = 0f;
-            }
+        InputFrame input = inputSampler.sample(frameCounter);
+        if (history != null && updateHistory(input)) {
+            return;
         }
+        if (input.wasPressed(InputFrame.START)) {
+            handleStartPressed();
+        }
+        if (input.wasPressed(InputFrame.DEBUG_OVERLAY)) {
+            showInputStats = !showInputStats;
+        }
+
+        particles.update(deltaTime);
         if (koOverlayTimer > 0f) {
             koOverlayTimer -= deltaTime;
             if (koOverlayTimer < 0f) {
@@ -134,44 +265,29 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
                 startLevel(currentLevelIndex);
             }
 
-            if (!player.isKO() && !enemy.isKO()) {
-                if (defendPressed) {
-                    player.startDefending();
-                    attackPressed = false;
-                    jumpPressed = false;
-                    player.stopMoving();
-                } else {
-                    player.stopDefending();
-
-                    if (player.getState() != FighterState.DASHING) {
-                        if (leftPressed && !rightPressed) {
-                            player.moveLeft();
-                        } else if (rightPressed && !leftPressed) {
-                            player.moveRight();
-                        } else {
-                            player.stopMoving();
-                        }
-
-                        if (jumpPressed) {
-                            player.jump();
-                            jumpPressed = false;
-                        }
-
-                        if (attackPressed && player.getState() != FighterState.JUMPING && player.getState() != FighterState.DASHING && player.getState() != FighterState.DEFENDING) {
-                            player.startAttack();
-                            attackPressed = false;
-                        }
-                    } else {
-                        attackPressed = false;
-                        jumpPressed = false;
-                    }
+            if (!match.isOver()) {
+                InputFrame applied = botRole == BotBridge.Role.PLAYER ? botInput(input) : input;
+                match.applyPlayerInput(applied);
+                if (replay != null) {
+                    replay.record(applied);
+                }
+                match.step(deltaTime);
+                combatEvents.dispatch();
+                effects.afterStep();
+                if (matchLog != null) {
+                    matchLog.logTick(match.getTick(), player, enemy);
+                }
+                if (history != null) {
+                    historyState.beginSave();
+                    syncState(historyState);
+                    historyState.endSave();
+                    history.record(historyState);
+                }
+                if (match.isOver()) {
+                    saveReplay();
                 }
-
-                player.update(deltaTime);
-                enemy.updateAI(deltaTime, player);
-                enemy.update(deltaTime);
-                handleCombat();
             }
+            camera.update(deltaTime, player, enemy);
         } else if (gameState == GameState.LEVEL_TRANSITION) {
             levelTransitionTimer -= deltaTime;
             if (levelTransitionTimer <= 0f) {
@@ -180,325 +296,295 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
                     startLevel(nextIndex);
                     gameState = GameState.FIGHT;
                 } else {
-                    gameState = GameState.VICTORY;
+                    endRun(GameState.VICTORY);
                 }
             }
         }
     }
 
-    private void handleCombat() {
-        if (player == null || enemy == null) {
-            return;
-        }
-
-        Rectangle playerHit = player.getAttackHitbox();
-        Rectangle enemyHit = enemy.getAttackHitbox();
-        Rectangle playerBounds = player.getBounds();
-        Rectangle enemyBounds = enemy.getBounds();
-
-        if (player.canHit() && playerHit != null && playerHit.intersects(enemyBounds)) {
-            int damage = 10;
-            if (player.getState() == FighterState.DASHING) {
-                damage *= 2;
-            }
-            if (isCriticalHit()) {
-                damage *= 2;
-                enemy.triggerCriticalHitEffect();
-            }
-            enemy.takeDamage(damage);
-            player.markHit();
-            score += damage;
-            hitFlashTimer = HIT_FLASH_DURATION;
-            hitFlashColor = new Color(180, 0, 180);
-        }
-
-        if (enemy.canHit() && enemyHit != null && enemyHit.intersects(playerBounds)) {
-            int enemyDamage = currentLevel != null ? currentLevel.getEnemyDamage() : 10;
-            if (isCriticalHit()) {
-                enemyDamage *= 2;
-                player.triggerCriticalHitEffect();
-            }
-            player.takeDamage(enemyDamage);
-            enemy.markHit();
-            hitFlashTimer = HIT_FLASH_DURATION;
-            hitFlashColor = Color.WHITE;
-        }
-
-        if (gameState == GameState.FIGHT) {
-            if (enemy.isKO()) {
-                koOverlayTimer = KO_OVERLAY_DURATION;
-                if (currentLevelIndex + 1 < levels.size()) {
-                    gameState = GameState.LEVEL_TRANSITION;
-                    levelTransitionTimer = 2.0f;
-                } else {
-                    gameState = GameState.VICTORY;
+    /**
+     * Time-travel debugger keys. While paused the fight is frozen and F7/F8 step and PgUp/PgDn scrub through
+     * the recorded ticks; resuming continues from the tick on screen and forgets the ticks after it.
+     *
+     * @return true while paused, so the tick does nothing else
+     */
+    private boolean updateHistory(InputFrame input) {
+        if (input.wasPressed(InputFrame.DEBUG_PAUSE)) {
+            if (paused) {
+                if (viewedEntry != history.getNewest()) {
+                    history.truncateAfter(viewedEntry);
+                    // The recording no longer matches what happened.
+                    replay = null;
                 }
-            } else if (player.isKO()) {
-                koOverlayTimer = KO_OVERLAY_DURATION;
-                gameState = GameState.GAME_OVER;
+                paused = false;
+                historyLabel = null;
+                return false;
             }
+            if (history.isEmpty()) {
+                return false;
+            }
+            paused = true;
+            viewedEntry = history.getNewest();
         }
-    }
-
-    private boolean isCriticalHit() {
-        return random.nextInt(5) == 0;
-    }
-
-    private void drawMenu(Graphics2D g2d) {
-        g2d.setColor(Color.BLACK);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        g2d.setColor(new Color(0, 0, 0, 120));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 72));
-        drawCenteredTextAt(g2d, "JAVA BRAWL", Color.WHITE, 150);
-
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 32));
-        String prompt = "Press ENTER to Start";
-        Color promptColor = (frameCounter / (TARGET_FPS / 2)) % 2 == 0 ? Color.WHITE : new Color(200, 200, 255);
-        drawCenteredTextAt(g2d, prompt, promptColor, 260);
-
-        g2d.setFont(new Font("SansSerif", Font.PLAIN, 16));
-        drawCenteredTextAt(g2d, "© 2025 Student Project – Prototype Build", new Color(200, 200, 200), getHeight() - 30);
-    }
-
-    private void drawFight(Graphics2D g2d) {
-        Color bg = currentLevel != null ? currentLevel.getBackgroundColor() : new Color(50, 70, 90);
-        Color floor = currentLevel != null ? currentLevel.getFloorColor() : new Color(80, 60, 40);
-
-        g2d.setColor(bg);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        g2d.setColor(floor);
-        int floorTopY = PANEL_HEIGHT - FLOOR_HEIGHT;
-        g2d.fillRect(0, floorTopY, getWidth(), FLOOR_HEIGHT);
-
-        if (player != null) {
-            player.render(g2d);
-        }
-        if (enemy != null) {
-            enemy.render(g2d);
-        }
-
-        if (showingStageIntro && currentLevel != null) {
-            drawStageIntro(g2d);
+        if (!paused) {
+            return false;
         }
 
-        drawHud(g2d);
-
-        if (hitFlashTimer > 0f) {
-            drawHitFlash(g2d);
+        long step = 0;
+        if (input.wasPressed(InputFrame.DEBUG_STEP_BACK)) {
+            step--;
         }
-    }
-
-    private void drawHud(Graphics2D g2d) {
-        int barWidth = 300;
-        int barHeight = 20;
-        int padding = 18;
-        int topMargin = 40;
-        int textSpacing = 18;
-
-        g2d.setColor(Color.DARK_GRAY);
-        g2d.fillRect(padding, topMargin, barWidth, barHeight);
-        g2d.fillRect(getWidth() - barWidth - padding, topMargin, barWidth, barHeight);
-
-        if (player != null) {
-            float ratio = player.getHealth() / (float) player.getMaxHealth();
-            int fill = (int) (barWidth * ratio);
-            g2d.setColor(new Color(80, 200, 120));
-            g2d.fillRect(padding, topMargin, fill, barHeight);
-            g2d.setColor(Color.WHITE);
-            g2d.drawString(player.getName() + " HP: " + player.getHealth() + "/" + player.getMaxHealth(), padding, topMargin + barHeight + textSpacing);
+        if (input.wasPressed(InputFrame.DEBUG_STEP_FORWARD)) {
+            step++;
         }
-
-        if (enemy != null) {
-            float ratio = enemy.getHealth() / (float) enemy.getMaxHealth();
-            int fill = (int) (barWidth * ratio);
-            g2d.setColor(new Color(200, 120, 80));
-            g2d.fillRect(getWidth() - barWidth - padding, topMargin, fill, barHeight);
-            g2d.setColor(Color.WHITE);
-            g2d.drawString("CPU " + enemy.getName() + " HP: " + enemy.getHealth() + "/" + enemy.getMaxHealth(), getWidth() - barWidth - padding, topMargin + barHeight + textSpacing);
+        if (input.isHeld(InputFrame.DEBUG_SCRUB_BACK)) {
+            step -= SCRUB_TICKS;
         }
-
-        g2d.setColor(Color.WHITE);
-        if (currentLevel != null && !levels.isEmpty()) {
-            String scoreLabel = "Score: " + score;
-            int scoreWidth = g2d.getFontMetrics().stringWidth(scoreLabel);
-            int scoreX = (getWidth() - scoreWidth) / 2;
-            int scoreY = topMargin + barHeight + 10;
-            g2d.drawString(scoreLabel, scoreX, scoreY);
-
-            String stageLabel = "Stage " + (currentLevelIndex + 1) + "/" + levels.size() + " – " + currentLevel.getName();
-            int stageWidth = g2d.getFontMetrics().stringWidth(stageLabel);
-            int stageX = (getWidth() - stageWidth) / 2;
-            int stageY = scoreY + textSpacing;
-            g2d.drawString(stageLabel, stageX, stageY);
+        if (input.isHeld(InputFrame.DEBUG_SCRUB_FORWARD)) {
+            step += SCRUB_TICKS;
         }
-
-        if (player != null) {
-            drawDashIndicator(g2d, padding, getHeight() - 70, barWidth / 2, 12);
+        long target = Math.max(history.getOldest(), Math.min(history.getNewest(), viewedEntry + step));
+        if (target != viewedEntry) {
+            history.restore(target, historyState);
+            historyState.beginLoad();
+            syncState(historyState);
+            particles.clear();
+            camera.reset(currentLevel.getStageWidth(), player, enemy);
+            viewedEntry = target;
         }
+        historyLabel = String.format(Locale.ROOT,
+                "PAUSED  tick %d (%+.2f s)  %s / %s  |  %.1f s kept, %d KB  |  F7/F8 step, PgUp/PgDn scrub, F9 resume",
+                match.getTick(), (viewedEntry - history.getNewest()) / (float) TARGET_FPS,
+                player.getState(), enemy.getState(), (history.getNewest() - history.getOldest() + 1) / (float) TARGET_FPS,
+                history.getReservedBytes() / 1024);
+        return true;
     }
 
-    private void drawStageIntro(Graphics2D g2d) {
-        float alpha = Math.min(1f, stageIntroTimer / STAGE_INTRO_DURATION);
-        Color overlay = new Color(0f, 0f, 0f, 0.5f * alpha);
-        g2d.setColor(overlay);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        String label = "Stage " + (currentLevelIndex + 1) + "/" + levels.size() + " - " + currentLevel.getName();
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 42));
-        drawCenteredText(g2d, label, Color.WHITE);
+    /**
+     * Save or load the fight and the timers around it; the stage itself is fixed, the history is cleared per stage.
+     */
+    private void syncState(StateBuffer state) {
+        gameState = state.sync(gameState, GAME_STATES);
+        score = state.sync(score);
+        levelTransitionTimer = state.sync(levelTransitionTimer);
+        stageIntroTimer = state.sync(stageIntroTimer);
+        showingStageIntro = state.sync(showingStageIntro);
+        koOverlayTimer = state.sync(koOverlayTimer);
+        match.syncState(state);
     }
 
-    private void drawHitFlash(Graphics2D g2d) {
-        float alpha = Math.min(1f, hitFlashTimer / HIT_FLASH_DURATION);
-        float flashAlpha = 0.35f * alpha;
-        float r = hitFlashColor.getRed() / 255f;
-        float g = hitFlashColor.getGreen() / 255f;
-        float b = hitFlashColor.getBlue() / 255f;
-        Color flash = new Color(r, g, b, flashAlpha);
-        g2d.setColor(flash);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+    /**
+     * Frame capture from the tekki.capture.* properties; finished by a shutdown hook so the file is complete on exit.
+     */
+    private static FrameCapture openCapture() {
+        FrameEncoder encoder = FrameEncoder.open(CAPTURE_OUTPUT, PANEL_WIDTH, PANEL_HEIGHT, TARGET_FPS);
+        CapturePolicy policy =
+                CapturePolicy.valueOf(System.getProperty("tekki.capture.policy", "adaptive").toUpperCase(Locale.ROOT));
+        int threads = Integer.getInteger("tekki.capture.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+        FrameCapture capture = new FrameCapture(PANEL_WIDTH, PANEL_HEIGHT, Integer.getInteger("tekki.capture.buffers", 8),
+                threads, policy, encoder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            capture.close();
+            System.out.printf(Locale.ROOT, "Capture: %d of %d frames recorded, %d skipped, %d dropped, max queue %d%n",
+                    capture.getEncodedFrames(), capture.getRenderedFrames(), capture.getSkippedFrames(),
+                    capture.getDroppedFrames(), capture.getMaxQueueDepth());
+        }, "tekki-capture-close"));
+        return capture;
     }
 
-    private void drawLevelTransition(Graphics2D g2d) {
-        g2d.setColor(new Color(60, 60, 30));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 42));
-        String next = currentLevelIndex + 1 < levels.size() ? levels.get(currentLevelIndex + 1).getName() : "";
-        String message = "Next Stage: " + next;
-        drawCenteredText(g2d, message, Color.WHITE);
-        g2d.setFont(new Font("SansSerif", Font.PLAIN, 22));
-        drawCenteredTextOffset(g2d, "Get Ready...", Color.LIGHT_GRAY, 40);
+    /**
+     * Sound mixer; closed by a shutdown hook so a WAV file output is flushed and gets its header sizes.
+     */
+    private static AudioMixer openAudio() {
+        AudioMixer mixer =
+                new AudioMixer(SoundBank.load(), AudioOutput.open(AUDIO_OUTPUT, AudioMixer.DEFAULT_BUFFER_FRAMES));
+        Runtime.getRuntime().addShutdownHook(new Thread(mixer::close, "tekki-audio-close"));
+        return mixer;
     }
 
-    private void drawGameOver(Graphics2D g2d) {
-        g2d.setColor(new Color(80, 20, 30));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 64));
-        if (koOverlayTimer > 0f) {
-            drawKOOverlay(g2d);
-        }
-        drawCenteredText(g2d, "YOU LOSE", Color.WHITE);
-        g2d.setFont(new Font("SansSerif", Font.PLAIN, 24));
-        drawCenteredTextOffset(g2d, "Final Score: " + score, Color.LIGHT_GRAY, 40);
-        drawCenteredTextOffset(g2d, "Press ENTER to return to menu", Color.WHITE, 80);
+    /**
+     * Analytics log from the tekki.log.* properties; closed by a shutdown hook so the index lists every segment.
+     */
+    private static MatchLog openMatchLog() {
+        MatchLog log = MatchLog.open(new File(LOG_DIR), Integer.getInteger("tekki.log.segmentRows", 1 << 16), TARGET_FPS);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "tekki-log-close"));
+        return log;
     }
 
-    private void drawVictory(Graphics2D g2d) {
-        g2d.setColor(new Color(20, 80, 60));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 64));
-        if (koOverlayTimer > 0f) {
-            drawKOOverlay(g2d);
-        }
-        drawCenteredText(g2d, "YOU WIN", Color.WHITE);
-        g2d.setFont(new Font("SansSerif", Font.PLAIN, 24));
-        drawCenteredTextOffset(g2d, "Final Score: " + score, Color.LIGHT_GRAY, 40);
-        drawCenteredTextOffset(g2d, "Press ENTER to return to menu", Color.WHITE, 80);
+    /**
+     * High score store; closed by a shutdown hook, which writes the compacted snapshot. Null when the folder
+     * cannot be used, so a read-only home or a damaged snapshot costs the high scores, not the game.
+     */
+    private static Leaderboard openLeaderboard(int levelCount) {
+        Leaderboard board;
+        try {
+            board = Leaderboard.open(new File(LEADERBOARD_DIR), levelCount,
+                    Integer.getInteger("tekki.leaderboard.compactEvery", 1_000));
+        } catch (RuntimeException e) {
+            System.err.println("Leaderboard off: " + e.getMessage());
+            return null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(board::close, "tekki-leaderboard-close"));
+        return board;
     }
 
-    private void drawKOOverlay(Graphics2D g2d) {
-        float t = Math.min(1f, koOverlayTimer / KO_OVERLAY_DURATION);
-        int size = (int) (120 + 60 * t);
-        g2d.setFont(new Font("SansSerif", Font.BOLD, size));
-        drawCenteredText(g2d, "KO", new Color(255, 180, 80));
+    private static BotBridge openBotBridge() {
+        File file = new File(System.getProperty("tekki.bot.file", "tekki-bot.mmap"));
+        WaitStrategy wait = WaitStrategy.valueOf(System.getProperty("tekki.bot.wait", "yield").toUpperCase(Locale.ROOT));
+        long deadlineNanos = Long.getLong("tekki.bot.deadlineMicros", 2_000L) * 1_000L;
+        return BotBridge.open(file, 64, wait, deadlineNanos, 1f / TARGET_FPS);
     }
 
-    private void drawCenteredText(Graphics2D g2d, String text, Color color) {
-        int textWidth = g2d.getFontMetrics().stringWidth(text);
-        int x = (getWidth() - textWidth) / 2;
-        int y = getHeight() / 2;
-        g2d.setColor(color);
-        g2d.drawString(text, x, y);
+    /**
+     * Input from the player bot for the coming tick; the keyboard takes over while the bot misses deadlines.
+     */
+    private InputFrame botInput(InputFrame keyboard) {
+        int action = botBridge.exchange(match.getTick() + 1, player, enemy);
+        if (action == BotBridge.NO_ACTION) {
+            return keyboard;
+        }
+        int pressed = action & ~botHeld;
+        int released = botHeld & ~action;
+        botHeld = action;
+        return new InputFrame(keyboard.getTick(), action, pressed, released, keyboard.getSampleNanos());
     }
 
-    private void drawCenteredTextAt(Graphics2D g2d, String text, Color color, int y) {
-        int textWidth = g2d.getFontMetrics().stringWidth(text);
-        int x = (getWidth() - textWidth) / 2;
-        g2d.setColor(color);
-        g2d.drawString(text, x, y);
+    /**
+     * Mixer cue for a combat event; only queues the cue, the mixer thread does the work.
+     */
+    private void playCombatSound(CombatEvent event, long sequence) {
+        SoundCue cue = SoundCue.forEvent(event.getType());
+        if (cue != null) {
+            audio.play(cue);
+        }
     }
 
-    private void drawCenteredTextOffset(Graphics2D g2d, String text, Color color, int yOffset) {
-        int textWidth = g2d.getFontMetrics().stringWidth(text);
-        int x = (getWidth() - textWidth) / 2;
-        int y = (getHeight() / 2) + yOffset;
-        g2d.setColor(color);
-        g2d.drawString(text, x, y);
+    /**
+     * Score and the KO transitions, driven by the match's combat events.
+     */
+    private void onCombatEvent(CombatEvent event, long sequence) {
+        switch (event.getType()) {
+            case HIT, CRIT, BLOCK -> {
+                if (event.isByPlayer()) {
+                    score += event.getDamage();
+                }
+            }
+            case KO -> {
+                if (gameState != GameState.FIGHT) {
+                    return;
+                }
+                koOverlayTimer = KO_OVERLAY_DURATION;
+                if (!event.isByPlayer()) {
+                    endRun(GameState.GAME_OVER);
+                }
+            }
+            case LEVEL_CLEAR -> {
+                if (gameState != GameState.FIGHT) {
+                    return;
+                }
+                stageScores[currentLevelIndex] = score - stageStartScore;
+                if (currentLevelIndex + 1 < levels.size()) {
+                    gameState = GameState.LEVEL_TRANSITION;
+                    levelTransitionTimer = 2.0f;
+                } else {
+                    endRun(GameState.VICTORY);
+                }
+            }
+        }
     }
 
-    private void drawDashIndicator(Graphics2D g2d, int x, int y, int width, int height) {
-        if (player == null) {
-            return;
+    /**
+     * Show the end screen and hand the run to the leaderboard, which writes it in the background.
+     */
+    private void endRun(GameState endState) {
+        gameState = endState;
+        if (leaderboard != null) {
+            int cleared = endState == GameState.VICTORY ? levels.size() : currentLevelIndex;
+            leaderboard.submit(new RunResult(PROFILE, System.currentTimeMillis(), score,
+                    Arrays.copyOf(stageScores, cleared), endState == GameState.VICTORY));
         }
-        g2d.setColor(Color.DARK_GRAY);
-        g2d.fillRect(x, y, width, height);
-        if (player.getDashCooldown() > 0f) {
-            float remaining = Math.max(0f, player.getDashCooldownTimer());
-            float ratio = 1f - Math.min(1f, remaining / player.getDashCooldown());
-            int fill = (int) (width * ratio);
-            g2d.setColor(player.isDashReady() ? new Color(100, 220, 255) : new Color(120, 120, 120));
-            g2d.fillRect(x, y, fill, height);
-        }
-        g2d.setColor(Color.WHITE);
-        String label = player.isDashReady() ? "Dash: READY" : "Dash: COOLDOWN";
-        g2d.drawString(label, x, y + height + 14);
     }
 
     private void initLevels() {
         levels.clear();
-        levels.add(new Level("Dojo", new Color(50, 70, 90), new Color(90, 70, 50), 1.0f, 1.0f, false, 10, "enemy1"));
-        levels.add(new Level("Rooftop", new Color(40, 40, 90), new Color(80, 80, 90), 2.0f, 2.2f, true, 20, "enemy2"));
+        levels.addAll(Campaign.levels());
     }
 
     private void startLevel(int levelIndex) {
         currentLevelIndex = levelIndex;
         currentLevel = levels.get(currentLevelIndex);
-        CharacterProfile playerProfile = new CharacterProfile("Player 1", new Color(70, 140, 255), null);
-        CharacterProfile enemyProfile = currentLevelIndex == 0
-                ? new CharacterProfile("CPU Dojo", new Color(210, 100, 190), null)
-                : new CharacterProfile("CPU Rooftop", new Color(240, 120, 80), null);
-        float floorTopY = PANEL_HEIGHT - FLOOR_HEIGHT;
-
-        player = new PlayerFighter(120f, 0f, playerProfile);
-        player.setGroundFromFloorTop(floorTopY);
-        player.snapToGround();
-
-        enemy = new EnemyFighter(PANEL_WIDTH - 220f, 0f, currentLevel.getEnemySpeedMultiplier(),
-                currentLevel.getEnemyAggression(), currentLevel.isEnemyDashesMore(), enemyProfile,
-                currentLevel.getEnemySpriteFolder());
-        enemy.setGroundFromFloorTop(floorTopY);
-        enemy.snapToGround();
-        leftPressed = false;
-        rightPressed = false;
-        attackPressed = false;
-        defendPressed = false;
-        jumpPressed = false;
+        long matchSeed = System.nanoTime();
+        long enemySeed = matchSeed * 0x9E3779B97F4A7C15L;
+
+        closeLookaheadAi();
+        match = Campaign.newMatch(currentLevel, currentLevelIndex, PHYSICS_MODE, matchSeed, enemySeed);
+        player = match.getPlayer();
+        enemy = match.getEnemy();
+        match.setEventBus(combatEvents);
+        if (AI_MODE == AiMode.LOOKAHEAD) {
+            lookaheadAi = new LookaheadAi(match, 1f / TARGET_FPS, System.nanoTime());
+            enemy.setBrain(lookaheadAi);
+        } else if (AI_MODE == AiMode.POLICY) {
+            enemy.setBrain(PolicyTable.getDefault().brain(enemy.getAggression()));
+        }
+        if (botRole == BotBridge.Role.ENEMY) {
+            enemy.setBrain(new BotBrain(botBridge, match));
+        }
+        effects.setFighters(player, enemy);
+        camera.reset(currentLevel.getStageWidth(), player, enemy);
+        stageStartScore = score;
+        if (history != null) {
+            history.clear();
+        }
+        if (matchLog != null) {
+            matchLog.beginStage(currentLevelIndex, currentLevel.getStageWidth());
+        }
+        replay = AI_MODE != AiMode.LOOKAHEAD && botRole != BotBridge.Role.ENEMY && REPLAY_DIR != null
+                ? new Replay(currentLevelIndex, PHYSICS_MODE, AI_MODE, matchSeed, enemySeed, TARGET_FPS)
+                : null;
+        botHeld = 0;
+        particles.clear();
         showingStageIntro = true;
         stageIntroTimer = STAGE_INTRO_DURATION;
+        audio.play(SoundCue.STAGE_INTRO);
+    }
+
+    private void saveReplay() {
+        if (replay == null) {
+            return;
+        }
+        String name = String.format(Locale.ROOT, "%tY%<tm%<td-%<tH%<tM%<tS-stage%d.tkrp",
+                System.currentTimeMillis(), currentLevelIndex + 1);
+        replay.save(new File(REPLAY_DIR, name));
+        replay = null;
+    }
+
+    private void closeLookaheadAi() {
+        if (lookaheadAi != null) {
+            lookaheadAi.close();
+            lookaheadAi = null;
+        }
     }
 
     private void resetToMenu() {
         gameState = GameState.MENU;
         score = 0;
+        closeLookaheadAi();
         player = null;
         enemy = null;
-        leftPressed = false;
-        rightPressed = false;
-        attackPressed = false;
-        defendPressed = false;
-        jumpPressed = false;
+        match = null;
+        replay = null;
         currentLevelIndex = 0;
         currentLevel = levels.get(0);
         levelTransitionTimer = 0f;
         stageIntroTimer = 0f;
         showingStageIntro = false;
-        hitFlashTimer = 0f;
+        particles.clear();
         koOverlayTimer = 0f;
+        if (history != null) {
+            history.clear();
+        }
     }
 
     @Override
@@ -507,64 +593,31 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
 
     @Override
     public void keyPressed(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-            if (gameState == GameState.MENU) {
-                score = 0;
-                currentLevelIndex = 0;
-                currentLevel = levels.get(0);
-                player = null;
-                enemy = null;
-                levelTransitionTimer = 0f;
-                gameState = GameState.FIGHT;
-            } else if (gameState == GameState.GAME_OVER || gameState == GameState.VICTORY) {
-                resetToMenu();
-            } else if (gameState == GameState.LEVEL_TRANSITION) {
-                levelTransitionTimer = 0f;
-            }
-        }
-
-        if (gameState != GameState.FIGHT) {
-            return;
-        }
-
-        if (e.getKeyCode() == KeyEvent.VK_A || e.getKeyCode() == KeyEvent.VK_LEFT) {
-            leftPressed = true;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_D || e.getKeyCode() == KeyEvent.VK_RIGHT) {
-            rightPressed = true;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_J) {
-            attackPressed = true;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_K) {
-            defendPressed = true;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_W || e.getKeyCode() == KeyEvent.VK_UP) {
-            jumpPressed = true;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_SHIFT) {
-            if (player != null) {
-                player.startDash();
-            }
-        }
+        inputSampler.keyEvent(e.getKeyCode(), true);
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        if (gameState != GameState.FIGHT) {
-            return;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_A || e.getKeyCode() == KeyEvent.VK_LEFT) {
-            leftPressed = false;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_D || e.getKeyCode() == KeyEvent.VK_RIGHT) {
-            rightPressed = false;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_K) {
-            defendPressed = false;
-        }
-        if (e.getKeyCode() == KeyEvent.VK_W || e.getKeyCode() == KeyEvent.VK_UP) {
-            jumpPressed = false;
+        inputSampler.keyEvent(e.getKeyCode(), false);
+    }
+
+    /**
+     * ENTER starts a run from the menu, returns to it from the end screens and skips the stage transition.
+     */
+    private void handleStartPressed() {
+        if (gameState == GameState.MENU) {
+            score = 0;
+            currentLevelIndex = 0;
+            currentLevel = levels.get(0);
+            player = null;
+            enemy = null;
+            match = null;
+            levelTransitionTimer = 0f;
+            gameState = GameState.FIGHT;
+        } else if (gameState == GameState.GAME_OVER || gameState == GameState.VICTORY) {
+            resetToMenu();
+        } else if (gameState == GameState.LEVEL_TRANSITION) {
+            levelTransitionTimer = 0f;
         }
     }
 }
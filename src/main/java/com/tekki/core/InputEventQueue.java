@@ -0,0 +1,79 @@
+package com.tekki.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer lock-free ring buffer of raw key events.
+ * <p>
+ * The EDT publishes {@code (keyCode, pressed, nanoTime)} from the key listener; the simulation drains
+ * it once per tick. Slots are plain arrays written before the tail is released, so every event is
+ * safely published to the consumer thread without locks or allocation.
+ */
+public final class InputEventQueue {
+
+    private final int mask;
+    private final int[] keyCodes;
+    private final boolean[] pressed;
+    private final long[] timestamps;
+
+    /** Next slot the producer writes; only advanced by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Next slot the consumer reads; only advanced by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    /**
+     * @param capacity number of buffered events, rounded up to a power of two
+     */
+    public InputEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.keyCodes = new int[size];
+        this.pressed = new boolean[size];
+        this.timestamps = new long[size];
+    }
+
+    /**
+     * Producer side. Returns false (and counts an overflow) only if the consumer fell a full ring behind.
+     */
+    public boolean offer(int keyCode, boolean isPressed, long nanoTime) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() > mask) {
+            overflowCount.incrementAndGet();
+            return false;
+        }
+        int slot = (int) currentTail & mask;
+        keyCodes[slot] = keyCode;
+        pressed[slot] = isPressed;
+        timestamps[slot] = nanoTime;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side: hand every pending event to the sink in arrival order.
+     *
+     * @return number of events drained
+     */
+    public int drain(EventSink sink) {
+        long currentHead = head.get();
+        long available = tail.get();
+        for (long sequence = currentHead; sequence < available; sequence++) {
+            int slot = (int) sequence & mask;
+            sink.onEvent(keyCodes[slot], pressed[slot], timestamps[slot]);
+        }
+        head.lazySet(available);
+        return (int) (available - currentHead);
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * Receives drained events without boxing.
+     */
+    public interface EventSink {
+        void onEvent(int keyCode, boolean pressed, long nanoTime);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tekki.core;
+
+/**
+ * Snapshot of the logical buttons for one simulation tick.
+ * <p>
+ * {@code held} is the state at the tick boundary; {@code pressed}/{@code released} record every edge since
+ * the previous tick, so a tap that starts and ends between two ticks still shows up as pressed. Frames are
+ * not changed once handed out, except by an owner that refills its own frame with {@link #set} every tick
+ * because nothing it is passed to keeps it.
+ */
+public final class InputFrame {
+
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    public static final int ATTACK = 1 << 4;
+    public static final int DEFEND = 1 << 5;
+    public static final int DASH = 1 << 6;
+    public static final int START = 1 << 7;
+    public static final int DEBUG_OVERLAY = 1 << 8;
+    /** Time-travel debugger controls, see {@link SnapshotHistory}. */
+    public static final int DEBUG_PAUSE = 1 << 9;
+    public static final int DEBUG_STEP_BACK = 1 << 10;
+    public static final int DEBUG_STEP_FORWARD = 1 << 11;
+    public static final int DEBUG_SCRUB_BACK = 1 << 12;
+    public static final int DEBUG_SCRUB_FORWARD = 1 << 13;
+
+    public static final InputFrame EMPTY = new InputFrame(0L, 0, 0, 0, 0L);
+
+    private long tick;
+    private int held;
+    private int pressed;
+    private int released;
+    private long sampleNanos;
+
+    public InputFrame(long tick, int held, int pressed, int released, long sampleNanos) {
+        set(tick, held, pressed, released, sampleNanos);
+    }
+
+    /**
+     * Refill this frame for another tick instead of allocating one.
+     */
+    void set(long tick, int held, int pressed, int released, long sampleNanos) {
+        this.tick = tick;
+        this.held = held;
+        this.pressed = pressed;
+        this.released = released;
+        this.sampleNanos = sampleNanos;
+    }
+
+    public boolean isHeld(int button) {
+        return (held & button) != 0;
+    }
+
+    public boolean wasPressed(int button) {
+        return (pressed & button) != 0;
+    }
+
+    public boolean wasReleased(int button) {
+        return (released & button) != 0;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getHeld() {
+        return held;
+    }
+
+    public int getPressed() {
+        return pressed;
+    }
+
+    public int getReleased() {
+        return released;
+    }
+
+    public long getSampleNanos() {
+        return sampleNanos;
+    }
+}
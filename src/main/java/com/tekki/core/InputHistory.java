@@ -0,0 +1,89 @@
+package com.tekki.core;
+
+/**
+ * Fixed-size ring of the last {@link #CAPACITY} ticks of input, packed one int per tick.
+ * <p>
+ * Each entry holds the absolute numpad direction (1-9, 5 = neutral, 6 = right) in the low nibble and
+ * the buttons pressed on that tick above it. Recording and lookups never allocate.
+ */
+public final class InputHistory {
+
+    public static final int CAPACITY = 64;
+
+    private static final int MASK = CAPACITY - 1;
+    private static final int DIRECTION_MASK = 0xF;
+    private static final int BUTTON_SHIFT = 4;
+    private static final int BUTTONS = InputFrame.ATTACK | InputFrame.DEFEND | InputFrame.DASH;
+
+    private final int[] entries = new int[CAPACITY];
+    private long recorded;
+
+    /**
+     * Append the input of the current tick.
+     */
+    public void record(InputFrame input) {
+        int entry = directionOf(input.getHeld()) | ((input.getPressed() & BUTTONS) << BUTTON_SHIFT);
+        entries[(int) recorded & MASK] = entry;
+        recorded++;
+    }
+
+    /**
+     * Number of ticks that can be looked back on, at most {@link #CAPACITY}.
+     */
+    public int size() {
+        return (int) Math.min(recorded, CAPACITY);
+    }
+
+    /**
+     * Absolute numpad direction held {@code ticksAgo} ticks ago (0 = current tick).
+     */
+    public int direction(int ticksAgo) {
+        return entry(ticksAgo) & DIRECTION_MASK;
+    }
+
+    /**
+     * Buttons (as {@link InputFrame} bits) pressed {@code ticksAgo} ticks ago.
+     */
+    public int pressedButtons(int ticksAgo) {
+        return entry(ticksAgo) >>> BUTTON_SHIFT;
+    }
+
+    public void clear() {
+        recorded = 0;
+    }
+
+    public void copyFrom(InputHistory other) {
+        System.arraycopy(other.entries, 0, entries, 0, CAPACITY);
+        recorded = other.recorded;
+    }
+
+    void syncState(StateBuffer buffer) {
+        buffer.sync(entries);
+        recorded = buffer.sync(recorded);
+    }
+
+    private int entry(int ticksAgo) {
+        return entries[(int) (recorded - 1 - ticksAgo) & MASK];
+    }
+
+    /**
+     * Numpad direction for held buttons: 8 up, 2 down, 4 left, 6 right, 5 neutral.
+     */
+    public static int directionOf(int held) {
+        int horizontal = 0;
+        if ((held & InputFrame.RIGHT) != 0) {
+            horizontal++;
+        }
+        if ((held & InputFrame.LEFT) != 0) {
+            horizontal--;
+        }
+        int vertical = 0;
+        if ((held & InputFrame.UP) != 0) {
+            vertical++;
+        }
+        if ((held & InputFrame.DOWN) != 0) {
+            vertical--;
+        }
+        return 5 + horizontal + 3 * vertical;
+    }
+}
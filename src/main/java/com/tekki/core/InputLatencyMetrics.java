@@ -0,0 +1,77 @@
+package com.tekki.core;
+
+import java.util.Arrays;
+
+/**
+ * Input-to-tick latency statistics: time from a key event to the tick that sampled it.
+ * Recorded by the simulation thread; the getters may be read from any thread for display.
+ */
+public final class InputLatencyMetrics {
+
+    /** Histogram buckets are powers of two in microseconds: [0,1), [1,2), [2,4), ... */
+    private static final int BUCKETS = 24;
+
+    private final long[] histogram = new long[BUCKETS];
+    private volatile long count;
+    private volatile long totalNanos;
+    private volatile long maxNanos;
+    private volatile long lastNanos;
+
+    void record(long latencyNanos) {
+        long latency = Math.max(0L, latencyNanos);
+        long micros = latency / 1_000L;
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        histogram[bucket]++;
+        totalNanos += latency;
+        maxNanos = Math.max(maxNanos, latency);
+        lastNanos = latency;
+        count++;
+    }
+
+    public long getEventCount() {
+        return count;
+    }
+
+    public double getAverageMillis() {
+        long events = count;
+        return events == 0 ? 0.0 : totalNanos / (double) events / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    public double getLastMillis() {
+        return lastNanos / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound of the histogram bucket holding the given percentile, in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+        long events = count;
+        if (events == 0) {
+            return 0.0;
+        }
+        long target = (long) Math.ceil(events * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= target) {
+                return (1L << bucket) / 1_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Clear all statistics; call from the simulation thread.
+     */
+    public void reset() {
+        Arrays.fill(histogram, 0L);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        lastNanos = 0;
+    }
+}
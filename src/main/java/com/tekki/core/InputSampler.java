@@ -0,0 +1,100 @@
+package com.tekki.core;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Turns raw key events into per-tick {@link InputFrame}s.
+ * <p>
+ * Key listeners call {@link #keyEvent} on the EDT; the simulation calls {@link #sample} exactly once per
+ * tick on its own thread. Nothing is shared between the two except the lock-free {@link InputEventQueue}.
+ */
+public final class InputSampler implements InputEventQueue.EventSink {
+
+    private final InputEventQueue queue = new InputEventQueue(1024);
+    private final InputLatencyMetrics metrics = new InputLatencyMetrics();
+
+    // Consumer-side state, only touched inside sample().
+    private int held;
+    private int pressedSinceLastTick;
+    private int releasedSinceLastTick;
+    private long sampleNanos;
+
+    /**
+     * Producer side, called from the key listener.
+     */
+    public void keyEvent(int keyCode, boolean pressed) {
+        if (buttonFor(keyCode) != 0) {
+            queue.offer(keyCode, pressed, System.nanoTime());
+        }
+    }
+
+    /**
+     * Drain all events since the previous tick into an immutable frame.
+     */
+    public InputFrame sample(long tick) {
+        sampleNanos = System.nanoTime();
+        pressedSinceLastTick = 0;
+        releasedSinceLastTick = 0;
+        queue.drain(this);
+        return new InputFrame(tick, held, pressedSinceLastTick, releasedSinceLastTick, sampleNanos);
+    }
+
+    /**
+     * Forget held buttons, e.g. when focus is lost and release events will never arrive.
+     */
+    public void clearHeld() {
+        queue.offer(KeyEvent.VK_UNDEFINED, false, System.nanoTime());
+    }
+
+    @Override
+    public void onEvent(int keyCode, boolean pressed, long nanoTime) {
+        if (keyCode == KeyEvent.VK_UNDEFINED) {
+            releasedSinceLastTick |= held;
+            held = 0;
+            return;
+        }
+        int button = buttonFor(keyCode);
+        if (pressed) {
+            // Ignore OS key repeat: only a transition from up to down counts as a press.
+            if ((held & button) == 0) {
+                pressedSinceLastTick |= button;
+                metrics.record(sampleNanos - nanoTime);
+            }
+            held |= button;
+        } else {
+            held &= ~button;
+            releasedSinceLastTick |= button;
+        }
+    }
+
+    public InputLatencyMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getDroppedEventCount() {
+        return queue.getOverflowCount();
+    }
+
+    /**
+     * Key bindings: logical button bit for a key code, or 0 when the key is unbound.
+     */
+    static int buttonFor(int keyCode) {
+        return switch (keyCode) {
+            case KeyEvent.VK_A, KeyEvent.VK_LEFT -> InputFrame.LEFT;
+            case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> InputFrame.RIGHT;
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> InputFrame.UP;
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> InputFrame.DOWN;
+            case KeyEvent.VK_J -> InputFrame.ATTACK;
+            case KeyEvent.VK_K -> InputFrame.DEFEND;
+            case KeyEvent.VK_SHIFT -> InputFrame.DASH;
+            case KeyEvent.VK_ENTER -> InputFrame.START;
+            case KeyEvent.VK_F3 -> InputFrame.DEBUG_OVERLAY;
+            case KeyEvent.VK_F9 -> InputFrame.DEBUG_PAUSE;
+            case KeyEvent.VK_F7 -> InputFrame.DEBUG_STEP_BACK;
+            case KeyEvent.VK_F8 -> InputFrame.DEBUG_STEP_FORWARD;
+            case KeyEvent.VK_PAGE_UP -> InputFrame.DEBUG_SCRUB_BACK;
+            case KeyEvent.VK_PAGE_DOWN -> InputFrame.DEBUG_SCRUB_FORWARD;
+            default -> 0;
+        };
+    }
+}
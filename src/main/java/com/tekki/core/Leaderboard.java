@@ -0,0 +1,461 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * High scores and player profiles that survive restarts and crashes.
+ * <p>
+ * Finished runs are handed over with {@link #submit}, which only queues them. A background writer appends
+ * each batch to {@code leaderboard.log} and makes it durable with a single {@code force()}, then updates the
+ * {@link LeaderboardIndex} and publishes fresh {@link Standings} for the painter. Every
+ * {@code compactEvery} runs, and on close, the index is written to {@code leaderboard.snap} and the log
+ * starts over, so startup reads a small snapshot plus a short log.
+ * <p>
+ * Log layout: {@code int magic "TKLL", int version, long generation}, then per run
+ * {@code int length, int CRC32, length bytes of} {@link RunResult#write}. Recovery replays the log up to the
+ * first torn or corrupt record and cuts it off there. Snapshot and log are both replaced by atomic renames;
+ * a log whose generation is older than the snapshot's was already compacted into it and is ignored. A log
+ * with an unknown header is renamed to {@code leaderboard.log.bad-<millis>} and a new one started.
+ */
+public final class Leaderboard implements AutoCloseable {
+
+    /** Runs kept per ranking. */
+    public static final int TOP = 10;
+    /** Latest runs kept for the run history. */
+    public static final int RECENT = 20;
+
+    static final int LOG_MAGIC = 0x544B4C4C; // "TKLL"
+    static final int LOG_VERSION = 1;
+    private static final int LOG_HEADER_BYTES = 16;
+    private static final String LOG_FILE = "leaderboard.log";
+    private static final String SNAPSHOT_FILE = "leaderboard.snap";
+    /** {@link #replayLog} result for a log with an unknown header. */
+    private static final long FOREIGN_LOG = -2L;
+
+    private final File directory;
+    private final int levels;
+    private final int compactEvery;
+    private final BlockingQueue<RunResult> pending = new ArrayBlockingQueue<>(1024);
+    private final Thread writer;
+    private final long recoveredRuns;
+    private final double recoveryMillis;
+
+    // Writer-thread state.
+    private final LeaderboardIndex index;
+    private FileChannel log;
+    private long generation;
+    private int logRuns;
+    private ByteBuffer batchBuffer = ByteBuffer.allocate(64 * 1024);
+
+    private volatile Standings standings;
+    private volatile boolean closing;
+    private volatile long writtenRuns;
+    private volatile long forceCount;
+    private long droppedRuns;
+
+    private Leaderboard(File directory, int levels, int compactEvery) throws IOException {
+        this.directory = directory;
+        this.levels = levels;
+        this.compactEvery = compactEvery;
+        long start = System.nanoTime();
+
+        File snapshot = new File(directory, SNAPSHOT_FILE);
+        long[] snapshotGeneration = {0L};
+        index = snapshot.isFile()
+                ? LeaderboardIndex.fromSnapshot(Files.readAllBytes(snapshot.toPath()), levels, snapshotGeneration)
+                : new LeaderboardIndex(levels);
+        generation = snapshotGeneration[0];
+        File logFile = new File(directory, LOG_FILE);
+        long logged = replayLog(logFile);
+        if (logged == FOREIGN_LOG) {
+            moveAside(logFile);
+        }
+        if (logged < 0) {
+            replaceLog();
+        } else {
+            log = FileChannel.open(new File(directory, LOG_FILE).toPath(), StandardOpenOption.WRITE);
+            log.position(log.size());
+            logRuns = (int) logged;
+        }
+        recoveredRuns = index.getRuns();
+        recoveryMillis = (System.nanoTime() - start) / 1e6;
+        standings = index.standings();
+
+        writer = new Thread(this::runWriter, "tekki-leaderboard");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Recover the leaderboard in {@code directory}, creating the folder if needed.
+     *
+     * @param levels       levels in the campaign
+     * @param compactEvery runs between snapshots
+     */
+    public static Leaderboard open(File directory, int levels, int compactEvery) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create leaderboard folder: " + directory.getAbsolutePath());
+        }
+        try {
+            return new Leaderboard(directory, levels, compactEvery);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open leaderboard: " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Queue a finished run for the writer. Never blocks.
+     *
+     * @return false if the writer has fallen a full queue behind and the run was dropped
+     */
+    public boolean submit(RunResult result) {
+        if (closing || !pending.offer(result)) {
+            droppedRuns++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The rankings as of the last batch the writer finished.
+     */
+    public Standings getStandings() {
+        return standings;
+    }
+
+    public long getRecoveredRuns() {
+        return recoveredRuns;
+    }
+
+    public double getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public long getWrittenRuns() {
+        return writtenRuns;
+    }
+
+    /**
+     * Durable writes so far; several queued runs share one.
+     */
+    public long getForceCount() {
+        return forceCount;
+    }
+
+    public long getDroppedRuns() {
+        return droppedRuns;
+    }
+
+    /**
+     * Write everything queued, compact and stop the writer.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Apply the log's records to the index.
+     *
+     * @return runs replayed, -1 when there is no current log to append to, or {@link #FOREIGN_LOG}
+     */
+    private long replayLog(File file) throws IOException {
+        if (!file.isFile()) {
+            return -1L;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < LOG_HEADER_BYTES) {
+                return -1L;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != LOG_MAGIC || buffer.getInt() != LOG_VERSION) {
+                return FOREIGN_LOG;
+            }
+            long logGeneration = buffer.getLong();
+            if (logGeneration < generation) {
+                return -1L;
+            }
+            generation = logGeneration;
+            CRC32 crc = new CRC32();
+            int maxLength = RunResult.maxEncodedBytes(255);
+            long replayed = 0L;
+            while (buffer.remaining() >= 8) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > maxLength || length > buffer.remaining()) {
+                    buffer.position(start);
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.slice(buffer.position(), length));
+                if ((int) crc.getValue() != checksum) {
+                    buffer.position(start);
+                    break;
+                }
+                int end = buffer.position() + length;
+                index.add(RunResult.read(buffer));
+                buffer.position(end);
+                replayed++;
+            }
+            if (buffer.position() < size) {
+                // A torn write from a crash; everything before it is intact.
+                channel.truncate(buffer.position());
+                channel.force(true);
+            }
+            return replayed;
+        }
+    }
+
+    /**
+     * Keep an unreadable log for inspection instead of refusing to start or overwriting it.
+     */
+    private static void moveAside(File file) throws IOException {
+        File aside = new File(file.getPath() + ".bad-" + System.currentTimeMillis());
+        Files.move(file.toPath(), aside.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        System.err.println("Not a version " + LOG_VERSION + " leaderboard log, moved to " + aside.getAbsolutePath());
+    }
+
+    private void runWriter() {
+        List<RunResult> batch = new ArrayList<>();
+        while (true) {
+            RunResult first;
+            try {
+                first = pending.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                if (closing) {
+                    break;
+                }
+                continue;
+            }
+            batch.add(first);
+            pending.drainTo(batch);
+            append(batch);
+            for (RunResult result : batch) {
+                index.add(result);
+            }
+            standings = index.standings();
+            batch.clear();
+            if (logRuns >= compactEvery) {
+                compact();
+            }
+        }
+        if (logRuns > 0) {
+            compact();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close leaderboard log", e);
+        }
+    }
+
+    private void append(List<RunResult> batch) {
+        int needed = batch.size() * (8 + RunResult.maxEncodedBytes(levels));
+        if (batchBuffer.capacity() < needed) {
+            batchBuffer = ByteBuffer.allocate(needed);
+        }
+        ByteBuffer buffer = batchBuffer.clear();
+        for (RunResult result : batch) {
+            int start = buffer.position();
+            buffer.position(start + 8);
+            result.write(buffer);
+            int length = buffer.position() - start - 8;
+            buffer.putInt(start, length);
+            buffer.putInt(start + 4, crc(buffer.array(), start + 8, length));
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write leaderboard log", e);
+        }
+        forceCount++;
+        logRuns += batch.size();
+        writtenRuns += batch.size();
+    }
+
+    /**
+     * Fold the log into a new snapshot and start the next log generation.
+     */
+    private void compact() {
+        generation++;
+        try {
+            writeAtomically(new File(directory, SNAPSHOT_FILE), ByteBuffer.wrap(index.toSnapshot(generation)));
+            replaceLog();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not compact leaderboard in " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    private void replaceLog() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES);
+        header.putInt(LOG_MAGIC).putInt(LOG_VERSION).putLong(generation).flip();
+        File file = new File(directory, LOG_FILE);
+        writeAtomically(file, header);
+        log = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+        log.position(log.size());
+        logRuns = 0;
+    }
+
+    /**
+     * Write a file next to {@code file}, make it durable and rename it over {@code file}.
+     */
+    private static void writeAtomically(File file, ByteBuffer contents) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Immutable rankings, safe to read from any thread.
+     */
+    public static final class Standings {
+
+        private final List<RunResult> overall;
+        private final List<List<RunResult>> levels;
+        private final List<RunResult> recent;
+        private final Map<String, Profile> profiles;
+        private final long runs;
+
+        Standings(RunResult[] overall, RunResult[][] levels, RunResult[] recent, Map<String, Profile> profiles,
+                  long runs) {
+            this.overall = List.of(overall);
+            List<List<RunResult>> perLevel = new ArrayList<>(levels.length);
+            for (RunResult[] top : levels) {
+                perLevel.add(List.of(top));
+            }
+            this.levels = List.copyOf(perLevel);
+            this.recent = List.of(recent);
+            this.profiles = profiles;
+            this.runs = runs;
+        }
+
+        /**
+         * Best total scores, best first.
+         */
+        public List<RunResult> getOverall() {
+            return overall;
+        }
+
+        /**
+         * Best points earned in the stage of {@code levelIndex}, best first.
+         */
+        public List<RunResult> getTop(int levelIndex) {
+            return levelIndex < levels.size() ? levels.get(levelIndex) : List.of();
+        }
+
+        /**
+         * Latest runs, newest first.
+         */
+        public List<RunResult> getRecent() {
+            return recent;
+        }
+
+        /**
+         * @return the profile, or null if {@code name} never finished a run
+         */
+        public Profile getProfile(String name) {
+            return profiles.get(name);
+        }
+
+        public long getRunCount() {
+            return runs;
+        }
+    }
+
+    /**
+     * A player's run statistics. Immutable.
+     */
+    public static final class Profile {
+
+        private final String name;
+        private final int runs;
+        private final int victories;
+        private final int bestScore;
+        private final long totalScore;
+        private final long lastPlayed;
+
+        Profile(String name, int runs, int victories, int bestScore, long totalScore, long lastPlayed) {
+            this.name = name;
+            this.runs = runs;
+            this.victories = victories;
+            this.bestScore = bestScore;
+            this.totalScore = totalScore;
+            this.lastPlayed = lastPlayed;
+        }
+
+        Profile with(RunResult result) {
+            return new Profile(name, runs + 1, victories + (result.isVictory() ? 1 : 0),
+                    Math.max(bestScore, result.getScore()), totalScore + result.getScore(),
+                    Math.max(lastPlayed, result.getTime()));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getVictories() {
+            return victories;
+        }
+
+        public int getBestScore() {
+            return bestScore;
+        }
+
+        public long getTotalScore() {
+            return totalScore;
+        }
+
+        public long getLastPlayed() {
+            return lastPlayed;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.tekki.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory rankings of the {@link Leaderboard}: the best runs overall and per level, the latest runs and a
+ * profile per player. Owned by one thread; readers get immutable {@link Leaderboard.Standings}.
+ * <p>
+ * Compacts into the snapshot layout:
+ * <pre>
+ * int magic "TKLS", int version, long generation, int levels, long runs,
+ * int count + results (overall), per level int count + results, int count + results (recent, oldest first),
+ * int count + (byte name length, name, int runs, int victories, int best score, long total score, long last played),
+ * int CRC32 of everything before it
+ * </pre>
+ * where results use {@link RunResult#write}'s encoding.
+ */
+final class LeaderboardIndex {
+
+    static final int SNAPSHOT_MAGIC = 0x544B4C53; // "TKLS"
+    static final int SNAPSHOT_VERSION = 1;
+
+    private final int levels;
+    private final RunResult[] overall = new RunResult[Leaderboard.TOP];
+    private int overallCount;
+    private final RunResult[][] levelTop;
+    private final int[] levelCount;
+    private final RunResult[] recent = new RunResult[Leaderboard.RECENT];
+    private long runs;
+    private final Map<String, Leaderboard.Profile> profiles = new HashMap<>();
+
+    LeaderboardIndex(int levels) {
+        this.levels = levels;
+        this.levelTop = new RunResult[levels][Leaderboard.TOP];
+        this.levelCount = new int[levels];
+    }
+
+    void add(RunResult result) {
+        overallCount = insert(overall, overallCount, result, result.getScore(), -1);
+        int cleared = Math.min(levels, result.getStagesCleared());
+        for (int level = 0; level < cleared; level++) {
+            levelCount[level] = insert(levelTop[level], levelCount[level], result, result.getStageScore(level), level);
+        }
+        recent[(int) (runs % Leaderboard.RECENT)] = result;
+        runs++;
+        String name = result.getProfile();
+        Leaderboard.Profile profile = profiles.get(name);
+        profiles.put(name, profile == null
+                ? new Leaderboard.Profile(name, 1, result.isVictory() ? 1 : 0, result.getScore(), result.getScore(),
+                        result.getTime())
+                : profile.with(result));
+    }
+
+    /**
+     * Insert into a list sorted best first; an equal score keeps the earlier run ahead.
+     *
+     * @param level which stage score ranks the list, or -1 for the total
+     * @return the new count
+     */
+    private static int insert(RunResult[] top, int count, RunResult result, int score, int level) {
+        int position = count;
+        while (position > 0 && rankScore(top[position - 1], level) < score) {
+            position--;
+        }
+        if (position == top.length) {
+            return count;
+        }
+        int moved = Math.min(count, top.length - 1) - position;
+        System.arraycopy(top, position, top, position + 1, moved);
+        top[position] = result;
+        return Math.min(count + 1, top.length);
+    }
+
+    private static int rankScore(RunResult result, int level) {
+        return level < 0 ? result.getScore() : result.getStageScore(level);
+    }
+
+    long getRuns() {
+        return runs;
+    }
+
+    Leaderboard.Standings standings() {
+        RunResult[][] tops = new RunResult[levels][];
+        for (int level = 0; level < levels; level++) {
+            tops[level] = copy(levelTop[level], levelCount[level]);
+        }
+        int recentCount = (int) Math.min(runs, Leaderboard.RECENT);
+        RunResult[] latest = new RunResult[recentCount];
+        for (int i = 0; i < recentCount; i++) {
+            latest[i] = recent[(int) ((runs - 1 - i) % Leaderboard.RECENT)];
+        }
+        return new Leaderboard.Standings(copy(overall, overallCount), tops, latest, Map.copyOf(profiles), runs);
+    }
+
+    private static RunResult[] copy(RunResult[] results, int count) {
+        RunResult[] copy = new RunResult[count];
+        System.arraycopy(results, 0, copy, 0, count);
+        return copy;
+    }
+
+    byte[] toSnapshot(long generation) {
+        int resultBytes = RunResult.maxEncodedBytes(levels);
+        int profileBytes = 1 + RunResult.MAX_PROFILE_BYTES + 4 + 4 + 4 + 8 + 8;
+        long size = 64L + (long) resultBytes * (Leaderboard.TOP * (levels + 1) + Leaderboard.RECENT)
+                + 4L * levels + (long) profileBytes * profiles.size();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(generation).putInt(levels).putLong(runs);
+        writeResults(buffer, overall, overallCount);
+        for (int level = 0; level < levels; level++) {
+            writeResults(buffer, levelTop[level], levelCount[level]);
+        }
+        int recentCount = (int) Math.min(runs, Leaderboard.RECENT);
+        buffer.putInt(recentCount);
+        for (long run = runs - recentCount; run < runs; run++) {
+            recent[(int) (run % Leaderboard.RECENT)].write(buffer);
+        }
+        buffer.putInt(profiles.size());
+        for (Leaderboard.Profile profile : profiles.values()) {
+            byte[] name = profile.getName().getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) name.length).put(name);
+            buffer.putInt(profile.getRuns()).putInt(profile.getVictories()).putInt(profile.getBestScore())
+                    .putLong(profile.getTotalScore()).putLong(profile.getLastPlayed());
+        }
+        buffer.putInt(Leaderboard.crc(buffer.array(), 0, buffer.position()));
+        byte[] snapshot = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, snapshot, 0, snapshot.length);
+        return snapshot;
+    }
+
+    private static void writeResults(ByteBuffer buffer, RunResult[] results, int count) {
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            results[i].write(buffer);
+        }
+    }
+
+    /**
+     * Rebuild an index from a snapshot, with room for at least {@code levels} levels.
+     *
+     * @param generation receives the snapshot's log generation
+     */
+    static LeaderboardIndex fromSnapshot(byte[] snapshot, int levels, long[] generation) {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        if (snapshot.length < 28 || buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+            throw new IllegalStateException("Not a version " + SNAPSHOT_VERSION + " leaderboard snapshot");
+        }
+        int stored = ByteBuffer.wrap(snapshot, snapshot.length - 4, 4).getInt();
+        if (stored != Leaderboard.crc(snapshot, 0, snapshot.length - 4)) {
+            throw new IllegalStateException("Leaderboard snapshot is corrupt");
+        }
+        generation[0] = buffer.getLong();
+        int storedLevels = buffer.getInt();
+        LeaderboardIndex index = new LeaderboardIndex(Math.max(levels, storedLevels));
+        index.runs = buffer.getLong();
+        index.overallCount = readResults(buffer, index.overall);
+        for (int level = 0; level < storedLevels; level++) {
+            index.levelCount[level] = readResults(buffer, index.levelTop[level]);
+        }
+        int recentCount = buffer.getInt();
+        for (long run = index.runs - recentCount; run < index.runs; run++) {
+            index.recent[(int) (run % Leaderboard.RECENT)] = RunResult.read(buffer);
+        }
+        int profileCount = buffer.getInt();
+        for (int i = 0; i < profileCount; i++) {
+            byte[] name = new byte[buffer.get() & 0xFF];
+            buffer.get(name);
+            Leaderboard.Profile profile = new Leaderboard.Profile(new String(name, StandardCharsets.UTF_8),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong());
+            index.profiles.put(profile.getName(), profile);
+        }
+        return index;
+    }
+
+    private static int readResults(ByteBuffer buffer, RunResult[] results) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            results[i] = RunResult.read(buffer);
+        }
+        return count;
+    }
+}
@@ -1,12 +1,21 @@
 package com.tekki.core;
 
 import java.awt.Color;
+import java.util.List;
 
 /**
  * Simple data holder for stage visuals and enemy tuning parameters.
  */
 public class Level {
 
+    /** Enemy damage is tuned relative to a basic attack dealing this much. */
+    public static final int BASE_ENEMY_DAMAGE = 10;
+    /**
+     * Widest stage, in world pixels: fixed-point positions hold at most {@link FixedPoint#MAX_WHOLE}, and a step
+     * may carry a fighter a little past the stage edge before it is clamped back.
+     */
+    public static final int MAX_STAGE_WIDTH = 32_000;
+
     private final String name;
     private final Color backgroundColor;
     private final Color floorColor;
@@ -15,8 +24,27 @@ public class Level {
     private final boolean enemyDashesMore;
     private final int enemyDamage;
     private final String enemySpriteFolder;
+    private final int stageWidth;
+    private final List<BackgroundLayer> backgroundLayers;
 
     public Level(String name, Color backgroundColor, Color floorColor, float enemySpeedMultiplier, float enemyAggression, boolean enemyDashesMore, int enemyDamage, String enemySpriteFolder) {
+        this(name, backgroundColor, floorColor, enemySpeedMultiplier, enemyAggression, enemyDashesMore, enemyDamage,
+                enemySpriteFolder, Campaign.ARENA_WIDTH);
+    }
+
+    /**
+     * @param stageWidth width of the walkable stage in world pixels; wider than the screen scrolls
+     */
+    public Level(String name, Color backgroundColor, Color floorColor, float enemySpeedMultiplier, float enemyAggression, boolean enemyDashesMore, int enemyDamage, String enemySpriteFolder, int stageWidth) {
+        this(name, backgroundColor, floorColor, enemySpeedMultiplier, enemyAggression, enemyDashesMore, enemyDamage,
+                enemySpriteFolder, stageWidth, List.of());
+    }
+
+    /**
+     * @param stageWidth       at least the screen width and at most {@link #MAX_STAGE_WIDTH}
+     * @param backgroundLayers parallax layers drawn over the background color, farthest first
+     */
+    public Level(String name, Color backgroundColor, Color floorColor, float enemySpeedMultiplier, float enemyAggression, boolean enemyDashesMore, int enemyDamage, String enemySpriteFolder, int stageWidth, List<BackgroundLayer> backgroundLayers) {
         this.name = name;
         this.backgroundColor = backgroundColor;
         this.floorColor = floorColor;
@@ -25,6 +53,12 @@ public class Level {
         this.enemyDashesMore = enemyDashesMore;
         this.enemyDamage = enemyDamage;
         this.enemySpriteFolder = enemySpriteFolder;
+        if (stageWidth < Campaign.ARENA_WIDTH || stageWidth > MAX_STAGE_WIDTH) {
+            throw new IllegalArgumentException("Stage width must be between " + Campaign.ARENA_WIDTH + " and "
+                    + MAX_STAGE_WIDTH + ": " + stageWidth);
+        }
+        this.stageWidth = stageWidth;
+        this.backgroundLayers = List.copyOf(backgroundLayers);
     }
 
     public String getName() {
@@ -58,4 +92,12 @@ public class Level {
     public String getEnemySpriteFolder() {
         return enemySpriteFolder;
     }
+
+    public int getStageWidth() {
+        return stageWidth;
+    }
+
+    public List<BackgroundLayer> getBackgroundLayers() {
+        return backgroundLayers;
+    }
 }
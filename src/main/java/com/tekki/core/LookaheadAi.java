@@ -0,0 +1,88 @@
+package com.tekki.core;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enemy brain that picks actions by Monte Carlo rollouts of the match on a background thread.
+ * <p>
+ * On a decision tick the simulation thread copies the live match into a preallocated snapshot and wakes
+ * the worker, but only if the worker is idle; otherwise the enemy falls back to its dice rolls for that
+ * decision. The worker evaluates every candidate action round-robin with {@link RolloutSearch} until its
+ * time budget runs out and posts the best one for the enemy's aggression. The simulation thread picks the
+ * result up with {@link #poll} on a later tick, so it never waits for the search.
+ */
+public final class LookaheadAi implements EnemyBrain, AutoCloseable {
+
+    /** Hard search budget per decision; well below a 60 Hz tick so results arrive on the next tick. */
+    private static final long BUDGET_NANOS = 4_000_000L;
+    /** Results computed from a snapshot older than this are dropped. */
+    private static final int MAX_RESULT_AGE_TICKS = 6;
+    private static final long NO_RESULT = -1L;
+
+    private final Match live;
+    private final Match snapshot;
+    private final RolloutSearch search;
+
+    private final AtomicBoolean searching = new AtomicBoolean();
+    private final Semaphore requests = new Semaphore(0);
+    /** Packed {@code snapshotTick << 8 | candidate index}, or {@link #NO_RESULT}. */
+    private final AtomicLong result = new AtomicLong(NO_RESULT);
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public LookaheadAi(Match live, float deltaTime, long seed) {
+        this.live = live;
+        this.snapshot = live.copyWithoutSprites();
+        this.search = new RolloutSearch(live, deltaTime, seed);
+        this.worker = new Thread(this::run, "tekki-lookahead-ai");
+        this.worker.setDaemon(true);
+        this.worker.setPriority(Thread.MIN_PRIORITY);
+        this.worker.start();
+    }
+
+    @Override
+    public AiAction decide(EnemyFighter self, PlayerFighter opponent) {
+        if (!searching.compareAndSet(false, true)) {
+            return null;
+        }
+        snapshot.copyFrom(live);
+        requests.release();
+        return AiAction.HOLD;
+    }
+
+    @Override
+    public AiAction poll(EnemyFighter self, PlayerFighter opponent) {
+        long packed = result.getAndSet(NO_RESULT);
+        if (packed == NO_RESULT || live.getTick() - (packed >>> 8) > MAX_RESULT_AGE_TICKS) {
+            return null;
+        }
+        return RolloutSearch.CANDIDATES[(int) (packed & 0xFF)];
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                requests.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long deadline = System.nanoTime() + BUDGET_NANOS;
+            search.reset();
+            int candidate = 0;
+            while (System.nanoTime() < deadline) {
+                search.rollout(snapshot, candidate);
+                candidate = (candidate + 1) % RolloutSearch.CANDIDATES.length;
+            }
+            result.set(snapshot.getTick() << 8 | search.best(snapshot.getEnemy().getAggression()));
+            searching.set(false);
+        }
+    }
+}
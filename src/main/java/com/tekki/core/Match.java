@@ -0,0 +1,187 @@
+package com.tekki.core;
+
+import java.awt.Rectangle;
+
+/**
+ * Simulation state of one fight: both fighters, the crit dice and the tick counter.
+ * <p>
+ * A match has no rendering or Swing dependencies, so it can be copied into sprite-less snapshots
+ * and stepped ahead without touching the live fight.
+ */
+public final class Match {
+
+    private final PlayerFighter player;
+    private final EnemyFighter enemy;
+    private final float enemyDamageScale;
+    private final DeterministicRandom random;
+    private final MoveTable moves = MoveTable.getDefault();
+    /** Scratch rectangle for the swept hit tests. */
+    private final Rectangle hitbox = new Rectangle();
+    private long tick;
+    private CombatEventBus events;
+
+    public Match(PlayerFighter player, EnemyFighter enemy, float enemyDamageScale, long seed) {
+        this.player = player;
+        this.enemy = enemy;
+        this.enemyDamageScale = enemyDamageScale;
+        this.random = new DeterministicRandom(seed);
+    }
+
+    /**
+     * Sprite-less copy of this match for lookahead simulations.
+     */
+    public Match copyWithoutSprites() {
+        Match copy = new Match(player.copyWithoutSprites(), enemy.copyWithoutSprites(), enemyDamageScale, 0L);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Publish hits, KOs and the level clear to this bus; copies made for lookahead never publish.
+     */
+    public void setEventBus(CombatEventBus events) {
+        this.events = events;
+    }
+
+    /**
+     * Overwrite this match with the state of another one. Does not allocate.
+     */
+    public void copyFrom(Match other) {
+        player.copyStateFrom(other.player);
+        enemy.copyStateFrom(other.enemy);
+        random.copyFrom(other.random);
+        tick = other.tick;
+    }
+
+    /**
+     * Save or load the whole match, sprites' playback included, e.g. for {@link SnapshotHistory}.
+     */
+    void syncState(StateBuffer buffer) {
+        player.syncState(buffer);
+        enemy.syncState(buffer);
+        random.syncState(buffer);
+        tick = buffer.sync(tick);
+    }
+
+    /**
+     * Drive the player fighter from this tick's input frame.
+     */
+    public void applyPlayerInput(InputFrame input) {
+        player.readCommands(input);
+        if (input.wasPressed(InputFrame.DASH)) {
+            player.startDash();
+        }
+
+        if (input.isHeld(InputFrame.DEFEND)) {
+            player.startDefending();
+            player.stopMoving();
+        } else {
+            player.stopDefending();
+            if (player.getState() != FighterState.DASHING) {
+                boolean left = input.isHeld(InputFrame.LEFT);
+                boolean right = input.isHeld(InputFrame.RIGHT);
+                if (left && !right) {
+                    player.moveLeft();
+                } else if (right && !left) {
+                    player.moveRight();
+                } else {
+                    player.stopMoving();
+                }
+
+                if (input.wasPressed(InputFrame.UP)) {
+                    player.jump();
+                }
+            }
+        }
+
+        player.executeBufferedCommand();
+    }
+
+    /**
+     * Advance both fighters and resolve hits. Does nothing once either fighter is KO.
+     */
+    public void step(float deltaTime) {
+        if (isOver()) {
+            return;
+        }
+        tick++;
+        player.update(deltaTime);
+        enemy.updateAI(deltaTime, player);
+        enemy.update(deltaTime);
+        resolveCombat();
+    }
+
+    private void resolveCombat() {
+        SweptCollision.separateBodies(player, enemy);
+
+        Rectangle playerHurtbox = player.getHurtbox();
+        Rectangle enemyHurtbox = enemy.getHurtbox();
+
+        if (player.canHitDuringStep() && SweptCollision.sweptHit(player, enemy, enemyHurtbox, hitbox) >= 0) {
+            int move = player.getStepMove();
+            int damage = moves.getDamage(move);
+            if (player.getState() == FighterState.DASHING) {
+                damage *= 2;
+            }
+            boolean critical = isCriticalHit();
+            if (critical) {
+                damage *= 2;
+            }
+            resolveHit(player, enemy, move, damage, critical);
+        }
+
+        if (enemy.canHitDuringStep() && SweptCollision.sweptHit(enemy, player, playerHurtbox, hitbox) >= 0) {
+            int move = enemy.getStepMove();
+            int enemyDamage = Math.round(moves.getDamage(move) * enemyDamageScale);
+            boolean critical = isCriticalHit();
+            if (critical) {
+                enemyDamage *= 2;
+            }
+            resolveHit(enemy, player, move, enemyDamage, critical);
+        }
+    }
+
+    private void resolveHit(Fighter attacker, Fighter defender, int move, int damage, boolean critical) {
+        boolean blocked = defender.getState() == FighterState.DEFENDING;
+        defender.takeHit(damage, moves.getHitstunSeconds(move), moves.getPushback(move), attacker.getCenterX());
+        attacker.markHit();
+        if (events == null) {
+            return;
+        }
+        boolean byPlayer = attacker == player;
+        float impactX = defender.getCenterX();
+        float impactY = defender.y + defender.height / 2f;
+        CombatEventType type = critical ? CombatEventType.CRIT : blocked ? CombatEventType.BLOCK : CombatEventType.HIT;
+        events.publish(type, tick, byPlayer, damage, move, impactX, impactY);
+        if (defender.isKO()) {
+            events.publish(CombatEventType.KO, tick, byPlayer, damage, move, impactX, impactY);
+            if (byPlayer) {
+                events.publish(CombatEventType.LEVEL_CLEAR, tick, true, 0, -1, impactX, impactY);
+            }
+        }
+    }
+
+    private boolean isCriticalHit() {
+        return random.nextInt(5) == 0;
+    }
+
+    public void reseed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public boolean isOver() {
+        return player.isKO() || enemy.isKO();
+    }
+
+    public PlayerFighter getPlayer() {
+        return player;
+    }
+
+    public EnemyFighter getEnemy() {
+        return enemy;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+}
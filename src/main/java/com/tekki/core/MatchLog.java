@@ -0,0 +1,348 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only analytics log of every fight: one row per simulation tick and one per combat event or stage
+ * start, written into column-oriented {@link MatchLogSegment} files for {@link MatchLogQuery}.
+ * <p>
+ * Writing a row is a handful of stores into a mapped file on the simulation thread. Creating the next segment
+ * and appending the finished one to the index happen on a background thread, so rolling over does not stall
+ * the game either. The index ({@code index.tkmi}, little-endian) is a header {@code int magic "TKMI", int
+ * version} followed by one {@value #INDEX_RECORD_BYTES}-byte record per finished segment:
+ * <pre>
+ * int segment number, int table, long session, int rows, int first stage, int last stage, int level mask
+ * </pre>
+ * Several sessions can log into the same folder; segment numbers continue where the folder left off.
+ */
+public final class MatchLog implements CombatEventHandler, AutoCloseable {
+
+    static final int TICKS = 0;
+    static final int EVENTS = 1;
+    static final String[] TABLE_NAMES = {"ticks", "events"};
+
+    // Columns shared by both tables.
+    static final int STAGE = 0;
+    static final int TICK = 1;
+    static final int LEVEL = 2;
+
+    // Tick table: both fighters after the tick.
+    static final int PLAYER_X = 3;
+    static final int PLAYER_Y = 4;
+    static final int PLAYER_STATE = 5;
+    static final int PLAYER_HEALTH = 6;
+    static final int PLAYER_MOVE = 7;
+    static final int ENEMY_X = 8;
+    static final int ENEMY_Y = 9;
+    static final int ENEMY_STATE = 10;
+    static final int ENEMY_HEALTH = 11;
+    static final int ENEMY_MOVE = 12;
+    static final int[] TICK_WIDTHS = {4, 4, 1, 4, 4, 1, 2, 2, 4, 4, 1, 2, 2};
+
+    // Event table.
+    static final int KIND = 3;
+    static final int BY_PLAYER = 4;
+    static final int DAMAGE = 5;
+    static final int MOVE = 6;
+    static final int EVENT_X = 7;
+    static final int EVENT_Y = 8;
+    static final int[] EVENT_WIDTHS = {4, 4, 1, 1, 1, 2, 2, 4, 4};
+    /**
+     * Event kind of a stage start, whose {@link #EVENT_X} holds the stage width; the other kinds are
+     * {@link CombatEventType} ordinals.
+     */
+    static final int STAGE_START = 100;
+
+    static final String INDEX_FILE = "index.tkmi";
+    static final int INDEX_MAGIC = 0x544B4D49; // "TKMI"
+    static final int INDEX_VERSION = 1;
+    static final int INDEX_RECORD_BYTES = 32;
+
+    private final File directory;
+    private final int segmentRows;
+    private final int tickRate;
+    private final long session;
+    private final ExecutorService background;
+    private final FileChannel index;
+    private final Table ticks;
+    private final Table events;
+    private int nextSegment;
+    private int stage = -1;
+    private int levelIndex;
+    private volatile boolean closed;
+
+    private MatchLog(File directory, int segmentRows, int tickRate, FileChannel index, int nextSegment) {
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+        this.tickRate = tickRate;
+        this.session = System.currentTimeMillis();
+        this.index = index;
+        this.nextSegment = nextSegment;
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tekki-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticks = new Table(TICKS, TICK_WIDTHS);
+        this.events = new Table(EVENTS, EVENT_WIDTHS);
+    }
+
+    /**
+     * Start a new session in {@code directory}, creating it if needed.
+     *
+     * @param segmentRows rows per segment file
+     */
+    public static MatchLog open(File directory, int segmentRows, int tickRate) {
+        if (segmentRows <= 0) {
+            throw new IllegalArgumentException("segmentRows must be positive: " + segmentRows);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create match log folder: " + directory.getAbsolutePath());
+        }
+        int nextSegment = 0;
+        for (File file : segmentFiles(directory)) {
+            nextSegment = Math.max(nextSegment, segmentNumber(file) + 1);
+        }
+        File indexFile = new File(directory, INDEX_FILE);
+        try {
+            FileChannel index = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (index.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(INDEX_MAGIC).putInt(INDEX_VERSION).flip();
+                while (header.hasRemaining()) {
+                    index.write(header);
+                }
+            }
+            return new MatchLog(directory, segmentRows, tickRate, index, nextSegment);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open match log index: " + indexFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Mark the start of a fight on {@code levelIndex}; later rows belong to it.
+     *
+     * @param stageWidth width of the stage in world pixels, for placing positions on it
+     */
+    public void beginStage(int levelIndex, int stageWidth) {
+        if (closed) {
+            return;
+        }
+        stage++;
+        this.levelIndex = levelIndex;
+        MatchLogSegment segment = events.segment();
+        int row = segment.getRows();
+        events.putKey(segment, row, stage, 0L, levelIndex);
+        segment.putByte(KIND, row, STAGE_START);
+        segment.putByte(BY_PLAYER, row, 0);
+        segment.putShort(DAMAGE, row, 0);
+        segment.putShort(MOVE, row, -1);
+        segment.putFloat(EVENT_X, row, stageWidth);
+        segment.putFloat(EVENT_Y, row, 0f);
+        segment.commitRow();
+    }
+
+    /**
+     * Log both fighters as they are after {@code tick}.
+     */
+    public void logTick(long tick, Fighter player, Fighter enemy) {
+        if (closed) {
+            return;
+        }
+        MatchLogSegment segment = ticks.segment();
+        int row = segment.getRows();
+        ticks.putKey(segment, row, stage, tick, levelIndex);
+        segment.putFloat(PLAYER_X, row, player.x);
+        segment.putFloat(PLAYER_Y, row, player.y);
+        segment.putByte(PLAYER_STATE, row, player.getState().ordinal());
+        segment.putShort(PLAYER_HEALTH, row, player.getHealth());
+        segment.putShort(PLAYER_MOVE, row, player.getCurrentMove());
+        segment.putFloat(ENEMY_X, row, enemy.x);
+        segment.putFloat(ENEMY_Y, row, enemy.y);
+        segment.putByte(ENEMY_STATE, row, enemy.getState().ordinal());
+        segment.putShort(ENEMY_HEALTH, row, enemy.getHealth());
+        segment.putShort(ENEMY_MOVE, row, enemy.getCurrentMove());
+        segment.commitRow();
+    }
+
+    @Override
+    public void onEvent(CombatEvent event, long sequence) {
+        if (closed) {
+            return;
+        }
+        MatchLogSegment segment = events.segment();
+        int row = segment.getRows();
+        events.putKey(segment, row, stage, event.getTick(), levelIndex);
+        segment.putByte(KIND, row, event.getType().ordinal());
+        segment.putByte(BY_PLAYER, row, event.isByPlayer() ? 1 : 0);
+        segment.putShort(DAMAGE, row, event.getDamage());
+        segment.putShort(MOVE, row, event.getMove());
+        segment.putFloat(EVENT_X, row, event.getX());
+        segment.putFloat(EVENT_Y, row, event.getY());
+        segment.commitRow();
+    }
+
+    public long getSession() {
+        return session;
+    }
+
+    /**
+     * Finish both tables' segments, write their index records and wait for the background thread. Rows
+     * logged afterwards are ignored.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ticks.finish();
+        events.finish();
+        background.shutdown();
+        try {
+            if (!background.awaitTermination(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Match log did not finish writing");
+            }
+            index.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close match log index", e);
+        }
+    }
+
+    /**
+     * Segment files in {@code directory}, in no particular order.
+     */
+    static List<File> segmentFiles(File directory) {
+        List<File> files = new ArrayList<>();
+        File[] listed = directory.listFiles((dir, name) -> name.endsWith(".tkml"));
+        if (listed != null) {
+            for (File file : listed) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Segment number from a name like {@code ticks-000012.tkml}.
+     */
+    static int segmentNumber(File file) {
+        String name = file.getName();
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.length() - ".tkml".length()));
+    }
+
+    private MatchLogSegment createSegment(int table, int[] widths, int number) {
+        File file = new File(directory, String.format("%s-%06d.tkml", TABLE_NAMES[table], number));
+        return MatchLogSegment.create(file, table, widths, segmentRows, session, number, tickRate);
+    }
+
+    private void appendIndex(MatchLogSegment segment, int firstStage, int lastStage, int levelMask) {
+        ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(segment.getNumber()).putInt(segment.getTable()).putLong(segment.getSession())
+                .putInt(segment.getRows()).putInt(firstStage).putInt(lastStage).putInt(levelMask).flip();
+        try {
+            while (record.hasRemaining()) {
+                index.write(record);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not append to match log index", e);
+        }
+    }
+
+    /**
+     * The segment being written for one table and the next one, prepared in the background.
+     */
+    private final class Table {
+
+        private final int table;
+        private final int[] widths;
+        private MatchLogSegment current;
+        private Future<MatchLogSegment> next;
+        private int firstStage;
+        private int lastStage;
+        private int levelMask;
+
+        Table(int table, int[] widths) {
+            this.table = table;
+            this.widths = widths;
+            this.current = createSegment(table, widths, nextSegment++);
+            prepareNext();
+        }
+
+        /**
+         * The segment to write the next row into, rolling over when the current one is full.
+         */
+        MatchLogSegment segment() {
+            if (current.isFull()) {
+                seal();
+                try {
+                    current = next.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while rolling the match log", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Could not roll the match log", e.getCause());
+                }
+                prepareNext();
+            }
+            return current;
+        }
+
+        void putKey(MatchLogSegment segment, int row, int stage, long tick, int level) {
+            if (segment.getRows() == 0) {
+                firstStage = stage;
+                levelMask = 0;
+            }
+            lastStage = stage;
+            levelMask |= 1 << level;
+            segment.putInt(STAGE, row, stage);
+            segment.putInt(TICK, row, (int) tick);
+            segment.putByte(LEVEL, row, level);
+        }
+
+        void finish() {
+            if (current.getRows() > 0) {
+                seal();
+            } else {
+                File empty = current.getFile();
+                background.execute(empty::delete);
+            }
+            Future<MatchLogSegment> unused = next;
+            background.execute(() -> {
+                try {
+                    unused.get().getFile().delete();
+                } catch (InterruptedException | ExecutionException e) {
+                    // Nothing was created.
+                }
+            });
+        }
+
+        private void seal() {
+            MatchLogSegment sealed = current;
+            int first = firstStage;
+            int last = lastStage;
+            int mask = levelMask;
+            background.execute(() -> appendIndex(sealed, first, last, mask));
+        }
+
+        private void prepareNext() {
+            int number = nextSegment++;
+            next = background.submit(() -> createSegment(table, widths, number));
+        }
+    }
+}
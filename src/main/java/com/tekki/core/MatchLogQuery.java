@@ -0,0 +1,298 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summarizes a {@link MatchLog} folder per level: stages won and lost, time to KO, where the player gets hit
+ * and how often enemies dash. Segments are scanned in parallel, each reading only the columns it needs; with
+ * a level given, segments the index shows do not contain it are skipped without being opened.
+ * <p>
+ * Run from the folder containing the project with
+ * <pre>
+ * java com.tekki.core.MatchLogQuery logFolder [level]
+ * </pre>
+ * where {@code level} is 1-based, as shown in the game.
+ */
+public final class MatchLogQuery {
+
+    private static final int MAX_LEVELS = 32;
+    private static final int ZONES = 8;
+
+    private MatchLogQuery() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: MatchLogQuery logFolder [level]");
+            System.exit(1);
+        }
+        File directory = new File(args[0]);
+        int level = args.length > 1 ? Integer.parseInt(args[1]) - 1 : -1;
+        Map<Integer, Integer> levelMasks = readIndex(directory);
+        List<File> segments = MatchLog.segmentFiles(directory);
+
+        long start = System.nanoTime();
+        Map<Long, Map<Integer, Float>> stageWidths = readStageWidths(segments);
+        Summary summary = segments.parallelStream()
+                .filter(file -> level < 0 || (levelMasks.getOrDefault(MatchLog.segmentNumber(file), -1) & (1 << level)) != 0)
+                .map(file -> scan(MatchLogSegment.open(file), level, stageWidths))
+                .reduce(new Summary(), Summary::merge);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf(Locale.ROOT, "%d segments, %d tick rows, %d event rows, %d sessions scanned in %.1f ms%n",
+                summary.segments, summary.tickRows, summary.eventRows, summary.sessions(), millis);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            LevelStats stats = summary.levels[i];
+            if (stats.stages > 0 || stats.ticks > 0) {
+                print(i, stats, summary.tickRate);
+            }
+        }
+    }
+
+    private static void print(int level, LevelStats stats, int tickRate) {
+        double minutes = stats.ticks / (double) tickRate / 60.0;
+        int[] koTicks = Arrays.copyOf(stats.koTicks, stats.wins);
+        Arrays.sort(koTicks);
+        double averageKo = 0.0;
+        for (int tick : koTicks) {
+            averageKo += tick;
+        }
+        averageKo = koTicks.length > 0 ? averageKo / koTicks.length / tickRate : 0.0;
+        double medianKo = koTicks.length > 0 ? koTicks[koTicks.length / 2] / (double) tickRate : 0.0;
+
+        System.out.printf(Locale.ROOT, "%nLevel %d: %d stages, %d won, %d lost, %.1f min of fighting%n",
+                level + 1, stats.stages, stats.wins, stats.losses, minutes);
+        System.out.printf(Locale.ROOT, "  time to KO: %.1f s average, %.1f s median%n", averageKo, medianKo);
+        System.out.printf(Locale.ROOT, "  player hit %d times (%d crits, %d damage), blocked %d; landed %d crits%n",
+                stats.hitsTaken, stats.critsTaken, stats.damageTaken, stats.blocks, stats.critsDealt);
+        System.out.printf(Locale.ROOT, "  enemy dashes: %d, %.1f per minute%n",
+                stats.enemyDashes, minutes > 0.0 ? stats.enemyDashes / minutes : 0.0);
+        StringBuilder zones = new StringBuilder("  player hit by stage zone, left to right:");
+        for (int zone : stats.hitZones) {
+            zones.append(' ').append(zone);
+        }
+        System.out.println(zones);
+    }
+
+    /**
+     * Level mask of every indexed segment by segment number; segments missing from the index (a session that
+     * did not shut down cleanly) are not in the map and always scanned.
+     */
+    private static Map<Integer, Integer> readIndex(File directory) {
+        Map<Integer, Integer> masks = new HashMap<>();
+        File file = new File(directory, MatchLog.INDEX_FILE);
+        if (!file.isFile()) {
+            return masks;
+        }
+        try {
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+            if (index.getInt() != MatchLog.INDEX_MAGIC || index.getInt() != MatchLog.INDEX_VERSION) {
+                throw new IllegalStateException("Not a version " + MatchLog.INDEX_VERSION + " match log index: " + file);
+            }
+            while (index.remaining() >= MatchLog.INDEX_RECORD_BYTES) {
+                int number = index.getInt();
+                index.position(index.position() + MatchLog.INDEX_RECORD_BYTES - 8);
+                masks.put(number, index.getInt());
+            }
+            return masks;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read match log index: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Width of every logged stage by session and stage number, from the stage start rows; a stage's hits can
+     * be in a later segment than its start. Stages logged without a width count as one screen wide.
+     */
+    private static Map<Long, Map<Integer, Float>> readStageWidths(List<File> segments) {
+        Map<Long, Map<Integer, Float>> widths = new HashMap<>();
+        for (File file : segments) {
+            MatchLogSegment segment = MatchLogSegment.open(file);
+            if (segment.getTable() != MatchLog.EVENTS) {
+                continue;
+            }
+            for (int row = 0; row < segment.getRows(); row++) {
+                if (segment.getByte(MatchLog.KIND, row) != MatchLog.STAGE_START) {
+                    continue;
+                }
+                float width = segment.getFloat(MatchLog.EVENT_X, row);
+                if (width > 0f) {
+                    widths.computeIfAbsent(segment.getSession(), session -> new HashMap<>())
+                            .put(segment.getInt(MatchLog.STAGE, row), width);
+                }
+            }
+        }
+        return widths;
+    }
+
+    private static Summary scan(MatchLogSegment segment, int level, Map<Long, Map<Integer, Float>> stageWidths) {
+        Summary summary = new Summary();
+        summary.segments = 1;
+        summary.tickRate = segment.getTickRate();
+        summary.addSession(segment.getSession());
+        int rows = segment.getRows();
+        if (segment.getTable() == MatchLog.TICKS) {
+            summary.tickRows = rows;
+            scanTicks(segment, rows, level, summary);
+        } else {
+            summary.eventRows = rows;
+            scanEvents(segment, rows, level, summary,
+                    stageWidths.getOrDefault(segment.getSession(), Map.of()));
+        }
+        return summary;
+    }
+
+    private static void scanTicks(MatchLogSegment segment, int rows, int level, Summary summary) {
+        int dashing = FighterState.DASHING.ordinal();
+        for (int row = 0; row < rows; row++) {
+            int rowLevel = segment.getByte(MatchLog.LEVEL, row);
+            if (level >= 0 && rowLevel != level) {
+                continue;
+            }
+            LevelStats stats = summary.levels[rowLevel];
+            stats.ticks++;
+            if (segment.getByte(MatchLog.ENEMY_STATE, row) == dashing && row > 0
+                    && segment.getByte(MatchLog.ENEMY_STATE, row - 1) != dashing
+                    && segment.getInt(MatchLog.STAGE, row - 1) == segment.getInt(MatchLog.STAGE, row)) {
+                stats.enemyDashes++;
+            }
+        }
+    }
+
+    private static void scanEvents(MatchLogSegment segment, int rows, int level, Summary summary,
+                                   Map<Integer, Float> stageWidths) {
+        for (int row = 0; row < rows; row++) {
+            int rowLevel = segment.getByte(MatchLog.LEVEL, row);
+            if (level >= 0 && rowLevel != level) {
+                continue;
+            }
+            LevelStats stats = summary.levels[rowLevel];
+            int kind = segment.getByte(MatchLog.KIND, row);
+            boolean byPlayer = segment.getByte(MatchLog.BY_PLAYER, row) != 0;
+            if (kind == MatchLog.STAGE_START) {
+                stats.stages++;
+            } else if (kind == CombatEventType.KO.ordinal()) {
+                if (byPlayer) {
+                    stats.addKo(segment.getInt(MatchLog.TICK, row));
+                } else {
+                    stats.losses++;
+                }
+            } else if (kind == CombatEventType.CRIT.ordinal() && byPlayer) {
+                stats.critsDealt++;
+            } else if (!byPlayer && (kind == CombatEventType.HIT.ordinal() || kind == CombatEventType.CRIT.ordinal())) {
+                stats.hitsTaken++;
+                stats.damageTaken += segment.getShort(MatchLog.DAMAGE, row);
+                if (kind == CombatEventType.CRIT.ordinal()) {
+                    stats.critsTaken++;
+                }
+                float x = segment.getFloat(MatchLog.EVENT_X, row);
+                float stageWidth = stageWidths.getOrDefault(segment.getInt(MatchLog.STAGE, row),
+                        (float) Campaign.ARENA_WIDTH);
+                int zone = (int) (x * ZONES / stageWidth);
+                stats.hitZones[Math.max(0, Math.min(ZONES - 1, zone))]++;
+            } else if (!byPlayer && kind == CombatEventType.BLOCK.ordinal()) {
+                stats.blocks++;
+            }
+        }
+    }
+
+    /**
+     * Partial result of some segments; partial results combine with {@link #merge}.
+     */
+    private static final class Summary {
+
+        final LevelStats[] levels = new LevelStats[MAX_LEVELS];
+        long[] sessionIds = new long[0];
+        int segments;
+        long tickRows;
+        long eventRows;
+        int tickRate = MoveTable.FRAME_RATE;
+
+        Summary() {
+            for (int i = 0; i < MAX_LEVELS; i++) {
+                levels[i] = new LevelStats();
+            }
+        }
+
+        void addSession(long session) {
+            if (Arrays.binarySearch(sessionIds, session) < 0) {
+                sessionIds = Arrays.copyOf(sessionIds, sessionIds.length + 1);
+                sessionIds[sessionIds.length - 1] = session;
+                Arrays.sort(sessionIds);
+            }
+        }
+
+        int sessions() {
+            return sessionIds.length;
+        }
+
+        Summary merge(Summary other) {
+            Summary merged = new Summary();
+            merged.segments = segments + other.segments;
+            merged.tickRows = tickRows + other.tickRows;
+            merged.eventRows = eventRows + other.eventRows;
+            merged.tickRate = other.segments > 0 ? other.tickRate : tickRate;
+            for (long session : sessionIds) {
+                merged.addSession(session);
+            }
+            for (long session : other.sessionIds) {
+                merged.addSession(session);
+            }
+            for (int i = 0; i < MAX_LEVELS; i++) {
+                merged.levels[i].add(levels[i]);
+                merged.levels[i].add(other.levels[i]);
+            }
+            return merged;
+        }
+    }
+
+    private static final class LevelStats {
+
+        int stages;
+        int wins;
+        int losses;
+        int[] koTicks = new int[0];
+        long ticks;
+        int enemyDashes;
+        int hitsTaken;
+        int critsTaken;
+        long damageTaken;
+        int blocks;
+        int critsDealt;
+        final int[] hitZones = new int[ZONES];
+
+        void addKo(int tick) {
+            if (wins == koTicks.length) {
+                koTicks = Arrays.copyOf(koTicks, Math.max(16, wins * 2));
+            }
+            koTicks[wins++] = tick;
+        }
+
+        void add(LevelStats other) {
+            stages += other.stages;
+            losses += other.losses;
+            for (int i = 0; i < other.wins; i++) {
+                addKo(other.koTicks[i]);
+            }
+            ticks += other.ticks;
+            enemyDashes += other.enemyDashes;
+            hitsTaken += other.hitsTaken;
+            critsTaken += other.critsTaken;
+            damageTaken += other.damageTaken;
+            blocks += other.blocks;
+            critsDealt += other.critsDealt;
+            for (int i = 0; i < ZONES; i++) {
+                hitZones[i] += other.hitZones[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of a {@link MatchLog} table: a fixed number of rows stored column by column, every
+ * column a run of fixed-width values, so a query touches only the columns it reads.
+ * <p>
+ * Layout (little-endian):
+ * <pre>
+ *   0  int magic "TKML", int version, int table, int columns, int capacity, int rows, long session,
+ *      int segment number, int tick rate
+ *  64  byte width per column (1, 2, 4 or 8)
+ * 128  column 0: capacity values, padded to 8 bytes; then column 1 and so on
+ * </pre>
+ * The row count in the header is updated after every row, so a segment left behind by a crash is readable up
+ * to its last complete row.
+ */
+final class MatchLogSegment {
+
+    static final int MAGIC = 0x544B4D4C; // "TKML"
+    static final int VERSION = 1;
+    private static final int ROWS = 20;
+    private static final int WIDTHS = 64;
+    private static final int DATA = 128;
+    private static final int MAX_COLUMNS = DATA - WIDTHS;
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final int table;
+    private final int capacity;
+    private final long session;
+    private final int number;
+    private final int tickRate;
+    private final int[] offsets;
+    private int rows;
+
+    private MatchLogSegment(File file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.table = buffer.getInt(8);
+        int columns = buffer.getInt(12);
+        this.capacity = buffer.getInt(16);
+        this.rows = buffer.getInt(ROWS);
+        this.session = buffer.getLong(24);
+        this.number = buffer.getInt(32);
+        this.tickRate = buffer.getInt(36);
+        this.offsets = new int[columns];
+        int offset = DATA;
+        for (int i = 0; i < columns; i++) {
+            offsets[i] = offset;
+            offset += columnBytes(buffer.get(WIDTHS + i), capacity);
+        }
+    }
+
+    /**
+     * Create (or truncate) a segment file with room for {@code capacity} rows and map it for writing.
+     */
+    static MatchLogSegment create(File file, int table, int[] widths, int capacity, long session, int number,
+                                  int tickRate) {
+        if (widths.length > MAX_COLUMNS) {
+            throw new IllegalArgumentException("At most " + MAX_COLUMNS + " columns: " + widths.length);
+        }
+        long size = DATA;
+        for (int width : widths) {
+            size += columnBytes(width, capacity);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, table);
+            buffer.putInt(12, widths.length);
+            buffer.putInt(16, capacity);
+            buffer.putInt(ROWS, 0);
+            buffer.putLong(24, session);
+            buffer.putInt(32, number);
+            buffer.putInt(36, tickRate);
+            for (int i = 0; i < widths.length; i++) {
+                buffer.put(WIDTHS + i, (byte) widths[i]);
+            }
+            buffer.putInt(0, MAGIC);
+            return new MatchLogSegment(file, buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create match log segment: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Map an existing segment for reading.
+     */
+    static MatchLogSegment open(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < DATA || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("Not a version " + VERSION + " match log segment: " + file);
+            }
+            return new MatchLogSegment(file, buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read match log segment: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static long columnBytes(int width, int capacity) {
+        return ((long) width * capacity + 7) & ~7L;
+    }
+
+    void putByte(int column, int row, int value) {
+        buffer.put(offsets[column] + row, (byte) value);
+    }
+
+    void putShort(int column, int row, int value) {
+        buffer.putShort(offsets[column] + 2 * row, (short) value);
+    }
+
+    void putInt(int column, int row, int value) {
+        buffer.putInt(offsets[column] + 4 * row, value);
+    }
+
+    void putFloat(int column, int row, float value) {
+        buffer.putFloat(offsets[column] + 4 * row, value);
+    }
+
+    byte getByte(int column, int row) {
+        return buffer.get(offsets[column] + row);
+    }
+
+    short getShort(int column, int row) {
+        return buffer.getShort(offsets[column] + 2 * row);
+    }
+
+    int getInt(int column, int row) {
+        return buffer.getInt(offsets[column] + 4 * row);
+    }
+
+    float getFloat(int column, int row) {
+        return buffer.getFloat(offsets[column] + 4 * row);
+    }
+
+    /**
+     * Make the row just written part of the segment.
+     */
+    void commitRow() {
+        rows++;
+        buffer.putInt(ROWS, rows);
+    }
+
+    boolean isFull() {
+        return rows == capacity;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    int getTable() {
+        return table;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    long getSession() {
+        return session;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    int getTickRate() {
+        return tickRate;
+    }
+}
@@ -0,0 +1,621 @@
+package com.tekki.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hosts many headless matches in one JVM, one per client connection, for bot ladders and load tests.
+ * <p>
+ * All sockets are served by a single non-blocking selector thread, and all matches are stepped together by
+ * one fixed-rate scheduler that splits them into slices over a small worker pool, so the thread count does
+ * not grow with the number of clients. Clients speak a line protocol on localhost:
+ * <pre>
+ * NEW [stage] [seed]   start (or restart) a match; answered with START stage seed
+ * INPUT buttons        held {@link InputFrame} buttons from the next tick on, as a decimal mask
+ * WATCH n              also send a STATE line every n ticks, 0 to stop
+ * QUIT                 close the connection
+ * </pre>
+ * The server sends {@code STATE tick playerX playerY playerState playerHealth enemyX enemyY enemyState
+ * enemyHealth} while watching, and {@code OVER winner ticks playerHealth enemyHealth} when a match ends by KO
+ * or time-out, winner being {@code PLAYER}, {@code ENEMY} or {@code DRAW}. STATE lines are skipped while a
+ * client has 32 KB of output it has not read yet, so a watcher that stops reading costs no more memory; a
+ * client twice that far behind is disconnected.
+ */
+public final class MatchServer implements AutoCloseable {
+
+    /** Matches are called a draw after this many ticks. */
+    public static final int MAX_MATCH_TICKS = 99 * 60;
+
+    private static final int ACTION_MASK = InputFrame.LEFT | InputFrame.RIGHT | InputFrame.UP | InputFrame.DOWN
+            | InputFrame.ATTACK | InputFrame.DEFEND | InputFrame.DASH;
+    private static final int MAX_LINE = 128;
+    /** A client this far behind on reading its output is disconnected. */
+    private static final int MAX_PENDING_OUTPUT = 64 * 1024;
+    /** Unread output above which STATE lines are dropped, leaving room for the replies and OVER lines. */
+    private static final int MAX_STATE_BACKLOG = MAX_PENDING_OUTPUT / 2;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final int tickRate;
+    private final float deltaTime;
+    private final Match[] templates;
+    private final Thread ioThread;
+    private final Thread tickThread;
+    private final ExecutorService workers;
+    private final List<Slice> slices = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /** Sessions that asked to start or left, handed from the selector thread to the scheduler. */
+    private final ConcurrentLinkedQueue<Session> requests = new ConcurrentLinkedQueue<>();
+    /** Sessions with output, handed from the scheduler to the selector thread. */
+    private final ConcurrentLinkedQueue<Session> outbox = new ConcurrentLinkedQueue<>();
+    /** Scheduler thread only. */
+    private final List<Session> active = new ArrayList<>();
+
+    private final AtomicLong completedMatches = new AtomicLong();
+    private final AtomicLong droppedStates = new AtomicLong();
+    private volatile int activeMatches;
+    private volatile int connections;
+    private volatile long ticks;
+    private volatile long totalTickNanos;
+    private volatile long maxTickNanos;
+    private volatile long totalLagNanos;
+    private volatile long maxLagNanos;
+
+    /**
+     * @param port    TCP port on the loopback interface, 0 for any free port
+     * @param threads workers stepping the matches
+     */
+    public MatchServer(int port, int tickRate, int threads) {
+        this.tickRate = tickRate;
+        this.deltaTime = 1f / tickRate;
+        List<Level> levels = Campaign.levels();
+        this.templates = new Match[levels.size()];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = Campaign.newMatch(levels.get(i), i, PhysicsMode.FIXED, 0L, 0L).copyWithoutSprites();
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open match server port " + port, e);
+        }
+        for (int i = 0; i < threads; i++) {
+            slices.add(new Slice());
+        }
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tekki-match-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ioThread = new Thread(this::runSelector, "tekki-match-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+        tickThread = new Thread(this::runScheduler, "tekki-match-tick");
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        try (MatchServer server = new MatchServer(port, MoveTable.FRAME_RATE, threads)) {
+            System.out.println("Match server on port " + server.getPort());
+            long completed = 0L;
+            while (true) {
+                Thread.sleep(5_000L);
+                long now = server.getCompletedMatches();
+                System.out.println(server.statusLine((now - completed) / 5.0));
+                completed = now;
+                server.resetTickStats();
+            }
+        }
+    }
+
+    // ---- scheduler ----
+
+    private void runScheduler() {
+        long periodNanos = 1_000_000_000L / tickRate;
+        long nextTick = System.nanoTime();
+        while (running) {
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            long start = System.nanoTime();
+            long lag = start - nextTick;
+            tick();
+            long duration = System.nanoTime() - start;
+
+            ticks++;
+            totalTickNanos += duration;
+            maxTickNanos = Math.max(maxTickNanos, duration);
+            totalLagNanos += lag;
+            maxLagNanos = Math.max(maxLagNanos, lag);
+
+            nextTick += periodNanos;
+            if (nextTick - System.nanoTime() < -5 * periodNanos) {
+                // Overloaded: drop the missed ticks rather than bursting to catch up.
+                nextTick = System.nanoTime();
+            }
+        }
+    }
+
+    private void tick() {
+        Session session;
+        while ((session = requests.poll()) != null) {
+            if (session.closed) {
+                if (session.active) {
+                    active.remove(session);
+                    session.active = false;
+                }
+            } else if (session.startRequested) {
+                start(session);
+            }
+        }
+        activeMatches = active.size();
+        if (active.isEmpty()) {
+            return;
+        }
+
+        int sliceCount = Math.min(slices.size(), active.size());
+        List<Future<?>> futures = new ArrayList<>(sliceCount);
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = slices.get(i);
+            slice.from = (int) ((long) active.size() * i / sliceCount);
+            slice.to = (int) ((long) active.size() * (i + 1) / sliceCount);
+            futures.add(i == sliceCount - 1 ? null : workers.submit(slice));
+        }
+        // The scheduler steps the last slice itself.
+        slices.get(sliceCount - 1).run();
+        for (Future<?> future : futures) {
+            if (future == null) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Match step failed", e.getCause());
+            }
+        }
+        boolean wrote = false;
+        for (int i = 0; i < sliceCount; i++) {
+            List<Session> written = slices.get(i).written;
+            for (int j = 0; j < written.size(); j++) {
+                outbox.add(written.get(j));
+            }
+            wrote |= !written.isEmpty();
+            written.clear();
+        }
+        if (wrote) {
+            selector.wakeup();
+        }
+    }
+
+    private void start(Session session) {
+        session.startRequested = false;
+        int stage = session.requestedStage;
+        long seed = session.requestedSeed;
+        if (session.match == null || session.stage != stage) {
+            session.match = templates[stage].copyWithoutSprites();
+            session.stage = stage;
+        }
+        Match match = session.match;
+        match.copyFrom(templates[stage]);
+        match.getPlayer().clearInputHistory();
+        match.reseed(seed);
+        match.getEnemy().reseed(~seed);
+        session.previousHeld = 0;
+        session.ticks = 0;
+        session.over = false;
+        session.send("START " + stage + " " + seed + "\n");
+        if (!session.active) {
+            session.active = true;
+            active.add(session);
+        }
+        outbox.add(session);
+        selector.wakeup();
+    }
+
+    /**
+     * One worker's share of the active matches for the current tick.
+     */
+    private final class Slice implements Runnable {
+
+        int from;
+        int to;
+        final List<Session> written = new ArrayList<>();
+
+        @Override
+        public void run() {
+            for (int i = from; i < to; i++) {
+                if (step(active.get(i))) {
+                    written.add(active.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Advance one match; true if it produced output.
+     */
+    private boolean step(Session session) {
+        if (session.over) {
+            return false;
+        }
+        Match match = session.match;
+        int held = session.held;
+        int previous = session.previousHeld;
+        match.applyPlayerInput(new InputFrame(session.ticks, held, held & ~previous, previous & ~held, 0L));
+        session.previousHeld = held;
+        match.step(deltaTime);
+        session.ticks++;
+
+        boolean wrote = false;
+        int watchEvery = session.watchEvery;
+        if (watchEvery > 0 && session.ticks % watchEvery == 0) {
+            Fighter player = match.getPlayer();
+            Fighter enemy = match.getEnemy();
+            wrote = session.sendState(String.format(Locale.ROOT, "STATE %d %.1f %.1f %s %d %.1f %.1f %s %d%n",
+                    session.ticks, player.x, player.y, player.getState(), player.getHealth(),
+                    enemy.x, enemy.y, enemy.getState(), enemy.getHealth()));
+        }
+        if (match.isOver() || session.ticks >= MAX_MATCH_TICKS) {
+            session.over = true;
+            int playerHealth = match.getPlayer().getHealth();
+            int enemyHealth = match.getEnemy().getHealth();
+            String winner = playerHealth == enemyHealth ? "DRAW" : playerHealth > enemyHealth ? "PLAYER" : "ENEMY";
+            session.send("OVER " + winner + " " + session.ticks + " " + playerHealth + " " + enemyHealth + "\n");
+            completedMatches.incrementAndGet();
+            wrote = true;
+        }
+        return wrote;
+    }
+
+    // ---- sockets ----
+
+    private void runSelector() {
+        while (running) {
+            try {
+                selector.select();
+                Session session;
+                while ((session = outbox.poll()) != null) {
+                    flush(session);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Session owner = (Session) key.attachment();
+                    if (key.isReadable()) {
+                        read(owner);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(owner);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    throw new IllegalStateException("Match server selector failed", e);
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            connections++;
+        }
+    }
+
+    private void read(Session session) {
+        ByteBuffer input = session.input;
+        int read;
+        try {
+            read = session.channel.read(input);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            disconnect(session);
+            return;
+        }
+        input.flip();
+        int lineStart = input.position();
+        for (int i = input.position(); i < input.limit(); i++) {
+            if (input.get(i) == '\n') {
+                String line = new String(input.array(), lineStart, i - lineStart, StandardCharsets.US_ASCII).trim();
+                handleCommand(session, line);
+                lineStart = i + 1;
+            }
+        }
+        input.position(lineStart);
+        input.compact();
+        if (!input.hasRemaining()) {
+            session.sendNow("ERR line too long\n");
+            disconnect(session);
+        }
+    }
+
+    private void handleCommand(Session session, String line) {
+        String[] parts = line.split("\\s+");
+        try {
+            switch (parts[0].toUpperCase(Locale.ROOT)) {
+                case "NEW" -> {
+                    int stage = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                    if (stage < 0 || stage >= templates.length) {
+                        session.sendNow("ERR stage must be 0 to " + (templates.length - 1) + "\n");
+                        return;
+                    }
+                    session.requestedStage = stage;
+                    session.requestedSeed = parts.length > 2 ? Long.parseLong(parts[2]) : System.nanoTime();
+                    session.startRequested = true;
+                    requests.add(session);
+                }
+                case "INPUT" -> session.held = Integer.parseInt(parts[1]) & ACTION_MASK;
+                case "WATCH" -> session.watchEvery = Math.max(0, Integer.parseInt(parts[1]));
+                case "QUIT" -> disconnect(session);
+                case "" -> {
+                }
+                default -> session.sendNow("ERR unknown command " + parts[0] + "\n");
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            session.sendNow("ERR bad arguments: " + line + "\n");
+        }
+    }
+
+    private void flush(Session session) {
+        if (session.closed) {
+            return;
+        }
+        ByteBuffer pending = session.takeOutput();
+        try {
+            session.channel.write(pending);
+        } catch (IOException e) {
+            disconnect(session);
+            return;
+        }
+        session.unwritten = pending.remaining();
+        if (pending.remaining() > MAX_PENDING_OUTPUT) {
+            disconnect(session);
+        } else if (pending.hasRemaining()) {
+            session.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else {
+            session.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void disconnect(Session session) {
+        if (session.closed) {
+            return;
+        }
+        session.closed = true;
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Closing anyway.
+        }
+        connections--;
+        requests.add(session);
+    }
+
+    /**
+     * One client and its match. Input fields are written by the selector thread and read by the workers;
+     * output is appended by the workers and drained by the selector thread.
+     */
+    private final class Session {
+
+        final SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+        private final StringBuilder output = new StringBuilder();
+        private ByteBuffer pending = ByteBuffer.allocate(0);
+        /** Bytes of {@code pending} the socket did not take at the last flush. */
+        volatile int unwritten;
+
+        volatile int held;
+        volatile int watchEvery;
+        volatile boolean startRequested;
+        volatile int requestedStage;
+        volatile long requestedSeed;
+        volatile boolean closed;
+
+        // Scheduler and workers only.
+        Match match;
+        int stage = -1;
+        int previousHeld;
+        int ticks;
+        boolean over;
+        boolean active;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        synchronized void send(String text) {
+            output.append(text);
+        }
+
+        /**
+         * Queue a STATE line unless the client is already {@link #MAX_STATE_BACKLOG} behind.
+         *
+         * @return whether the line was queued
+         */
+        synchronized boolean sendState(String text) {
+            if (unwritten + output.length() + text.length() > MAX_STATE_BACKLOG) {
+                droppedStates.incrementAndGet();
+                return false;
+            }
+            output.append(text);
+            return true;
+        }
+
+        /**
+         * Reply from the selector thread itself.
+         */
+        void sendNow(String text) {
+            send(text);
+            flush(this);
+        }
+
+        /**
+         * Unwritten bytes from earlier plus everything sent since; selector thread only.
+         */
+        ByteBuffer takeOutput() {
+            String text;
+            synchronized (this) {
+                if (output.length() == 0) {
+                    return pending;
+                }
+                text = output.toString();
+                output.setLength(0);
+            }
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer combined = ByteBuffer.allocate(pending.remaining() + bytes.length);
+            combined.put(pending).put(bytes).flip();
+            pending = combined;
+            return pending;
+        }
+    }
+
+    // ---- metrics ----
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getActiveMatches() {
+        return activeMatches;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public long getCompletedMatches() {
+        return completedMatches.get();
+    }
+
+    /**
+     * STATE lines skipped because their client was not reading its output.
+     */
+    public long getDroppedStates() {
+        return droppedStates.get();
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * How late scheduled ticks started, averaged since the last {@link #resetTickStats}.
+     */
+    public double getAverageTickLagMillis() {
+        long count = ticks;
+        return count == 0 ? 0.0 : totalLagNanos / 1e6 / count;
+    }
+
+    public double getMaxTickLagMillis() {
+        return maxLagNanos / 1e6;
+    }
+
+    /**
+     * Time to step every active match once.
+     */
+    public double getAverageTickMillis() {
+        long count = ticks;
+        return count == 0 ? 0.0 : totalTickNanos / 1e6 / count;
+    }
+
+    public double getMaxTickMillis() {
+        return maxTickNanos / 1e6;
+    }
+
+    /**
+     * Start a new measurement window for the tick timings; call from one thread.
+     */
+    public void resetTickStats() {
+        ticks = 0;
+        totalTickNanos = 0;
+        maxTickNanos = 0;
+        totalLagNanos = 0;
+        maxLagNanos = 0;
+    }
+
+    /**
+     * Used heap divided by the active matches; an upper bound, it includes the server's fixed overhead.
+     */
+    public long getHeapBytesPerMatch() {
+        Runtime runtime = Runtime.getRuntime();
+        int matches = Math.max(1, activeMatches);
+        return (runtime.totalMemory() - runtime.freeMemory()) / matches;
+    }
+
+    String statusLine(double matchesPerSecond) {
+        return String.format(Locale.ROOT,
+                "%d connections, %d matches, %.1f matches/s, tick %.2f ms avg %.2f max, lag %.2f ms avg %.2f max, "
+                        + "%.1f KB heap/match",
+                getConnections(), getActiveMatches(), matchesPerSecond, getAverageTickMillis(), getMaxTickMillis(),
+                getAverageTickLagMillis(), getMaxTickLagMillis(), getHeapBytesPerMatch() / 1024.0);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(200);
+            tickThread.join(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            // Closing anyway.
+        }
+    }
+}
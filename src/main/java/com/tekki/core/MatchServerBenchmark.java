@@ -0,0 +1,149 @@
+package com.tekki.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Load test for {@link MatchServer}: one process hosts the server and drives thousands of bot clients from a
+ * single selector thread, each pressing random buttons and starting a new match whenever one ends. Prints
+ * matches per second, tick cost and lag, and heap per match measured against an idle baseline.
+ * <p>
+ * Run from the folder containing the project with
+ * {@code java com.tekki.core.MatchServerBenchmark [clients] [seconds] [threads]}.
+ */
+public final class MatchServerBenchmark {
+
+    private static final int[] ACTIONS = {
+            0, InputFrame.LEFT, InputFrame.RIGHT, InputFrame.ATTACK, InputFrame.DEFEND, InputFrame.UP,
+            InputFrame.RIGHT | InputFrame.ATTACK, InputFrame.LEFT | InputFrame.DASH
+    };
+    private static final long INPUT_PERIOD_NANOS = 100_000_000L;
+
+    private MatchServerBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try (MatchServer server = new MatchServer(0, MoveTable.FRAME_RATE, threads);
+             Selector selector = Selector.open()) {
+            long baselineHeap = usedHeapAfterGc();
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            DeterministicRandom random = new DeterministicRandom(7L);
+            SocketChannel[] channels = new SocketChannel[clients];
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, new Client(i));
+                channels[i] = channel;
+                send(channel, "NEW " + (i % 2) + " " + i + "\n");
+            }
+            while (server.getActiveMatches() < clients) {
+                drive(selector, random, channels, 10L);
+            }
+            long heapPerMatch = (usedHeapAfterGc() - baselineHeap) / clients;
+            System.out.printf(Locale.ROOT, "%d clients connected, %.1f KB heap per match (server and client side)%n",
+                    clients, heapPerMatch / 1024.0);
+
+            server.resetTickStats();
+            long startCompleted = server.getCompletedMatches();
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            long nextReport = start + 5_000_000_000L;
+            long reportCompleted = startCompleted;
+            while (System.nanoTime() < end) {
+                drive(selector, random, channels, 10L);
+                if (System.nanoTime() >= nextReport) {
+                    long completed = server.getCompletedMatches();
+                    System.out.println(server.statusLine((completed - reportCompleted) / 5.0));
+                    reportCompleted = completed;
+                    nextReport += 5_000_000_000L;
+                }
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT,
+                    "%d matches, %d threads: %.1f matches/s, %.0f match-ticks/s, tick %.2f ms avg %.2f max, "
+                            + "lag %.2f ms avg %.2f max%n",
+                    clients, threads, (server.getCompletedMatches() - startCompleted) / elapsed,
+                    server.getTicks() * (double) clients / elapsed, server.getAverageTickMillis(),
+                    server.getMaxTickMillis(), server.getAverageTickLagMillis(), server.getMaxTickLagMillis());
+        }
+    }
+
+    /**
+     * Answer server output for up to {@code millis} and send fresh random input to clients that are due.
+     */
+    private static void drive(Selector selector, DeterministicRandom random, SocketChannel[] channels, long millis)
+            throws IOException {
+        selector.select(millis);
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            Client client = (Client) key.attachment();
+            SocketChannel channel = (SocketChannel) key.channel();
+            client.buffer.clear();
+            if (channel.read(client.buffer) < 0) {
+                throw new IllegalStateException("Server closed client " + client.id);
+            }
+            client.buffer.flip();
+            while (client.buffer.hasRemaining()) {
+                byte b = client.buffer.get();
+                if (b == '\n') {
+                    if (client.line.indexOf("OVER") == 0) {
+                        send(channel, "NEW " + (client.id % 2) + " " + random.nextInt(1 << 30) + "\n");
+                    }
+                    client.line.setLength(0);
+                } else {
+                    client.line.append((char) b);
+                }
+            }
+        }
+        long now = System.nanoTime();
+        for (SocketChannel channel : channels) {
+            Client client = (Client) channel.keyFor(selector).attachment();
+            if (now >= client.nextInput) {
+                client.nextInput = now + INPUT_PERIOD_NANOS;
+                send(channel, "INPUT " + ACTIONS[random.nextInt(ACTIONS.length)] + "\n");
+            }
+        }
+    }
+
+    private static void send(SocketChannel channel, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100L);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class Client {
+
+        final int id;
+        final ByteBuffer buffer = ByteBuffer.allocate(512);
+        final StringBuilder line = new StringBuilder();
+        long nextInput;
+
+        Client(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.tekki.core;
+
+import java.awt.Rectangle;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frame data for every attack (startup/active/recovery, damage, hitstun, pushback and per-frame boxes).
+ * <p>
+ * Definitions are loaded from a text file and compiled into flat primitive arrays: per-move values are
+ * indexed by move id, per-frame boxes by {@code frameBase[move] + frame}. Hit resolution is therefore an
+ * array lookup and never allocates.
+ */
+public final class MoveTable {
+
+    /** Frame data is authored at this rate regardless of the simulation tick rate. */
+    public static final int FRAME_RATE = 60;
+
+    private static final EnemyAnimationConfig.AnimationType[] ANIMATION_TYPES = EnemyAnimationConfig.AnimationType.values();
+    private static final String DEFAULT_PATH = "Tekki/src/main/resources/moves/moves.txt";
+    private static MoveTable defaultTable;
+
+    private final String[] names;
+    private final int[] animation;
+    private final int[] startup;
+    private final int[] active;
+    private final int[] totalFrames;
+    private final int[] damage;
+    private final int[] hitstunFrames;
+    private final float[] pushback;
+    private final int[] frameBase;
+
+    private final int[] hitX;
+    private final int[] hitY;
+    private final int[] hitW;
+    private final int[] hitH;
+    private final int[] hurtX;
+    private final int[] hurtY;
+    private final int[] hurtW;
+    private final int[] hurtH;
+
+    private MoveTable(List<MoveDefinition> definitions) {
+        int count = definitions.size();
+        names = new String[count];
+        animation = new int[count];
+        startup = new int[count];
+        active = new int[count];
+        totalFrames = new int[count];
+        damage = new int[count];
+        hitstunFrames = new int[count];
+        pushback = new float[count];
+        frameBase = new int[count];
+
+        int frameCount = 0;
+        for (int i = 0; i < count; i++) {
+            MoveDefinition def = definitions.get(i);
+            names[i] = def.name;
+            animation[i] = def.animation.ordinal();
+            startup[i] = def.startup;
+            active[i] = def.active;
+            totalFrames[i] = def.startup + def.active + def.recovery;
+            damage[i] = def.damage;
+            hitstunFrames[i] = def.hitstun;
+            pushback[i] = def.pushback;
+            frameBase[i] = frameCount;
+            frameCount += totalFrames[i];
+        }
+
+        hitX = new int[frameCount];
+        hitY = new int[frameCount];
+        hitW = new int[frameCount];
+        hitH = new int[frameCount];
+        hurtX = new int[frameCount];
+        hurtY = new int[frameCount];
+        hurtW = new int[frameCount];
+        hurtH = new int[frameCount];
+
+        for (int i = 0; i < count; i++) {
+            MoveDefinition def = definitions.get(i);
+            for (int[] box : def.hitboxes) {
+                fill(i, box, hitX, hitY, hitW, hitH);
+            }
+            for (int[] box : def.hurtboxes) {
+                fill(i, box, hurtX, hurtY, hurtW, hurtH);
+            }
+            validate(i);
+        }
+    }
+
+    /**
+     * Shared table loaded from the bundled move definitions on first use.
+     */
+    public static synchronized MoveTable getDefault() {
+        if (defaultTable == null) {
+            defaultTable = load(new File(DEFAULT_PATH));
+        }
+        return defaultTable;
+    }
+
+    /**
+     * Parse and compile a move definition file.
+     */
+    public static MoveTable load(File file) {
+        if (!file.exists()) {
+            throw new IllegalStateException("Move definitions not found: " + file.getAbsolutePath());
+        }
+        List<MoveDefinition> definitions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            MoveDefinition current = null;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                try {
+                    switch (parts[0]) {
+                        case "move" -> {
+                            current = MoveDefinition.parse(parts);
+                            definitions.add(current);
+                        }
+                        case "hitbox", "hurtbox" -> {
+                            if (current == null) {
+                                throw new IllegalArgumentException(parts[0] + " before any move");
+                            }
+                            int[] box = parseBox(parts);
+                            (parts[0].equals("hitbox") ? current.hitboxes : current.hurtboxes).add(box);
+                        }
+                        default -> throw new IllegalArgumentException("unknown keyword " + parts[0]);
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new IllegalStateException("Invalid move definition at " + file.getName() + ":" + lineNumber
+                            + " (" + e.getMessage() + ")", e);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read move definitions: " + file.getAbsolutePath(), e);
+        }
+        return new MoveTable(definitions);
+    }
+
+    /**
+     * Move id for a name, or -1 when the table has no such move. Meant for setup code, not the tick path.
+     */
+    public int idOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getMoveCount() {
+        return names.length;
+    }
+
+    public String getName(int move) {
+        return names[move];
+    }
+
+    public EnemyAnimationConfig.AnimationType getAnimation(int move) {
+        return ANIMATION_TYPES[animation[move]];
+    }
+
+    public int getTotalFrames(int move) {
+        return totalFrames[move];
+    }
+
+    public int getStartupFrames(int move) {
+        return startup[move];
+    }
+
+    public int getActiveFrames(int move) {
+        return active[move];
+    }
+
+    public int getDamage(int move) {
+        return damage[move];
+    }
+
+    public int getHitstunFrames(int move) {
+        return hitstunFrames[move];
+    }
+
+    public float getHitstunSeconds(int move) {
+        return hitstunFrames[move] / (float) FRAME_RATE;
+    }
+
+    public float getPushback(int move) {
+        return pushback[move];
+    }
+
+    public boolean hasHitbox(int move, int frame) {
+        return frame >= 0 && frame < totalFrames[move] && hitW[frameBase[move] + frame] > 0;
+    }
+
+    /**
+     * Write the hitbox for a move frame into {@code out}, mirrored for the facing direction.
+     *
+     * @return false when the frame has no hitbox
+     */
+    public boolean fillHitbox(int move, int frame, float originX, float originY, int width, boolean facingRight,
+                              Rectangle out) {
+        if (!hasHitbox(move, frame)) {
+            return false;
+        }
+        int index = frameBase[move] + frame;
+        setMirrored(out, hitX[index], hitY[index], hitW[index], hitH[index], originX, originY, width, facingRight);
+        return true;
+    }
+
+    /**
+     * Write the hurtbox for a move frame into {@code out}.
+     *
+     * @return false when the frame uses the fighter's collision box
+     */
+    public boolean fillHurtbox(int move, int frame, float originX, float originY, int width, boolean facingRight,
+                               Rectangle out) {
+        if (frame < 0 || frame >= totalFrames[move]) {
+            return false;
+        }
+        int index = frameBase[move] + frame;
+        if (hurtW[index] <= 0) {
+            return false;
+        }
+        setMirrored(out, hurtX[index], hurtY[index], hurtW[index], hurtH[index], originX, originY, width, facingRight);
+        return true;
+    }
+
+    private static void setMirrored(Rectangle out, int boxX, int boxY, int boxW, int boxH,
+                                    float originX, float originY, int width, boolean facingRight) {
+        int relativeX = facingRight ? boxX : width - boxX - boxW;
+        out.setBounds((int) originX + relativeX, (int) originY + boxY, boxW, boxH);
+    }
+
+    private void fill(int move, int[] box, int[] xs, int[] ys, int[] ws, int[] hs) {
+        int from = box[0];
+        int to = box[1];
+        if (from < 0 || to < from || to >= totalFrames[move]) {
+            throw new IllegalStateException("Frame range " + from + "-" + to + " outside move " + names[move]);
+        }
+        for (int frame = from; frame <= to; frame++) {
+            int index = frameBase[move] + frame;
+            xs[index] = box[2];
+            ys[index] = box[3];
+            ws[index] = box[4];
+            hs[index] = box[5];
+        }
+    }
+
+    private void validate(int move) {
+        int firstActive = startup[move];
+        int lastActive = firstActive + active[move] - 1;
+        for (int frame = 0; frame < totalFrames[move]; frame++) {
+            boolean isActive = frame >= firstActive && frame <= lastActive;
+            if (isActive != hasHitbox(move, frame)) {
+                throw new IllegalStateException("Move " + names[move] + " frame " + frame
+                        + (isActive ? " is active but has no hitbox" : " has a hitbox outside its active frames"));
+            }
+        }
+    }
+
+    private static int[] parseBox(String[] parts) {
+        String[] range = parts[1].split("-");
+        int from = Integer.parseInt(range[0]);
+        int to = range.length > 1 ? Integer.parseInt(range[1]) : from;
+        return new int[]{from, to, Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                Integer.parseInt(parts[4]), Integer.parseInt(parts[5])};
+    }
+
+    /**
+     * Parsed but not yet compiled move; only lives while loading.
+     */
+    private static final class MoveDefinition {
+        private String name;
+        private EnemyAnimationConfig.AnimationType animation;
+        private int startup;
+        private int active;
+        private int recovery;
+        private int damage;
+        private int hitstun;
+        private float pushback;
+        private final List<int[]> hitboxes = new ArrayList<>();
+        private final List<int[]> hurtboxes = new ArrayList<>();
+
+        private static MoveDefinition parse(String[] parts) {
+            MoveDefinition def = new MoveDefinition();
+            def.name = parts[1];
+            def.animation = EnemyAnimationConfig.AnimationType.valueOf(parts[2]);
+            def.startup = Integer.parseInt(parts[3]);
+            def.active = Integer.parseInt(parts[4]);
+            def.recovery = Integer.parseInt(parts[5]);
+            def.damage = Integer.parseInt(parts[6]);
+            def.hitstun = Integer.parseInt(parts[7]);
+            def.pushback = Float.parseFloat(parts[8]);
+            if (def.startup < 0 || def.active <= 0 || def.recovery < 0) {
+                throw new IllegalArgumentException("move " + def.name + " needs active frames and non-negative startup/recovery");
+            }
+            return def;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.tekki.core;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Fixed-size float encoding of a fight from one fighter's point of view, shared by {@link VectorEnv}
+ * and {@link BotBridge}.
+ * <p>
+ * The own fighter comes first, then the opponent. Per fighter: center x as a fraction of the stage from its
+ * left edge, height above ground (in screen widths), horizontal and vertical velocity (in 1000 px/s), health
+ * fraction, facing right, on ground, attack cooldown, dash cooldown (seconds), then a one-hot
+ * {@link FighterState}. Both fighters are placed on the own fighter's stage, so x stays in [0, 1] however wide
+ * the stage is.
+ */
+public final class ObservationEncoder {
+
+    private static final int STATE_COUNT = FighterState.values().length;
+    public static final int FIGHTER_FEATURES = 9 + STATE_COUNT;
+    public static final int SIZE = 2 * FIGHTER_FEATURES;
+
+    private static final float VELOCITY_SCALE = 1000f;
+
+    private ObservationEncoder() {
+    }
+
+    /**
+     * Write {@link #SIZE} floats starting at {@code base}.
+     */
+    public static void encode(Fighter self, Fighter opponent, float deltaTime, FloatBuffer out, int base) {
+        float stageLeft = self.getStageLeft();
+        float stageWidth = self.getStageWidth();
+        encodeFighter(self, stageLeft, stageWidth, deltaTime, out, base);
+        encodeFighter(opponent, stageLeft, stageWidth, deltaTime, out, base + FIGHTER_FEATURES);
+    }
+
+    private static void encodeFighter(Fighter fighter, float stageLeft, float stageWidth, float deltaTime,
+                                      FloatBuffer out, int base) {
+        float attackCooldown = 0f;
+        float dashCooldown = 0f;
+        if (fighter instanceof PlayerFighter player) {
+            dashCooldown = player.getDashCooldownTimer();
+        } else if (fighter instanceof EnemyFighter enemy) {
+            attackCooldown = enemy.getAttackCooldownTimer();
+            dashCooldown = enemy.getDashCooldownTimer();
+        }
+        out.put(base, (fighter.getCenterX() - stageLeft) / stageWidth);
+        out.put(base + 1, (fighter.groundY - fighter.y) / Campaign.ARENA_WIDTH);
+        out.put(base + 2, (fighter.x - fighter.previousX) / deltaTime / VELOCITY_SCALE);
+        out.put(base + 3, fighter.getYVelocity() / VELOCITY_SCALE);
+        out.put(base + 4, fighter.getHealth() / (float) fighter.getMaxHealth());
+        out.put(base + 5, fighter.facingRight ? 1f : 0f);
+        out.put(base + 6, fighter.isOnGround() ? 1f : 0f);
+        out.put(base + 7, Math.max(0f, attackCooldown));
+        out.put(base + 8, Math.max(0f, dashCooldown));
+        int stateOrdinal = fighter.getState().ordinal();
+        for (int s = 0; s < STATE_COUNT; s++) {
+            out.put(base + 9 + s, s == stateOrdinal ? 1f : 0f);
+        }
+    }
+}
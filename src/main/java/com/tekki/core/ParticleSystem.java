@@ -0,0 +1,227 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Fixed-capacity pool of short-lived sparks, stored as parallel arrays.
+ * <p>
+ * Spawning past capacity is ignored and a dead particle is replaced by the last live one, so updating,
+ * capturing and drawing never allocate. Each palette entry is pre-rendered as a small sprite at a few fade
+ * levels, which keeps drawing to one image blit per particle without touching the composite.
+ */
+public final class ParticleSystem {
+
+    public static final int DEFAULT_CAPACITY = 32_768;
+
+    /** Palette entries. */
+    public static final int SPARK_PLAYER = 0;
+    public static final int SPARK_ENEMY = 1;
+    public static final int SPARK_BLOCK = 2;
+    public static final int SPARK_CRIT = 3;
+    public static final int TRAIL_PLAYER = 4;
+    public static final int TRAIL_ENEMY = 5;
+
+    private static final Color[] PALETTE = {
+        new Color(220, 90, 255),
+        new Color(255, 240, 200),
+        new Color(140, 200, 255),
+        new Color(255, 210, 60),
+        new Color(120, 170, 255),
+        new Color(255, 130, 100)
+    };
+    private static final int[] SPRITE_SIZES = {4, 4, 3, 6, 5, 5};
+    private static final float[] GRAVITY = {900f, 900f, 600f, 700f, 0f, 0f};
+    private static final float[] DRAG = {2f, 2f, 4f, 1.5f, 6f, 6f};
+    private static final int FADE_LEVELS = 4;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] life;
+    private final float[] inverseLifetime;
+    private final byte[] colorIndex;
+    private final int capacity;
+    private int count;
+
+    private final BufferedImage[][] sprites = new BufferedImage[PALETTE.length][FADE_LEVELS];
+    private final DeterministicRandom random = new DeterministicRandom(0x5EED_5A4CL);
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        life = new float[capacity];
+        inverseLifetime = new float[capacity];
+        colorIndex = new byte[capacity];
+        for (int color = 0; color < PALETTE.length; color++) {
+            for (int level = 0; level < FADE_LEVELS; level++) {
+                sprites[color][level] = renderSprite(PALETTE[color], SPRITE_SIZES[color], (level + 1f) / FADE_LEVELS);
+            }
+        }
+    }
+
+    /**
+     * Soft round dot with the given opacity.
+     */
+    private static BufferedImage renderSprite(Color color, int size, float opacity) {
+        BufferedImage sprite = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        float center = (size - 1) / 2f;
+        float radius = size / 2f;
+        for (int py = 0; py < size; py++) {
+            for (int px = 0; px < size; px++) {
+                float distance = (float) Math.hypot(px - center, py - center) / radius;
+                float alpha = Math.max(0f, 1f - distance * distance) * opacity;
+                int a = Math.round(alpha * 255f);
+                sprite.setRGB(px, py, (a << 24) | (color.getRGB() & 0xFFFFFF));
+            }
+        }
+        return sprite;
+    }
+
+    /**
+     * Spray of sparks at an impact, thrown mostly along {@code direction} (-1 left, 1 right).
+     */
+    public void emitBurst(float originX, float originY, int color, int amount, float speed, float direction, float lifetime) {
+        for (int i = 0; i < amount; i++) {
+            float angle = (random.nextFloat() - 0.5f) * 2.4f;
+            float magnitude = speed * (0.35f + random.nextFloat() * 0.65f);
+            float vx = (float) Math.cos(angle) * magnitude * direction;
+            float vy = (float) Math.sin(angle) * magnitude - speed * 0.3f;
+            spawn(originX, originY, vx, vy, color, lifetime * (0.5f + random.nextFloat() * 0.5f));
+        }
+    }
+
+    /**
+     * Ring of sparks in every direction.
+     */
+    public void emitRing(float originX, float originY, int color, int amount, float speed, float lifetime) {
+        for (int i = 0; i < amount; i++) {
+            double angle = 2.0 * Math.PI * i / amount;
+            float magnitude = speed * (0.8f + random.nextFloat() * 0.4f);
+            spawn(originX, originY, (float) Math.cos(angle) * magnitude, (float) Math.sin(angle) * magnitude,
+                    color, lifetime);
+        }
+    }
+
+    /**
+     * A few slow puffs spread over a fighter's body, drifting opposite to its motion.
+     */
+    public void emitTrail(Fighter fighter, int color, int amount) {
+        float drift = fighter.facingRight ? -60f : 60f;
+        for (int i = 0; i < amount; i++) {
+            float px = fighter.x + random.nextFloat() * fighter.getWidth();
+            float py = fighter.y + random.nextFloat() * fighter.height;
+            spawn(px, py, drift * (0.5f + random.nextFloat()), (random.nextFloat() - 0.5f) * 30f, color,
+                    0.25f + random.nextFloat() * 0.15f);
+        }
+    }
+
+    /**
+     * Add one particle; ignored when the pool is full.
+     */
+    public void spawn(float px, float py, float vx, float vy, int color, float lifetime) {
+        if (count == capacity) {
+            return;
+        }
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        life[i] = lifetime;
+        inverseLifetime[i] = 1f / lifetime;
+        colorIndex[i] = (byte) color;
+    }
+
+    public void update(float deltaTime) {
+        int i = 0;
+        while (i < count) {
+            float remaining = life[i] - deltaTime;
+            if (remaining <= 0f) {
+                count--;
+                x[i] = x[count];
+                y[i] = y[count];
+                velocityX[i] = velocityX[count];
+                velocityY[i] = velocityY[count];
+                life[i] = life[count];
+                inverseLifetime[i] = inverseLifetime[count];
+                colorIndex[i] = colorIndex[count];
+                continue;
+            }
+            life[i] = remaining;
+            int color = colorIndex[i];
+            float damping = Math.max(0f, 1f - DRAG[color] * deltaTime);
+            velocityX[i] *= damping;
+            velocityY[i] = velocityY[i] * damping + GRAVITY[color] * deltaTime;
+            x[i] += velocityX[i] * deltaTime;
+            y[i] += velocityY[i] * deltaTime;
+            i++;
+        }
+    }
+
+    /**
+     * Copy the top-left corner and sprite of every live particle that overlaps the view, so they can be drawn
+     * on another thread with {@link #render}. The arrays need {@link #getCapacity()} entries.
+     *
+     * @return number of particles written
+     */
+    public int capture(int[] drawX, int[] drawY, short[] sprite, float left, float top, float right, float bottom) {
+        int visible = 0;
+        for (int i = 0; i < count; i++) {
+            int color = colorIndex[i];
+            int size = SPRITE_SIZES[color];
+            int cornerX = (int) x[i] - (size >> 1);
+            int cornerY = (int) y[i] - (size >> 1);
+            if (cornerX + size < left || cornerX > right || cornerY + size < top || cornerY > bottom) {
+                continue;
+            }
+            int level = Math.min(FADE_LEVELS - 1, (int) (life[i] * inverseLifetime[i] * FADE_LEVELS));
+            drawX[visible] = cornerX;
+            drawY[visible] = cornerY;
+            sprite[visible] = (short) (color * FADE_LEVELS + level);
+            visible++;
+        }
+        return visible;
+    }
+
+    /**
+     * Draw particles captured by {@link #capture}. Only reads the immutable sprites, so any thread may call it.
+     */
+    public void render(Graphics2D g2d, int[] drawX, int[] drawY, short[] sprite, int particleCount) {
+        for (int i = 0; i < particleCount; i++) {
+            g2d.drawImage(sprites[sprite[i] / FADE_LEVELS][sprite[i] % FADE_LEVELS], drawX[i], drawY[i], null);
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Take over the live particles of a system with at least as much capacity.
+     */
+    public void copyFrom(ParticleSystem other) {
+        count = other.count;
+        System.arraycopy(other.x, 0, x, 0, count);
+        System.arraycopy(other.y, 0, y, 0, count);
+        System.arraycopy(other.velocityX, 0, velocityX, 0, count);
+        System.arraycopy(other.velocityY, 0, velocityY, 0, count);
+        System.arraycopy(other.life, 0, life, 0, count);
+        System.arraycopy(other.inverseLifetime, 0, inverseLifetime, 0, count);
+        System.arraycopy(other.colorIndex, 0, colorIndex, 0, count);
+        random.copyFrom(other.random);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,106 @@
+package com.tekki.core;
+
+import java.util.Locale;
+
+/**
+ * Compares float and fixed-point fighter physics and checks that fixed-point runs are bit-identical.
+ * <p>
+ * Run from the folder containing the project (like the game) with
+ * {@code java com.tekki.core.PhysicsBenchmark [fighters] [ticks]}.
+ */
+public final class PhysicsBenchmark {
+
+    private static final float DELTA_TIME = 1f / 60f;
+
+    private PhysicsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int fighterCount = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        // Warm up both paths so the measured runs compare compiled code.
+        for (int i = 0; i < 3; i++) {
+            run(PhysicsMode.FLOAT, fighterCount, ticks / 4);
+            run(PhysicsMode.FIXED, fighterCount, ticks / 4);
+        }
+
+        for (PhysicsMode mode : PhysicsMode.values()) {
+            long start = System.nanoTime();
+            long hash = run(mode, fighterCount, ticks);
+            long elapsed = System.nanoTime() - start;
+            double nsPerUpdate = elapsed / (double) ((long) fighterCount * ticks);
+            System.out.printf(Locale.ROOT, "%-5s %8.2f ns/fighter-tick  state hash %016x%n", mode, nsPerUpdate, hash);
+        }
+
+        long first = run(PhysicsMode.FIXED, fighterCount, ticks);
+        long second = run(PhysicsMode.FIXED, fighterCount, ticks);
+        System.out.println(first == second ? "FIXED runs are bit-identical" : "FIXED runs DIFFER");
+    }
+
+    /**
+     * Drive a crowd of fighters with a scripted input pattern and hash the final state.
+     */
+    private static long run(PhysicsMode mode, int fighterCount, int ticks) {
+        BenchFighter[] fighters = new BenchFighter[fighterCount];
+        for (int i = 0; i < fighterCount; i++) {
+            fighters[i] = new BenchFighter(100f + i * 3.7f);
+            fighters[i].setGroundFromFloorTop(660f);
+            fighters[i].snapToGround();
+            fighters[i].setPhysicsMode(mode);
+        }
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int i = 0; i < fighterCount; i++) {
+                BenchFighter fighter = fighters[i];
+                int phase = (tick + i * 7) % 240;
+                if (phase < 90) {
+                    fighter.moveRight();
+                } else if (phase < 180) {
+                    fighter.moveLeft();
+                } else {
+                    fighter.stopMoving();
+                }
+                if (phase % 75 == 0) {
+                    fighter.jump();
+                }
+                if (phase % 55 == 0) {
+                    fighter.startAttack();
+                }
+                if (phase == 130) {
+                    fighter.takeHit(1, 0.2f, 12f, fighter.getCenterX() + 1f);
+                }
+                fighter.update(DELTA_TIME);
+            }
+        }
+        long hash = 1125899906842597L;
+        for (BenchFighter fighter : fighters) {
+            hash = 31 * hash + Float.floatToIntBits(fighter.x);
+            hash = 31 * hash + Float.floatToIntBits(fighter.y);
+            hash = 31 * hash + Float.floatToIntBits(fighter.yVelocity);
+            hash = 31 * hash + fighter.getState().ordinal();
+        }
+        return hash;
+    }
+
+    /**
+     * Sprite-less fighter so the benchmark measures physics only.
+     */
+    private static final class BenchFighter extends Fighter {
+
+        private final int attackMove = moves.idOf("player_attack1");
+
+        BenchFighter(float startX) {
+            super(startX, 0f, 96, 64, 1_000_000, null);
+        }
+
+        @Override
+        protected int nextAttackMove() {
+            return attackMove;
+        }
+
+        @Override
+        protected void captureSprite(FighterView view) {
+            view.clearSprite();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.tekki.core;
+
+/**
+ * How a fighter integrates positions, velocities and timers.
+ */
+public enum PhysicsMode {
+    /** Plain float integration; the default for interactive play. */
+    FLOAT,
+    /** 16.16 fixed-point integration for deterministic replays and lockstep sessions. */
+    FIXED
+}
@@ -1,10 +1,6 @@
 package com.tekki.core;
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 
 /**
  * Fighter controlled by player input.
@@ -26,20 +22,32 @@ public class PlayerFighter extends Fighter {
     private float dashCooldownTimer = 0f;
     private boolean hasAirDashAvailable = true;
 
-    private SpriteAnimation idleAnimation;
-    private SpriteAnimation runAnimation;
-    private SpriteAnimation jumpAnimation;
-    private SpriteAnimation fallAnimation;
-    private SpriteAnimation attack1Animation;
-    private SpriteAnimation attack2Animation;
-    private SpriteAnimation takeHitAnimation;
-    private SpriteAnimation deathAnimation;
-    private SpriteAnimation criticalHitEffect;
-    private SpriteAnimation currentAnimation;
-    private SpriteAnimation activeAttackAnimation;
-    private boolean useFirstAttackNext = true;
+    /** White silhouettes of the player's clips, flashed over the sprite during a critical hit. */
+    private AnimationClip[] criticalHitClips;
+    /** Commands in priority order; leniency is the allowed gap in frames between two steps. */
+    private static final CommandPattern[] COMMANDS = {
+            CommandPattern.compile("player_special", "2 3 6 J", 8),
+            CommandPattern.compile("player_attack3", "J J J", 20),
+            CommandPattern.compile("player_attack2", "J J", 20),
+            CommandPattern.compile("player_attack1", "J", 1),
+            CommandPattern.compile("dash_forward", "6 5 6", 10)
+    };
+    /** How long a recognised command waits for the fighter to become able to perform it. */
+    private static final int COMMAND_BUFFER_FRAMES = 6;
+
+    private final CommandParser commandParser = new CommandParser(COMMANDS);
+    /** Move started by each command, or -1 for the forward dash. */
+    private final int[] commandMoves = new int[COMMANDS.length];
+    private int bufferedCommand = -1;
+    private int bufferFramesLeft;
+    private boolean bufferedFacingRight;
+    private final int attack1Move = moves.idOf("player_attack1");
 
     public PlayerFighter(float startX, float startY, CharacterProfile profile) {
+        this(startX, startY, profile, true);
+    }
+
+    private PlayerFighter(float startX, float startY, CharacterProfile profile, boolean loadSprites) {
         super(
                 startX,
                 startY,
@@ -49,63 +57,119 @@ public class PlayerFighter extends Fighter {
                 profile
         );
 
-        loadAnimations();
+        if (loadSprites) {
+            AnimationClip[] clips = AnimationLibrary.variantClips(AnimationLibrary.playerClips(),
+                    profile != null ? profile.getCostume() : null);
+            this.animator = new FighterAnimator(clips);
+            this.criticalHitClips = AnimationLibrary.variantClips(clips, SpriteVariant.WHITE_SILHOUETTE);
+        }
 
         this.name = profile != null ? profile.getName() : "Player 1";
-        this.currentAnimation = idleAnimation;
+        for (int i = 0; i < COMMANDS.length; i++) {
+            commandMoves[i] = moves.idOf(COMMANDS[i].getName());
+        }
+    }
+
+    /**
+     * Sprite-less copy with the current state, for simulations off the render path.
+     */
+    public PlayerFighter copyWithoutSprites() {
+        PlayerFighter copy = new PlayerFighter(x, y, profile, false);
+        copy.copyStateFrom(this);
+        return copy;
     }
 
     /**
-     * Helper to load a sprite sheet from a file path relative to the project root.
+     * Copies dash and buffered-command state as well; the command parser's input history is only copied by
+     * {@link #copyInputHistoryFrom}.
      */
-    private BufferedImage loadSpriteFromFile(String relativePath) {
-        File file = new File(relativePath);
-        if (!file.exists()) {
-            throw new IllegalStateException("Sprite file not found: " + file.getAbsolutePath());
+    @Override
+    public void copyStateFrom(Fighter other) {
+        super.copyStateFrom(other);
+        if (other instanceof PlayerFighter player) {
+            isDashing = player.isDashing;
+            dashTimer = player.dashTimer;
+            dashCooldownTimer = player.dashCooldownTimer;
+            hasAirDashAvailable = player.hasAirDashAvailable;
+            bufferedCommand = player.bufferedCommand;
+            bufferFramesLeft = player.bufferFramesLeft;
+            bufferedFacingRight = player.bufferedFacingRight;
         }
-        try {
-            return ImageIO.read(file);
-        } catch (IOException e) {
-            throw new IllegalStateException("Could not read sprite file: " + file.getAbsolutePath(), e);
+    }
+
+    @Override
+    void syncState(StateBuffer buffer) {
+        super.syncState(buffer);
+        isDashing = buffer.sync(isDashing);
+        dashTimer = buffer.sync(dashTimer);
+        dashCooldownTimer = buffer.sync(dashCooldownTimer);
+        hasAirDashAvailable = buffer.sync(hasAirDashAvailable);
+        bufferedCommand = buffer.sync(bufferedCommand);
+        bufferFramesLeft = buffer.sync(bufferFramesLeft);
+        bufferedFacingRight = buffer.sync(bufferedFacingRight);
+        commandParser.syncState(buffer);
+    }
+
+    /**
+     * Feed this tick's input to the command parser and buffer any command it completes.
+     */
+    public void readCommands(InputFrame input) {
+        int command = commandParser.update(input, facingRight);
+        if (command >= 0) {
+            bufferedCommand = command;
+            bufferedFacingRight = commandParser.isLastMatchFacingRight();
+            bufferFramesLeft = COMMAND_BUFFER_FRAMES;
         }
     }
 
-    private void loadAnimations() {
-        BufferedImage idleSheet    = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Idle.png");
-        BufferedImage runSheet     = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Run.png");
-        BufferedImage jumpSheet    = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Jump.png");
-        BufferedImage fallSheet    = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Fall.png");
-        BufferedImage attack1Sheet = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Attack1.png");
-        BufferedImage attack2Sheet = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Attack2.png");
-        BufferedImage takeHitSheet = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Take Hit.png");
-        BufferedImage deathSheet   = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Death.png");
-        BufferedImage critSheet    = loadSpriteFromFile("Tekki/src/main/resources/sprites/player/Take Hit - white silhouette.png");
-
-        idleAnimation = new SpriteAnimation(idleSheet, 8, 0.12f, true);
-        runAnimation = new SpriteAnimation(runSheet, 8, 0.08f, true);
-        jumpAnimation = new SpriteAnimation(jumpSheet, 2, 0.1f, false);
-        fallAnimation = new SpriteAnimation(fallSheet, 2, 0.1f, false);
-        attack1Animation = new SpriteAnimation(attack1Sheet, 6, 0.04f, false);
-        attack2Animation = new SpriteAnimation(attack2Sheet, 6, 0.07f, false);
-        takeHitAnimation = new SpriteAnimation(takeHitSheet, 4, 0.09f, false);
-        deathAnimation = new SpriteAnimation(deathSheet, 6, 0.12f, false);
-        criticalHitEffect = new SpriteAnimation(critSheet, 4, 0.05f, true);
-
-        currentAnimation = idleAnimation;
+    /**
+     * Take over another player's recent inputs, so commands in progress complete the same way.
+     */
+    public void copyInputHistoryFrom(PlayerFighter other) {
+        commandParser.copyFrom(other.commandParser);
     }
 
-    public void startDash() {
-        if (state == FighterState.DEFENDING || state == FighterState.DASHING || state == FighterState.KO || state == FighterState.HIT || dashCooldownTimer > 0f) {
+    /**
+     * Forget recent inputs, e.g. when a new round starts.
+     */
+    public void clearInputHistory() {
+        commandParser.reset();
+        bufferedCommand = -1;
+    }
+
+    /**
+     * Perform the buffered command as soon as the current state allows it, or let it expire.
+     */
+    public void executeBufferedCommand() {
+        if (bufferedCommand < 0) {
             return;
         }
-        if (!onGround && !hasAirDashAvailable) {
+        int move = commandMoves[bufferedCommand];
+        boolean performed = false;
+        if (move >= 0 ? canPerform(FighterAction.ATTACK) : canDash()) {
+            facingRight = bufferedFacingRight;
+            if (move >= 0) {
+                startMove(move);
+            } else {
+                startDash();
+            }
+            performed = true;
+        }
+        bufferFramesLeft--;
+        if (performed || bufferFramesLeft <= 0) {
+            bufferedCommand = -1;
+        }
+    }
+
+    public void startDash() {
+        if (!canDash()) {
             return;
         }
         isDashing = true;
         dashTimer = dashDuration;
         dashCooldownTimer = 0f;
         speedX = facingRight ? dashSpeed : -dashSpeed;
-        state = FighterState.DASHING;
+        state = FighterTransitions.next(FighterAction.DASH, state);
         if (!onGround) {
             hasAirDashAvailable = false;
         }
@@ -119,34 +183,30 @@ public class PlayerFighter extends Fighter {
         super.stopDefending();
     }
 
+    private boolean canDash() {
+        return canPerform(FighterAction.DASH) && dashCooldownTimer <= 0f && (onGround || hasAirDashAvailable);
+    }
+
     @Override
-    public void startAttack() {
-        FighterState previousState = state;
-        super.startAttack();
-        if (state == FighterState.ATTACKING && previousState != FighterState.ATTACKING) {
-            activeAttackAnimation = useFirstAttackNext ? attack1Animation : attack2Animation;
-            if (activeAttackAnimation != null) {
-                activeAttackAnimation.reset();
-            }
-            useFirstAttackNext = !useFirstAttackNext;
-        }
+    protected int nextAttackMove() {
+        return attack1Move;
     }
 
     @Override
     public void update(float deltaTime) {
         if (state == FighterState.KO) {
-            updateCurrentAnimation(deltaTime);
+            beginStep();
+            updateAnimation(deltaTime);
             updateCriticalEffect(deltaTime);
-            updateCriticalEffectAnimation(deltaTime);
             return;
         }
 
         if (dashCooldownTimer > 0f) {
-            dashCooldownTimer -= deltaTime;
+            dashCooldownTimer = countDown(dashCooldownTimer, deltaTime);
         }
 
         if (isDashing) {
-            dashTimer -= deltaTime;
+            dashTimer = countDown(dashTimer, deltaTime);
             if (dashTimer <= 0f) {
                 isDashing = false;
                 dashCooldownTimer = dashCooldown;
@@ -158,41 +218,16 @@ public class PlayerFighter extends Fighter {
         }
 
         super.update(deltaTime);
-        updateCurrentAnimation(deltaTime);
-        updateCriticalEffectAnimation(deltaTime);
-    }
-
-    private void updateCurrentAnimation(float deltaTime) {
-        SpriteAnimation nextAnimation = idleAnimation;
-
-        if (state == FighterState.KO) {
-            nextAnimation = deathAnimation;
-        } else if (state == FighterState.HIT) {
-            nextAnimation = takeHitAnimation;
-        } else if (state == FighterState.ATTACKING) {
-            nextAnimation = activeAttackAnimation != null ? activeAttackAnimation : attack1Animation;
-        } else if (state == FighterState.JUMPING || !onGround) {
-            nextAnimation = yVelocity < 0 ? jumpAnimation : fallAnimation;
-        } else if (state == FighterState.WALKING || state == FighterState.DASHING) {
-            nextAnimation = runAnimation;
-        }
-
-        if (nextAnimation != currentAnimation && nextAnimation != null) {
-            nextAnimation.reset();
-        }
-
-        currentAnimation = nextAnimation;
-
-        if (currentAnimation != null) {
-            currentAnimation.update(deltaTime);
-        }
+        updateAnimation(deltaTime);
     }
 
     @Override
-    public void render(Graphics2D g2d) {
-        BufferedImage frame = currentAnimation != null
-                ? currentAnimation.getCurrentFrame()
-                : idleAnimation.getCurrentFrame();
+    protected void captureSprite(FighterView view) {
+        BufferedImage frame = animator != null ? animator.getCurrentFrame() : null;
+        if (frame == null) {
+            view.clearSprite();
+            return;
+        }
 
         int drawWidth = (int) (frame.getWidth() * RENDER_SCALE);
         int drawHeight = (int) (frame.getHeight() * RENDER_SCALE);
@@ -204,25 +239,8 @@ public class PlayerFighter extends Fighter {
         float centerX = getCenterX();
         int drawX = Math.round(centerX - drawWidth / 2f);
 
-        if (facingRight) {
-            g2d.drawImage(frame, drawX, drawY, drawWidth, drawHeight, null);
-        } else {
-            g2d.drawImage(frame, drawX + drawWidth, drawY, -drawWidth, drawHeight, null);
-        }
-
-        if (isCriticalEffectActive() && criticalHitEffect != null) {
-            BufferedImage critFrame = criticalHitEffect.getCurrentFrame();
-            int critDrawWidth = (int) (critFrame.getWidth() * RENDER_SCALE);
-            int critDrawHeight = (int) (critFrame.getHeight() * RENDER_SCALE);
-            int critDrawY = drawY;
-            int critDrawX = drawX;
-
-            if (facingRight) {
-                g2d.drawImage(critFrame, critDrawX, critDrawY, critDrawWidth, critDrawHeight, null);
-            } else {
-                g2d.drawImage(critFrame, critDrawX + critDrawWidth, critDrawY, -critDrawWidth, critDrawHeight, null);
-            }
-        }
+        BufferedImage overlay = isCriticalFlashVisible() ? animator.getCurrentFrame(criticalHitClips) : null;
+        view.setSprite(frame, overlay, drawX, drawY, drawWidth, drawHeight, facingRight);
     }
 
     public float getDashCooldown() {
@@ -237,19 +255,6 @@ public class PlayerFighter extends Fighter {
         return dashCooldownTimer <= 0f;
     }
 
-    @Override
-    protected void onCriticalHitTriggered() {
-        if (criticalHitEffect != null) {
-            criticalHitEffect.reset();
-        }
-    }
-
-    private void updateCriticalEffectAnimation(float deltaTime) {
-        if (isCriticalEffectActive() && criticalHitEffect != null) {
-            criticalHitEffect.update(deltaTime);
-        }
-    }
-
     @Override
     protected void onLanding() {
         hasAirDashAvailable = true;
@@ -0,0 +1,102 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline tool that distills {@link RolloutSearch} into a {@link PolicyTable}.
+ * <p>
+ * It plays headless matches of the dice AI against a random player. At every enemy decision the situation
+ * is labelled with the best candidate per aggression band, found with a fixed number of rollouts, and the
+ * label with most votes wins. The dice keep steering the match so situations are visited the way real
+ * fights visit them. Run from the directory containing {@code Tekki/}:
+ * <pre>
+ * java com.tekki.core.PolicyDistiller [matches] [rolloutsPerCandidate] [output]
+ * </pre>
+ */
+public final class PolicyDistiller {
+
+    private static final float DELTA_TIME = 1f / 60f;
+    private static final int MAX_TICKS = 60 * 60;
+
+    private PolicyDistiller() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int rolloutsPerCandidate = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        File output = new File(args.length > 2 ? args[2] : "Tekki/src/main/resources/ai/policy.bin");
+
+        int bands = PolicyTable.BAND_AGGRESSION.length;
+        int candidates = RolloutSearch.CANDIDATES.length;
+        int[] votes = new int[bands * PolicyTable.SITUATIONS * candidates];
+        DeterministicRandom random = new DeterministicRandom(0x5EEDL);
+        long decisions = 0;
+        long start = System.nanoTime();
+
+        // The shipped stages with their starting positions and bounds, in the game's default physics.
+        List<Level> levels = Campaign.levels();
+        Match[] templates = new Match[levels.size()];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = Campaign.newMatch(levels.get(i), i, PhysicsMode.FLOAT, 0L, 0L).copyWithoutSprites();
+        }
+
+        for (int m = 0; m < matches; m++) {
+            Match match = templates[m % templates.length].copyWithoutSprites();
+            long seed = random.nextLong();
+            match.reseed(seed);
+            match.getEnemy().reseed(seed);
+            Match snapshot = match.copyWithoutSprites();
+            RolloutSearch search = new RolloutSearch(match, DELTA_TIME, random.nextLong());
+            long[] decided = new long[1];
+            match.getEnemy().setBrain((self, opponent) -> {
+                int situation = PolicyTable.situationIndex(self, opponent);
+                snapshot.copyFrom(match);
+                search.reset();
+                for (int r = 0; r < rolloutsPerCandidate; r++) {
+                    for (int c = 0; c < candidates; c++) {
+                        search.rollout(snapshot, c);
+                    }
+                }
+                for (int band = 0; band < bands; band++) {
+                    int best = search.best(PolicyTable.BAND_AGGRESSION[band]);
+                    votes[(band * PolicyTable.SITUATIONS + situation) * candidates + best]++;
+                }
+                decided[0]++;
+                return null;
+            });
+
+            PlayerFighter player = match.getPlayer();
+            EnemyFighter enemy = match.getEnemy();
+            for (int t = 0; t < MAX_TICKS && !match.isOver(); t++) {
+                if (t % 12 == 0) {
+                    RolloutSearch.driveRandomly(player, enemy, random);
+                }
+                match.step(DELTA_TIME);
+            }
+            decisions += decided[0];
+        }
+
+        byte[] actions = new byte[bands * PolicyTable.SITUATIONS];
+        Arrays.fill(actions, PolicyTable.UNKNOWN);
+        int covered = 0;
+        for (int entry = 0; entry < actions.length; entry++) {
+            int bestVotes = 0;
+            for (int c = 0; c < candidates; c++) {
+                int v = votes[entry * candidates + c];
+                if (v > bestVotes) {
+                    bestVotes = v;
+                    actions[entry] = (byte) c;
+                }
+            }
+            if (bestVotes > 0) {
+                covered++;
+            }
+        }
+        new PolicyTable(actions).save(output);
+        System.out.printf("%d matches, %d decisions, %d/%d entries covered in %.1f s -> %s%n", matches, decisions,
+                covered, actions.length, (System.nanoTime() - start) / 1e9, output.getPath());
+    }
+}
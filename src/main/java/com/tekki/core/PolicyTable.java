@@ -0,0 +1,144 @@
+package com.tekki.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Precomputed enemy policy: the best {@link AiAction} for every discretized situation, one byte each.
+ * <p>
+ * A situation packs the distance bucket, both fighters' {@link FighterState}, the enemy's attack and dash
+ * readiness and both airborne flags into an index. The table holds one band per aggression weight so that
+ * a level's {@code enemyAggression} picks how much the policy values damage dealt over damage taken.
+ * Generated offline by {@link PolicyDistiller}, which stamps the table with the simulation version it played;
+ * the bundled table is only used while that still matches {@link Replay#VERSION}.
+ */
+public final class PolicyTable {
+
+    /** Aggression weight each band was distilled with. */
+    static final float[] BAND_AGGRESSION = {0.5f, 1.0f, 2.0f};
+    /** Upper bounds of the distance buckets; the last bucket is open-ended. */
+    private static final float[] DISTANCE_EDGES = {40f, 70f, 95f, 110f, 140f, 200f, 300f};
+    private static final int DISTANCE_BUCKETS = DISTANCE_EDGES.length + 1;
+    private static final int STATE_COUNT = FighterState.values().length;
+    static final int SITUATIONS = DISTANCE_BUCKETS * STATE_COUNT * STATE_COUNT * 16;
+    /** Entry for situations never seen while distilling; the enemy falls back to its dice rolls. */
+    static final byte UNKNOWN = -1;
+
+    private static final int MAGIC = 0x544B5054; // "TKPT"
+    private static final int VERSION = 2;
+    private static final String DEFAULT_PATH = "Tekki/src/main/resources/ai/policy.bin";
+    private static PolicyTable defaultTable;
+
+    private final byte[] actions;
+
+    PolicyTable(byte[] actions) {
+        if (actions.length != BAND_AGGRESSION.length * SITUATIONS) {
+            throw new IllegalStateException("Policy table has " + actions.length + " entries, expected "
+                    + BAND_AGGRESSION.length * SITUATIONS);
+        }
+        this.actions = actions;
+    }
+
+    /**
+     * Shared table loaded from the bundled policy on first use. A missing or stale table is reported and
+     * replaced by one that knows no situation, so the enemy decides with its dice rolls.
+     */
+    public static synchronized PolicyTable getDefault() {
+        if (defaultTable == null) {
+            try {
+                defaultTable = load(new File(DEFAULT_PATH));
+            } catch (IllegalStateException e) {
+                System.err.println("Policy AI falls back to dice rolls: " + e.getMessage());
+                byte[] unknown = new byte[BAND_AGGRESSION.length * SITUATIONS];
+                Arrays.fill(unknown, UNKNOWN);
+                defaultTable = new PolicyTable(unknown);
+            }
+        }
+        return defaultTable;
+    }
+
+    public static PolicyTable load(File file) {
+        if (!file.exists()) {
+            throw new IllegalStateException("Policy table not found: " + file.getAbsolutePath());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("Not a version " + VERSION + " policy table: " + file.getAbsolutePath());
+            }
+            int simulation = in.readInt();
+            if (simulation != Replay.VERSION) {
+                throw new IllegalStateException("Policy table was distilled for simulation version " + simulation
+                        + ", this is version " + Replay.VERSION + "; re-run PolicyDistiller");
+            }
+            int bands = in.readInt();
+            int situations = in.readInt();
+            if (bands != BAND_AGGRESSION.length || situations != SITUATIONS) {
+                throw new IllegalStateException("Policy table layout " + bands + "x" + situations
+                        + " does not match the current situation encoding; re-run PolicyDistiller");
+            }
+            byte[] actions = new byte[bands * situations];
+            in.readFully(actions);
+            return new PolicyTable(actions);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read policy table: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(Replay.VERSION);
+            out.writeInt(BAND_AGGRESSION.length);
+            out.writeInt(SITUATIONS);
+            out.write(actions);
+        }
+    }
+
+    /**
+     * Brain that looks its decisions up in the band closest to the given aggression.
+     */
+    public EnemyBrain brain(float aggression) {
+        int band = bandFor(aggression);
+        return (self, opponent) -> lookup(band, situationIndex(self, opponent));
+    }
+
+    AiAction lookup(int band, int situation) {
+        byte action = actions[band * SITUATIONS + situation];
+        return action == UNKNOWN ? null : RolloutSearch.CANDIDATES[action];
+    }
+
+    static int bandFor(float aggression) {
+        int best = 0;
+        for (int i = 1; i < BAND_AGGRESSION.length; i++) {
+            if (Math.abs(BAND_AGGRESSION[i] - aggression) < Math.abs(BAND_AGGRESSION[best] - aggression)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    static int situationIndex(EnemyFighter self, PlayerFighter opponent) {
+        float distance = Math.abs(opponent.getCenterX() - self.getCenterX());
+        int bucket = 0;
+        while (bucket < DISTANCE_EDGES.length && distance > DISTANCE_EDGES[bucket]) {
+            bucket++;
+        }
+        int flags = (self.isAttackReady() ? 8 : 0)
+                | (self.isDashReady() ? 4 : 0)
+                | (self.isOnGround() ? 0 : 2)
+                | (opponent.isOnGround() ? 0 : 1);
+        return ((bucket * STATE_COUNT + self.getState().ordinal()) * STATE_COUNT + opponent.getState().ordinal()) * 16
+                + flags;
+    }
+}
@@ -0,0 +1,97 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * Everything {@link GamePanel} draws for one tick, written by the simulation thread and read by the painter.
+ * <p>
+ * Instances are preallocated and recycled through a {@link TripleBuffer}; once published a snapshot is not
+ * written again until the painter has moved on to a newer one.
+ */
+final class RenderSnapshot {
+
+    GameState gameState = GameState.MENU;
+    long frameCounter;
+    /** Which of the two colors the blinking menu prompt shows. */
+    boolean promptHighlighted;
+    int score;
+
+    int levelIndex;
+    int levelCount;
+    String levelName;
+    String nextLevelName;
+    Color backgroundColor;
+    Color floorColor;
+    List<BackgroundLayer> backgroundLayers = List.of();
+    boolean showingStageIntro;
+    /** Remaining share of the stage intro and KO overlay, 1 when they start and 0 when gone. */
+    float stageIntroFade;
+    float koOverlayFade;
+
+    /** World rectangle on screen, see {@link Camera}. */
+    float cameraLeft;
+    float cameraTop;
+    float cameraRight;
+    float cameraBottom;
+    float cameraZoom = 1f;
+    float cameraVelocityX;
+    int stageWidth = Campaign.ARENA_WIDTH;
+
+    boolean hasFighters;
+    final FighterView player = new FighterView();
+    final FighterView enemy = new FighterView();
+    float dashCooldown;
+    float dashCooldownTimer;
+    boolean dashReady;
+
+    /** High scores for the menu and end screens, or null without a leaderboard. */
+    Leaderboard.Standings standings;
+    String profileName;
+
+    /** Time-travel debugger status while paused, otherwise null. */
+    String historyLabel;
+
+    boolean showInputStats;
+    double inputAverageMillis;
+    double inputP99Millis;
+    double inputMaxMillis;
+    long inputEventCount;
+    long inputDroppedCount;
+
+    int particleCount;
+    final int[] particleX;
+    final int[] particleY;
+    final short[] particleSprite;
+
+    RenderSnapshot(int particleCapacity) {
+        particleX = new int[particleCapacity];
+        particleY = new int[particleCapacity];
+        particleSprite = new short[particleCapacity];
+    }
+
+    /**
+     * Capture the view, the fighters, the player's dash meter and the particles in view; fighters may be null
+     * between fights.
+     */
+    void captureFight(PlayerFighter playerFighter, EnemyFighter enemyFighter, ParticleSystem particles,
+                      Camera camera) {
+        cameraLeft = camera.getLeft();
+        cameraTop = camera.getTop();
+        cameraRight = camera.getRight();
+        cameraBottom = camera.getBottom();
+        cameraZoom = camera.getZoom();
+        cameraVelocityX = camera.getVelocityX();
+        stageWidth = (int) camera.getStageWidth();
+        hasFighters = playerFighter != null && enemyFighter != null;
+        if (hasFighters) {
+            playerFighter.capture(player);
+            enemyFighter.capture(enemy);
+            dashCooldown = playerFighter.getDashCooldown();
+            dashCooldownTimer = playerFighter.getDashCooldownTimer();
+            dashReady = playerFighter.isDashReady();
+        }
+        particleCount = particles.capture(particleX, particleY, particleSprite, cameraLeft, cameraTop, cameraRight,
+                cameraBottom);
+    }
+}
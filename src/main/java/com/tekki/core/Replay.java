@@ -0,0 +1,140 @@
+package com.tekki.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Recording of one stage: how the fight was set up plus the input applied to the player on every tick.
+ * <p>
+ * Re-simulating the inputs from the same setup reproduces the fight exactly, so a replay is a few bytes per tick.
+ * Fights against the lookahead AI or an external enemy bot are not reproducible and are not recorded.
+ */
+public final class Replay {
+
+    private static final int MAGIC = 0x544B5250; // "TKRP"
+    /** Bumped with every change to the file format or the simulation; policy tables record it as well. */
+    static final int VERSION = 5;
+
+    private final int levelIndex;
+    private final PhysicsMode physicsMode;
+    private final AiMode aiMode;
+    private final long matchSeed;
+    private final long enemySeed;
+    private final int tickRate;
+    private int[] held = new int[1024];
+    private int[] pressed = new int[1024];
+    private int[] released = new int[1024];
+    private int ticks;
+
+    public Replay(int levelIndex, PhysicsMode physicsMode, AiMode aiMode, long matchSeed, long enemySeed, int tickRate) {
+        if (aiMode == AiMode.LOOKAHEAD) {
+            throw new IllegalArgumentException("Lookahead fights depend on thread timing and cannot be replayed");
+        }
+        this.levelIndex = levelIndex;
+        this.physicsMode = physicsMode;
+        this.aiMode = aiMode;
+        this.matchSeed = matchSeed;
+        this.enemySeed = enemySeed;
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Append the input applied on the next tick.
+     */
+    public void record(InputFrame input) {
+        if (ticks == held.length) {
+            held = Arrays.copyOf(held, ticks * 2);
+            pressed = Arrays.copyOf(pressed, ticks * 2);
+            released = Arrays.copyOf(released, ticks * 2);
+        }
+        held[ticks] = input.getHeld();
+        pressed[ticks] = input.getPressed();
+        released[ticks] = input.getReleased();
+        ticks++;
+    }
+
+    /**
+     * Input of a tick, 0-based.
+     */
+    public InputFrame input(int tick) {
+        return new InputFrame(tick, held[tick], pressed[tick], released[tick], 0L);
+    }
+
+    /**
+     * The stage's match in its starting state, with sprites.
+     */
+    public Match newMatch() {
+        Match match = Campaign.newMatch(Campaign.levels().get(levelIndex), levelIndex, physicsMode, matchSeed, enemySeed);
+        if (aiMode == AiMode.POLICY) {
+            match.getEnemy().setBrain(PolicyTable.getDefault().brain(match.getEnemy().getAggression()));
+        }
+        return match;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public void save(File file) {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(levelIndex);
+                out.writeUTF(physicsMode.name());
+                out.writeUTF(aiMode.name());
+                out.writeLong(matchSeed);
+                out.writeLong(enemySeed);
+                out.writeInt(tickRate);
+                out.writeInt(ticks);
+                for (int i = 0; i < ticks; i++) {
+                    out.writeInt(held[i]);
+                    out.writeInt(pressed[i]);
+                    out.writeInt(released[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write replay: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    public static Replay load(File file) {
+        if (!file.exists()) {
+            throw new IllegalStateException("Replay not found: " + file.getAbsolutePath());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("Not a version " + VERSION + " replay: " + file.getAbsolutePath());
+            }
+            int levelIndex = in.readInt();
+            PhysicsMode physicsMode = PhysicsMode.valueOf(in.readUTF());
+            AiMode aiMode = AiMode.valueOf(in.readUTF());
+            Replay replay = new Replay(levelIndex, physicsMode, aiMode, in.readLong(), in.readLong(), in.readInt());
+            int ticks = in.readInt();
+            for (int i = 0; i < ticks; i++) {
+                replay.record(new InputFrame(i, in.readInt(), in.readInt(), in.readInt(), 0L));
+            }
+            return replay;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read replay: " + file.getAbsolutePath(), e);
+        }
+    }
+}
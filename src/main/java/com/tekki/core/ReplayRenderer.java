@@ -0,0 +1,133 @@
+package com.tekki.core;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+/**
+ * Offline tool that renders a {@link Replay} to a numbered PNG sequence using every core.
+ * <p>
+ * A quick pass without drawing re-simulates the replay and keeps a copy of the session every
+ * {@code keyframeInterval} ticks. Each stretch between keyframes is then an independent job: a worker restores
+ * the keyframe into its own session and renders the stretch with its own image and renderer, so output is
+ * identical to a single-threaded render. Run from the directory containing {@code Tekki/}:
+ * <pre>
+ * java com.tekki.core.ReplayRenderer replay.tkrp [outputDir] [threads] [keyframeInterval]
+ * </pre>
+ */
+public final class ReplayRenderer {
+
+    /** Shared by the workers; every frame waits for its background tiles. */
+    private static final TileCache TILES = new TileCache(TileCache.DEFAULT_CAPACITY);
+
+    private ReplayRenderer() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRenderer replay.tkrp [outputDir] [threads] [keyframeInterval]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+        Replay replay = Replay.load(new File(args[0]));
+        File output = new File(args.length > 1 ? args[1] : "replay-frames");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int keyframeInterval = args.length > 3 ? Integer.parseInt(args[3]) : 120;
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IllegalStateException("Could not create output folder: " + output.getAbsolutePath());
+        }
+
+        long start = System.nanoTime();
+        List<ReplaySession> keyframes = recordKeyframes(replay, keyframeInterval);
+        long simulated = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tekki-replay-render");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(replay));
+        List<Future<?>> jobs = new ArrayList<>();
+        for (int k = 0; k < keyframes.size(); k++) {
+            ReplaySession keyframe = keyframes.get(k);
+            int end = Math.min(replay.getTicks(), (k + 1) * keyframeInterval);
+            jobs.add(pool.submit(() -> {
+                workers.get().render(keyframe, end, output);
+                return null;
+            }));
+        }
+        for (Future<?> job : jobs) {
+            job.get();
+        }
+        pool.shutdown();
+        long rendered = System.nanoTime();
+
+        System.out.printf(Locale.ROOT, "%d frames, %d keyframes, %d threads: simulate %.0f ms, render %.0f ms (%.1f fps)%n",
+                replay.getTicks(), keyframes.size(), threads, (simulated - start) / 1e6, (rendered - simulated) / 1e6,
+                replay.getTicks() / ((rendered - simulated) / 1e9));
+    }
+
+    /**
+     * Session copies at ticks 0, interval, 2 * interval and so on.
+     */
+    static List<ReplaySession> recordKeyframes(Replay replay, int keyframeInterval) {
+        List<ReplaySession> keyframes = new ArrayList<>();
+        ReplaySession session = new ReplaySession(replay);
+        while (session.getTick() < replay.getTicks()) {
+            if (session.getTick() % keyframeInterval == 0) {
+                ReplaySession keyframe = new ReplaySession(replay);
+                keyframe.copyFrom(session);
+                keyframes.add(keyframe);
+            }
+            session.step();
+        }
+        return keyframes;
+    }
+
+    /**
+     * Per-thread session, snapshot, image and renderer.
+     */
+    private static final class Worker {
+
+        private final ReplaySession session;
+        private final RenderSnapshot snapshot;
+        private final FightRenderer renderer;
+        private final BufferedImage image =
+                new BufferedImage(Campaign.ARENA_WIDTH, Campaign.ARENA_HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        Worker(Replay replay) {
+            session = new ReplaySession(replay);
+            snapshot = new RenderSnapshot(session.getParticles().getCapacity());
+            renderer = new FightRenderer(session.getParticles(), TILES, true);
+        }
+
+        /**
+         * Frames from the keyframe's tick up to {@code end}, each showing the state after that tick's step.
+         */
+        void render(ReplaySession keyframe, int end, File output) {
+            session.copyFrom(keyframe);
+            while (session.getTick() < end) {
+                session.step();
+                session.capture(snapshot);
+                Graphics2D g2d = image.createGraphics();
+                renderer.draw(g2d, snapshot, image.getWidth(), image.getHeight());
+                g2d.dispose();
+                File file = new File(output, String.format(Locale.ROOT, "frame_%06d.png", session.getTick() - 1));
+                try {
+                    ImageIO.write(image, "png", file);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write frame: " + file.getAbsolutePath(), e);
+                }
+            }
+        }
+    }
+}
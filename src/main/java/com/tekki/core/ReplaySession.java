@@ -0,0 +1,102 @@
+package com.tekki.core;
+
+/**
+ * A replay being re-simulated: the match plus the presentation state the game keeps next to it (particles,
+ * score, stage intro), stepped in the same order as {@link GamePanel} so frames match the live fight.
+ * <p>
+ * {@link #copyFrom} restores a session from a keyframe without allocating, which lets several threads
+ * render different stretches of one replay.
+ */
+final class ReplaySession {
+
+    private static final float STAGE_INTRO_DURATION = 2.0f;
+
+    private final Replay replay;
+    private final Level level;
+    private final int levelCount;
+    private final float deltaTime;
+    private final Match match;
+    private final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY);
+    private final FightEffects effects = new FightEffects(particles);
+    private final CombatEventBus events = new CombatEventBus(256);
+    private final Camera camera = new Camera(Campaign.ARENA_WIDTH, Campaign.ARENA_HEIGHT);
+    private int tick;
+    private int score;
+    private float stageIntroTimer = STAGE_INTRO_DURATION;
+
+    ReplaySession(Replay replay) {
+        this.replay = replay;
+        this.level = Campaign.levels().get(replay.getLevelIndex());
+        this.levelCount = Campaign.levels().size();
+        this.deltaTime = 1f / replay.getTickRate();
+        this.match = replay.newMatch();
+        effects.setFighters(match.getPlayer(), match.getEnemy());
+        camera.reset(level.getStageWidth(), match.getPlayer(), match.getEnemy());
+        events.subscribe("effects", effects);
+        events.subscribe("score", (event, sequence) -> {
+            if (event.isByPlayer() && event.getType() != CombatEventType.KO
+                    && event.getType() != CombatEventType.LEVEL_CLEAR) {
+                score += event.getDamage();
+            }
+        });
+        match.setEventBus(events);
+    }
+
+    /**
+     * Advance one recorded tick.
+     */
+    void step() {
+        particles.update(deltaTime);
+        if (stageIntroTimer > 0f) {
+            stageIntroTimer = Math.max(0f, stageIntroTimer - deltaTime);
+        }
+        if (!match.isOver()) {
+            match.applyPlayerInput(replay.input(tick));
+            match.step(deltaTime);
+            events.dispatch();
+            effects.afterStep();
+        }
+        camera.update(deltaTime, match.getPlayer(), match.getEnemy());
+        tick++;
+    }
+
+    /**
+     * Overwrite this session with another one of the same replay.
+     */
+    void copyFrom(ReplaySession other) {
+        match.copyFrom(other.match);
+        match.getPlayer().copyAnimationFrom(other.match.getPlayer());
+        match.getEnemy().copyAnimationFrom(other.match.getEnemy());
+        match.getPlayer().copyInputHistoryFrom(other.match.getPlayer());
+        particles.copyFrom(other.particles);
+        camera.copyFrom(other.camera);
+        tick = other.tick;
+        score = other.score;
+        stageIntroTimer = other.stageIntroTimer;
+    }
+
+    void capture(RenderSnapshot snapshot) {
+        snapshot.gameState = GameState.FIGHT;
+        snapshot.frameCounter = tick;
+        snapshot.score = score;
+        snapshot.levelIndex = replay.getLevelIndex();
+        snapshot.levelCount = levelCount;
+        snapshot.levelName = level.getName();
+        snapshot.nextLevelName = "";
+        snapshot.backgroundColor = level.getBackgroundColor();
+        snapshot.floorColor = level.getFloorColor();
+        snapshot.backgroundLayers = level.getBackgroundLayers();
+        snapshot.showingStageIntro = stageIntroTimer > 0f;
+        snapshot.stageIntroFade = stageIntroTimer / STAGE_INTRO_DURATION;
+        snapshot.koOverlayFade = 0f;
+        snapshot.captureFight(match.getPlayer(), match.getEnemy(), particles, camera);
+    }
+
+    ParticleSystem getParticles() {
+        return particles;
+    }
+
+    int getTick() {
+        return tick;
+    }
+}
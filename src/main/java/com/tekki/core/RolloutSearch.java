@@ -0,0 +1,126 @@
+package com.tekki.core;
+
+/**
+ * Flat Monte Carlo evaluation of the enemy's candidate actions from a match snapshot.
+ * <p>
+ * Each rollout copies the snapshot into a scratch match, forces one candidate, then plays on with the
+ * enemy's dice rolls against a randomly acting player. Damage dealt and taken are accumulated separately
+ * so callers can weigh aggression when picking the best candidate. Not thread-safe; one instance per thread.
+ */
+final class RolloutSearch {
+
+    static final AiAction[] CANDIDATES = {
+            AiAction.HOLD, AiAction.IDLE, AiAction.APPROACH, AiAction.RETREAT,
+            AiAction.ATTACK, AiAction.DEFEND, AiAction.DASH, AiAction.JUMP
+    };
+
+    private static final float HORIZON_SECONDS = 0.75f;
+    /** The random player in a rollout changes its mind this often. */
+    private static final int OPPONENT_DECISION_TICKS = 12;
+    private static final int KO_BONUS = 100;
+
+    private final Match scratch;
+    private final float deltaTime;
+    private final int horizonTicks;
+    private final DeterministicRandom random;
+
+    private final int[] rollouts = new int[CANDIDATES.length];
+    private final long[] dealt = new long[CANDIDATES.length];
+    private final long[] taken = new long[CANDIDATES.length];
+
+    RolloutSearch(Match template, float deltaTime, long seed) {
+        this.scratch = template.copyWithoutSprites();
+        this.deltaTime = deltaTime;
+        this.horizonTicks = Math.max(1, Math.round(HORIZON_SECONDS / deltaTime));
+        this.random = new DeterministicRandom(seed);
+    }
+
+    void reset() {
+        for (int i = 0; i < CANDIDATES.length; i++) {
+            rollouts[i] = 0;
+            dealt[i] = 0L;
+            taken[i] = 0L;
+        }
+    }
+
+    /**
+     * Play one candidate forward from the snapshot and add its outcome to that candidate's totals.
+     */
+    void rollout(Match snapshot, int candidate) {
+        scratch.copyFrom(snapshot);
+        scratch.reseed(random.nextLong());
+        PlayerFighter player = scratch.getPlayer();
+        EnemyFighter enemy = scratch.getEnemy();
+        enemy.reseed(random.nextLong());
+        int playerHealth = player.getHealth();
+        int enemyHealth = enemy.getHealth();
+
+        enemy.forceDecision(CANDIDATES[candidate], player);
+        for (int t = 0; t < horizonTicks && !scratch.isOver(); t++) {
+            if (t % OPPONENT_DECISION_TICKS == 0) {
+                driveRandomly(player, enemy, random);
+            }
+            scratch.step(deltaTime);
+        }
+
+        rollouts[candidate]++;
+        dealt[candidate] += playerHealth - player.getHealth() + (player.isKO() ? KO_BONUS : 0);
+        taken[candidate] += enemyHealth - enemy.getHealth() + (enemy.isKO() ? KO_BONUS : 0);
+    }
+
+    /**
+     * Candidate with the best mean of {@code aggression * dealt - taken}; 0 when nothing was evaluated.
+     */
+    int best(float aggression) {
+        int best = 0;
+        double bestMean = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < CANDIDATES.length; i++) {
+            if (rollouts[i] == 0) {
+                continue;
+            }
+            double mean = (aggression * dealt[i] - taken[i]) / (double) rollouts[i];
+            if (mean > bestMean) {
+                bestMean = mean;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Random but purposeful player: approach, back off, attack toward the enemy, guard or stand.
+     */
+    static void driveRandomly(PlayerFighter player, EnemyFighter enemy, DeterministicRandom random) {
+        boolean enemyIsRight = enemy.getCenterX() > player.getCenterX();
+        player.stopDefending();
+        switch (random.nextInt(5)) {
+            case 0 -> {
+                if (enemyIsRight) {
+                    player.moveRight();
+                } else {
+                    player.moveLeft();
+                }
+            }
+            case 1 -> {
+                if (enemyIsRight) {
+                    player.moveLeft();
+                } else {
+                    player.moveRight();
+                }
+            }
+            case 2 -> {
+                if (enemyIsRight) {
+                    player.moveRight();
+                } else {
+                    player.moveLeft();
+                }
+                player.startAttack();
+            }
+            case 3 -> {
+                player.stopMoving();
+                player.startDefending();
+            }
+            default -> player.stopMoving();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.tekki.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Outcome of one run through the campaign, as kept by the {@link Leaderboard}. Immutable.
+ */
+public final class RunResult {
+
+    /** Longest profile name kept, in UTF-8 bytes. */
+    static final int MAX_PROFILE_BYTES = 64;
+
+    private final String profile;
+    private final long time;
+    private final int score;
+    private final int[] stageScores;
+    private final boolean victory;
+
+    /**
+     * @param time        when the run ended, in epoch milliseconds
+     * @param stageScores points earned in each stage the run cleared, in level order
+     */
+    public RunResult(String profile, long time, int score, int[] stageScores, boolean victory) {
+        this.profile = truncate(profile);
+        this.time = time;
+        this.score = score;
+        this.stageScores = stageScores.clone();
+        this.victory = victory;
+    }
+
+    private static String truncate(String profile) {
+        // A UTF-16 char never takes more than three UTF-8 bytes.
+        if (profile.length() * 3 <= MAX_PROFILE_BYTES) {
+            return profile;
+        }
+        byte[] bytes = profile.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_PROFILE_BYTES) {
+            return profile;
+        }
+        String truncated = profile;
+        while (truncated.getBytes(StandardCharsets.UTF_8).length > MAX_PROFILE_BYTES) {
+            truncated = truncated.substring(0, truncated.length() - 1);
+        }
+        return truncated;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getStagesCleared() {
+        return stageScores.length;
+    }
+
+    /**
+     * Points earned in the stage of {@code levelIndex}, or -1 if the run did not clear it.
+     */
+    public int getStageScore(int levelIndex) {
+        return levelIndex < stageScores.length ? stageScores[levelIndex] : -1;
+    }
+
+    public boolean isVictory() {
+        return victory;
+    }
+
+    /**
+     * Upper bound of {@link #write}'s output for any result.
+     */
+    static int maxEncodedBytes(int levels) {
+        return 8 + 4 + 1 + 1 + 4 * levels + 1 + MAX_PROFILE_BYTES;
+    }
+
+    /**
+     * Append the result: long time, int score, byte victory, byte stages, int per stage, byte name length,
+     * UTF-8 name.
+     */
+    void write(ByteBuffer buffer) {
+        byte[] name = profile.getBytes(StandardCharsets.UTF_8);
+        buffer.putLong(time);
+        buffer.putInt(score);
+        buffer.put((byte) (victory ? 1 : 0));
+        buffer.put((byte) stageScores.length);
+        for (int stageScore : stageScores) {
+            buffer.putInt(stageScore);
+        }
+        buffer.put((byte) name.length);
+        buffer.put(name);
+    }
+
+    static RunResult read(ByteBuffer buffer) {
+        long time = buffer.getLong();
+        int score = buffer.getInt();
+        boolean victory = buffer.get() != 0;
+        int[] stageScores = new int[buffer.get() & 0xFF];
+        for (int i = 0; i < stageScores.length; i++) {
+            stageScores[i] = buffer.getInt();
+        }
+        byte[] name = new byte[buffer.get() & 0xFF];
+        buffer.get(name);
+        return new RunResult(new String(name, StandardCharsets.UTF_8), time, score, stageScores, victory);
+    }
+
+    @Override
+    public String toString() {
+        return profile + " " + score + (victory ? " (victory)" : "") + " stages " + Arrays.toString(stageScores);
+    }
+}
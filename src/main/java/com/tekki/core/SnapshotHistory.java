@@ -0,0 +1,272 @@
+package com.tekki.core;
+
+/**
+ * The last few seconds of full simulation states, one per tick, for stepping backwards and forwards in time.
+ * <p>
+ * States are {@link StateBuffer} rows. Every {@code keyframeInterval}-th entry is stored whole; the others store
+ * only the words that differ from the previous tick, as (index, previous XOR current) pairs, which is usually a
+ * small fraction of the state. Entries live back to back in one preallocated circular arena; recording
+ * evicts the oldest entries when the arena or the entry ring is full, so memory is fixed. Because XOR is its
+ * own inverse, stepping one tick either way applies a single delta.
+ */
+final class SnapshotHistory {
+
+    private final int capacity;
+    private final int keyframeInterval;
+    private final int arenaWords;
+
+    // Allocated on the first record, once the state size is known.
+    private int stateWords = -1;
+    private int[] arena;
+    private int[] previous;
+    private int[] cursorState;
+
+    private final int[] entryOffset;
+    private final int[] entryLength;
+    private final boolean[] entryKeyframe;
+    /** Entries are numbered from 0 since the last {@link #clear()}; valid ones are oldest..newest. */
+    private long oldest;
+    private long newest = -1L;
+    private int writePosition;
+    private long sinceKeyframe;
+
+    /** Entry whose state is in {@link #cursorState}, or -1. */
+    private long cursor = -1L;
+
+    /**
+     * @param capacity         ticks to keep at most
+     * @param keyframeInterval ticks between whole states
+     * @param arenaWords       ints of storage for all entries
+     */
+    SnapshotHistory(int capacity, int keyframeInterval, int arenaWords) {
+        this.capacity = capacity;
+        this.keyframeInterval = keyframeInterval;
+        this.arenaWords = arenaWords;
+        entryOffset = new int[capacity];
+        entryLength = new int[capacity];
+        entryKeyframe = new boolean[capacity];
+    }
+
+    /**
+     * Append the state just saved into {@code state}.
+     */
+    void record(StateBuffer state) {
+        int size = state.size();
+        if (size != stateWords) {
+            allocate(size);
+        }
+        int[] words = state.words();
+        boolean keyframe = newest < oldest || sinceKeyframe >= keyframeInterval - 1;
+        int length;
+        if (keyframe) {
+            length = size;
+        } else {
+            int changed = 0;
+            for (int i = 0; i < size; i++) {
+                if (words[i] != previous[i]) {
+                    changed++;
+                }
+            }
+            length = 2 * changed;
+            // A delta bigger than the state is stored whole instead.
+            keyframe = length >= size;
+            if (keyframe) {
+                length = size;
+            }
+        }
+
+        int offset = reserve(length);
+        long entry = ++newest;
+        int slot = (int) (entry % capacity);
+        entryOffset[slot] = offset;
+        entryLength[slot] = length;
+        entryKeyframe[slot] = keyframe;
+        if (keyframe) {
+            System.arraycopy(words, 0, arena, offset, size);
+            sinceKeyframe = 0;
+        } else {
+            int write = offset;
+            for (int i = 0; i < size; i++) {
+                int difference = words[i] ^ previous[i];
+                if (difference != 0) {
+                    arena[write++] = i;
+                    arena[write++] = difference;
+                }
+            }
+            sinceKeyframe++;
+        }
+        System.arraycopy(words, 0, previous, 0, size);
+        dropUnrestorable();
+    }
+
+    /**
+     * Load the state of an entry into {@code state}, ready for {@link StateBuffer#beginLoad()}.
+     */
+    void restore(long entry, StateBuffer state) {
+        if (entry < oldest || entry > newest) {
+            throw new IllegalArgumentException("Entry " + entry + " is not in the history");
+        }
+        moveCursor(entry);
+        state.prepareLoad(stateWords);
+        System.arraycopy(cursorState, 0, state.words(), 0, stateWords);
+    }
+
+    /**
+     * Forget everything after {@code entry}, so recording continues from it.
+     */
+    void truncateAfter(long entry) {
+        if (entry < oldest || entry > newest) {
+            throw new IllegalArgumentException("Entry " + entry + " is not in the history");
+        }
+        moveCursor(entry);
+        System.arraycopy(cursorState, 0, previous, 0, stateWords);
+        int slot = (int) (entry % capacity);
+        writePosition = entryOffset[slot] + entryLength[slot];
+        newest = entry;
+        sinceKeyframe = 0;
+        for (long e = entry; !entryKeyframe[(int) (e % capacity)]; e--) {
+            sinceKeyframe++;
+        }
+    }
+
+    void clear() {
+        oldest = 0L;
+        newest = -1L;
+        writePosition = 0;
+        sinceKeyframe = 0;
+        cursor = -1L;
+    }
+
+    boolean isEmpty() {
+        return newest < oldest;
+    }
+
+    long getOldest() {
+        return oldest;
+    }
+
+    long getNewest() {
+        return newest;
+    }
+
+    /**
+     * Ints of arena actually holding entries.
+     */
+    long getUsedWords() {
+        if (isEmpty()) {
+            return 0L;
+        }
+        long used = 0L;
+        for (long entry = oldest; entry <= newest; entry++) {
+            used += entryLength[(int) (entry % capacity)];
+        }
+        return used;
+    }
+
+    /**
+     * Preallocated bytes, arena and entry index together.
+     */
+    long getReservedBytes() {
+        return 4L * arenaWords + 9L * capacity + (stateWords > 0 ? 8L * stateWords : 0L);
+    }
+
+    private void allocate(int size) {
+        if (arenaWords < 2 * size) {
+            throw new IllegalStateException("Snapshot arena of " + arenaWords + " ints cannot hold states of " + size);
+        }
+        stateWords = size;
+        arena = new int[arenaWords];
+        previous = new int[size];
+        cursorState = new int[size];
+        clear();
+    }
+
+    /**
+     * Find room for an entry after the newest one, evicting the oldest entries it would overwrite.
+     */
+    private int reserve(int length) {
+        if (writePosition + length > arena.length) {
+            // Entries never straddle the end of the arena: the oldest entries in the unused tail go, then wrap.
+            while (!isEmpty() && entryOffset[(int) (oldest % capacity)] >= writePosition) {
+                evictOldest();
+            }
+            writePosition = 0;
+        }
+        int start = writePosition;
+        int end = start + length;
+        while (!isEmpty() && (newest - oldest + 1 >= capacity || overlaps(start, end, oldest))) {
+            evictOldest();
+        }
+        writePosition = end;
+        return start;
+    }
+
+    private boolean overlaps(int start, int end, long entry) {
+        int slot = (int) (entry % capacity);
+        int entryStart = entryOffset[slot];
+        int entryEnd = entryStart + entryLength[slot];
+        return start < entryEnd && entryStart < end;
+    }
+
+    private void evictOldest() {
+        if (cursor == oldest) {
+            cursor = -1L;
+        }
+        oldest++;
+    }
+
+    /**
+     * Keep the oldest entry a keyframe, so every entry in the history can be rebuilt.
+     */
+    private void dropUnrestorable() {
+        while (!isEmpty() && !entryKeyframe[(int) (oldest % capacity)]) {
+            evictOldest();
+        }
+    }
+
+    private void moveCursor(long entry) {
+        if (cursor >= oldest && cursor <= newest && Math.abs(entry - cursor) <= keyframeInterval) {
+            while (cursor < entry) {
+                cursor++;
+                applyEntry(cursor);
+            }
+            while (cursor > entry) {
+                int slot = (int) (cursor % capacity);
+                if (entryKeyframe[slot]) {
+                    break;
+                }
+                applyDelta(slot);
+                cursor--;
+            }
+            if (cursor == entry) {
+                return;
+            }
+        }
+        long keyframe = entry;
+        while (!entryKeyframe[(int) (keyframe % capacity)]) {
+            keyframe--;
+        }
+        for (cursor = keyframe; ; cursor++) {
+            applyEntry(cursor);
+            if (cursor == entry) {
+                return;
+            }
+        }
+    }
+
+    private void applyEntry(long entry) {
+        int slot = (int) (entry % capacity);
+        if (entryKeyframe[slot]) {
+            System.arraycopy(arena, entryOffset[slot], cursorState, 0, stateWords);
+        } else {
+            applyDelta(slot);
+        }
+    }
+
+    private void applyDelta(int slot) {
+        int end = entryOffset[slot] + entryLength[slot];
+        for (int i = entryOffset[slot]; i < end; i += 2) {
+            cursorState[arena[i]] ^= arena[i + 1];
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tekki.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Every {@link SoundCue} decoded once into mono 16-bit PCM at {@link AudioMixer#SAMPLE_RATE}.
+ * <p>
+ * Cues are read from {@code Tekki/src/main/resources/sounds/<cue>.wav} when the file exists and otherwise
+ * synthesized, so the game has placeholder sounds until real assets are added.
+ */
+public final class SoundBank {
+
+    private static final String SOUND_PATH = "Tekki/src/main/resources/sounds/";
+
+    private final short[][] clips;
+
+    private SoundBank(short[][] clips) {
+        this.clips = clips;
+    }
+
+    public static SoundBank load() {
+        SoundCue[] cues = SoundCue.values();
+        short[][] clips = new short[cues.length][];
+        for (SoundCue cue : cues) {
+            File file = new File(SOUND_PATH + cue.name().toLowerCase(Locale.ROOT) + ".wav");
+            clips[cue.ordinal()] = file.exists() ? decode(file) : synthesize(cue);
+        }
+        return new SoundBank(clips);
+    }
+
+    public short[] getClip(SoundCue cue) {
+        return clips[cue.ordinal()];
+    }
+
+    private static short[] decode(File file) {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file)) {
+            AudioFormat sourceFormat = source.getFormat();
+            if (Math.abs(sourceFormat.getSampleRate() - AudioMixer.SAMPLE_RATE) > 1f) {
+                throw new IllegalStateException("Sound " + file.getName() + " must be sampled at "
+                        + (int) AudioMixer.SAMPLE_RATE + " Hz, found " + sourceFormat.getSampleRate());
+            }
+            int channels = sourceFormat.getChannels();
+            AudioFormat pcm = new AudioFormat(AudioMixer.SAMPLE_RATE, 16, channels, true, false);
+            try (InputStream in = AudioSystem.getAudioInputStream(pcm, source)) {
+                byte[] bytes = in.readAllBytes();
+                int frames = bytes.length / (2 * channels);
+                short[] samples = new short[frames];
+                for (int frame = 0; frame < frames; frame++) {
+                    int sum = 0;
+                    for (int channel = 0; channel < channels; channel++) {
+                        int index = (frame * channels + channel) * 2;
+                        sum += (short) ((bytes[index] & 0xFF) | (bytes[index + 1] << 8));
+                    }
+                    samples[frame] = (short) (sum / channels);
+                }
+                return samples;
+            }
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            throw new IllegalStateException("Unsupported sound format: " + file.getAbsolutePath(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read sound: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Short procedural placeholder for a cue.
+     */
+    private static short[] synthesize(SoundCue cue) {
+        return switch (cue) {
+            case HIT -> render(0.08f, 0.6f, 110f, 110f, 0.7f, 30f);
+            case CRIT -> render(0.16f, 0.5f, 880f, 1320f, 0.4f, 18f);
+            case BLOCK -> render(0.06f, 0.5f, 440f, 440f, 0.1f, 45f);
+            case KO -> render(0.6f, 0.7f, 300f, 60f, 0.2f, 4f);
+            case STAGE_INTRO -> render(0.45f, 0.4f, 523f, 784f, 0f, 5f);
+        };
+    }
+
+    /**
+     * Sine sweep mixed with noise under an exponential decay.
+     */
+    private static short[] render(float seconds, float volume, float startHz, float endHz, float noise, float decay) {
+        int frames = (int) (seconds * AudioMixer.SAMPLE_RATE);
+        short[] samples = new short[frames];
+        DeterministicRandom random = new DeterministicRandom(frames);
+        double phase = 0.0;
+        for (int i = 0; i < frames; i++) {
+            float t = i / AudioMixer.SAMPLE_RATE;
+            float frequency = startHz + (endHz - startHz) * (i / (float) frames);
+            phase += 2.0 * Math.PI * frequency / AudioMixer.SAMPLE_RATE;
+            float tone = (float) Math.sin(phase) * (1f - noise);
+            float hiss = (random.nextFloat() * 2f - 1f) * noise;
+            float envelope = (float) Math.exp(-decay * t) * Math.min(1f, i / 64f);
+            samples[i] = (short) (Short.MAX_VALUE * volume * envelope * (tone + hiss));
+        }
+        return samples;
+    }
+}
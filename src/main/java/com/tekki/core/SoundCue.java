@@ -0,0 +1,25 @@
+package com.tekki.core;
+
+/**
+ * Sounds the game can trigger; each is loaded from {@code sounds/<name>.wav} or synthesized by {@link SoundBank}.
+ */
+public enum SoundCue {
+    HIT,
+    CRIT,
+    BLOCK,
+    KO,
+    STAGE_INTRO;
+
+    /**
+     * Cue for a combat event, or null when the event is silent.
+     */
+    public static SoundCue forEvent(CombatEventType type) {
+        return switch (type) {
+            case HIT -> HIT;
+            case CRIT -> CRIT;
+            case BLOCK -> BLOCK;
+            case KO -> KO;
+            case LEVEL_CLEAR -> null;
+        };
+    }
+}
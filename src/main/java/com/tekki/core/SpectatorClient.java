@@ -0,0 +1,112 @@
+package com.tekki.core;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Viewer side of the {@link SpectatorServer} protocol: connect, then read one decoded tick at a time.
+ */
+public final class SpectatorClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final OutputStream acks;
+    private final int tickRate;
+    private final int keyframeInterval;
+    private final byte[] frame = new byte[SpectatorCodec.MAX_FRAME_BYTES];
+    private final SpectatorState keyframe = new SpectatorState();
+    private final int[] keyframeId = {-1};
+    private long bytesReceived;
+    private long undecodableFrames;
+
+    private SpectatorClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.acks = socket.getOutputStream();
+        if (in.readInt() != SpectatorServer.MAGIC || in.readInt() != SpectatorServer.VERSION) {
+            throw new IllegalStateException("Not a version " + SpectatorServer.VERSION + " spectator server");
+        }
+        this.tickRate = in.readInt();
+        this.keyframeInterval = in.readInt();
+        bytesReceived = 16;
+    }
+
+    public static SpectatorClient connect(String host, int port) {
+        Socket socket = null;
+        try {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            return new SpectatorClient(socket);
+        } catch (IOException e) {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Reporting the original failure.
+                }
+            }
+            throw new IllegalStateException("Could not connect to spectator server " + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Block until the next tick arrives and decode it into {@code state}.
+     *
+     * @return false once the server has closed the connection
+     */
+    boolean next(SpectatorState state) {
+        try {
+            while (true) {
+                int length = in.readUnsignedByte();
+                in.readFully(frame, 0, length);
+                bytesReceived += length + 1;
+                if (SpectatorCodec.decode(frame, keyframe, keyframeId, state)) {
+                    if (SpectatorCodec.isKeyframe(frame)) {
+                        acks.write(keyframeId[0]);
+                    }
+                    return true;
+                }
+                undecodableFrames++;
+            }
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            if (socket.isClosed()) {
+                return false;
+            }
+            throw new IllegalStateException("Spectator stream failed", e);
+        }
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Deltas dropped because their keyframe never arrived; stays 0 with a well-behaved server.
+     */
+    public long getUndecodableFrames() {
+        return undecodableFrames;
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Closing anyway.
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.tekki.core;
+
+/**
+ * Bit-packed encoding of {@link SpectatorState} frames.
+ * <p>
+ * A keyframe carries every field. A delta carries, per field, one bit saying whether it differs from the
+ * keyframe and, if so, the difference. Numbers are zigzag-encoded and prefixed with their bit width, so the
+ * usual small differences cost a few bits. Deltas always refer to a keyframe, never to the previous delta,
+ * so a viewer may skip any number of deltas and still decode the next one.
+ */
+final class SpectatorCodec {
+
+    /** Upper bound of an encoded frame. */
+    static final int MAX_FRAME_BYTES = 1 + (1 + 8 + SpectatorState.FIELD_COUNT * (1 + 6 + 32) + 7) / 8;
+
+    private static final int WIDTH_BITS = 6;
+
+    private SpectatorCodec() {
+    }
+
+    /**
+     * Encode a keyframe.
+     *
+     * @param keyframeId low 8 bits identify the keyframe to the deltas that follow it
+     * @return number of bytes written
+     */
+    static int encodeKeyframe(SpectatorState state, int keyframeId, byte[] out) {
+        BitWriter writer = new BitWriter(out);
+        writer.write(1, 1);
+        writer.write(keyframeId & 0xFF, 8);
+        for (int field = 0; field < SpectatorState.FIELD_COUNT; field++) {
+            writer.writeNumber(state.fields[field]);
+        }
+        return writer.length();
+    }
+
+    /**
+     * Encode a state as a delta against a keyframe.
+     *
+     * @return number of bytes written
+     */
+    static int encodeDelta(SpectatorState state, SpectatorState keyframe, int keyframeId, byte[] out) {
+        BitWriter writer = new BitWriter(out);
+        writer.write(0, 1);
+        writer.write(keyframeId & 0xFF, 8);
+        for (int field = 0; field < SpectatorState.FIELD_COUNT; field++) {
+            int difference = state.fields[field] - keyframe.fields[field];
+            if (difference == 0) {
+                writer.write(0, 1);
+            } else {
+                writer.write(1, 1);
+                writer.writeNumber(difference);
+            }
+        }
+        return writer.length();
+    }
+
+    static boolean isKeyframe(byte[] frame) {
+        return (frame[0] & 0x80) != 0;
+    }
+
+    /**
+     * Decode a frame into {@code out}. A keyframe is also copied into {@code keyframe}.
+     *
+     * @return false for a delta whose keyframe is not the one given; {@code out} is then left alone
+     */
+    static boolean decode(byte[] frame, SpectatorState keyframe, int[] keyframeId, SpectatorState out) {
+        BitReader reader = new BitReader(frame);
+        boolean isKeyframe = reader.read(1) == 1;
+        int id = reader.read(8);
+        if (isKeyframe) {
+            for (int field = 0; field < SpectatorState.FIELD_COUNT; field++) {
+                keyframe.fields[field] = reader.readNumber();
+            }
+            keyframeId[0] = id;
+            out.copyFrom(keyframe);
+            return true;
+        }
+        if (id != keyframeId[0]) {
+            return false;
+        }
+        for (int field = 0; field < SpectatorState.FIELD_COUNT; field++) {
+            out.fields[field] = keyframe.fields[field] + (reader.read(1) == 1 ? reader.readNumber() : 0);
+        }
+        return true;
+    }
+
+    private static final class BitWriter {
+
+        private final byte[] out;
+        private int bitPosition;
+
+        BitWriter(byte[] out) {
+            this.out = out;
+        }
+
+        void write(int value, int bits) {
+            for (int bit = bits - 1; bit >= 0; bit--) {
+                int index = bitPosition >> 3;
+                if ((bitPosition & 7) == 0) {
+                    out[index] = 0;
+                }
+                if (((value >>> bit) & 1) != 0) {
+                    out[index] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+
+        /**
+         * Zigzag-encoded number with a width prefix; zero costs only the prefix.
+         */
+        void writeNumber(int value) {
+            int zigzag = (value << 1) ^ (value >> 31);
+            int width = 32 - Integer.numberOfLeadingZeros(zigzag);
+            write(width, WIDTH_BITS);
+            write(zigzag, width);
+        }
+
+        int length() {
+            return (bitPosition + 7) >> 3;
+        }
+    }
+
+    private static final class BitReader {
+
+        private final byte[] in;
+        private int bitPosition;
+
+        BitReader(byte[] in) {
+            this.in = in;
+        }
+
+        int read(int bits) {
+            int value = 0;
+            for (int i = 0; i < bits; i++) {
+                int bit = (in[bitPosition >> 3] >>> (7 - (bitPosition & 7))) & 1;
+                value = (value << 1) | bit;
+                bitPosition++;
+            }
+            return value;
+        }
+
+        int readNumber() {
+            int zigzag = read(read(WIDTH_BITS));
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+}
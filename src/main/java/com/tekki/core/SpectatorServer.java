@@ -0,0 +1,254 @@
+package com.tekki.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.VarHandle;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams the live match to any number of TCP viewers, see {@link SpectatorClient}.
+ * <p>
+ * The simulation encodes every tick once into a ring of preallocated frames: a keyframe every
+ * {@code keyframeInterval} ticks and bit-packed deltas against it in between. Each viewer has its own thread
+ * that copies frames from the ring to its socket. Viewers acknowledge every keyframe they decode; a viewer
+ * whose acknowledgements lag more than one keyframe behind gets nothing until it catches up, and then
+ * continues from the newest keyframe. A slow viewer therefore skips ahead instead of having a backlog queued
+ * for it in the ring or in socket buffers.
+ * <p>
+ * Wire format: a header of four ints (magic, version, tick rate, keyframe interval), then frames of one
+ * length byte followed by the {@link SpectatorCodec} payload. The viewer answers each keyframe with its
+ * one-byte id.
+ */
+public final class SpectatorServer implements AutoCloseable {
+
+    static final int MAGIC = 0x544B5350; // "TKSP"
+    static final int VERSION = 1;
+
+    private static final int CAPACITY = 256;
+    private static final int SEND_BUFFER_BYTES = 4096;
+    private static final long IDLE_NANOS = 1_000_000L;
+
+    private final ServerSocket serverSocket;
+    private final int tickRate;
+    private final int keyframeInterval;
+    private final Thread acceptThread;
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+
+    private final byte[][] frames = new byte[CAPACITY][SpectatorCodec.MAX_FRAME_BYTES];
+    private final int[] lengths = new int[CAPACITY];
+    /** Sequence stored in each slot, -1 while the slot is being rewritten. */
+    private final AtomicLongArray slotSequences = new AtomicLongArray(CAPACITY);
+    private final AtomicLong published = new AtomicLong(-1L);
+    private volatile long latestKeyframe = -1L;
+
+    private final SpectatorState keyframe = new SpectatorState();
+    private long nextSequence;
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong skippedFrames = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param port             TCP port, 0 for any free port
+     * @param keyframeInterval ticks between keyframes, at most half the frame ring
+     */
+    public SpectatorServer(int port, int tickRate, int keyframeInterval) {
+        if (keyframeInterval < 1 || keyframeInterval > CAPACITY / 2) {
+            throw new IllegalArgumentException("Keyframe interval must be between 1 and " + CAPACITY / 2);
+        }
+        this.tickRate = tickRate;
+        this.keyframeInterval = keyframeInterval;
+        for (int slot = 0; slot < CAPACITY; slot++) {
+            slotSequences.set(slot, -1L);
+        }
+        try {
+            serverSocket = new ServerSocket(port);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open spectator port " + port, e);
+        }
+        acceptThread = new Thread(this::acceptViewers, "tekki-spectator-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Encode one tick for the viewers. Call from a single thread (the simulation); never blocks.
+     */
+    void publish(SpectatorState state) {
+        long sequence = nextSequence++;
+        int slot = (int) (sequence % CAPACITY);
+        boolean isKeyframe = sequence % keyframeInterval == 0;
+        int keyframeId = (int) (sequence / keyframeInterval);
+
+        slotSequences.set(slot, -1L);
+        VarHandle.storeStoreFence();
+        if (isKeyframe) {
+            keyframe.copyFrom(state);
+            lengths[slot] = SpectatorCodec.encodeKeyframe(state, keyframeId, frames[slot]);
+        } else {
+            lengths[slot] = SpectatorCodec.encodeDelta(state, keyframe, keyframeId, frames[slot]);
+        }
+        slotSequences.setRelease(slot, sequence);
+        if (isKeyframe) {
+            latestKeyframe = sequence;
+        }
+        published.setRelease(sequence);
+    }
+
+    private void acceptViewers() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSendBufferSize(SEND_BUFFER_BYTES);
+                Viewer viewer = new Viewer(socket);
+                viewers.add(viewer);
+                viewer.thread.start();
+            } catch (SocketException e) {
+                // Server socket closed.
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Frames not sent to some viewer because it was jumped ahead to a keyframe.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway.
+        }
+        for (Viewer viewer : viewers) {
+            viewer.close();
+        }
+    }
+
+    private final class Viewer {
+
+        private final Socket socket;
+        private final Thread thread;
+        private final byte[] buffer = new byte[SpectatorCodec.MAX_FRAME_BYTES];
+
+        Viewer(Socket socket) {
+            this.socket = socket;
+            this.thread = new Thread(this::run, "tekki-spectator-" + socket.getRemoteSocketAddress());
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                InputStream acks = socket.getInputStream();
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(tickRate);
+                out.writeInt(keyframeInterval);
+                out.flush();
+                long cursor = -1L;
+                long acknowledged = -1L;
+                while (running) {
+                    while (acks.available() > 0) {
+                        int id = acks.read();
+                        if (id < 0) {
+                            return;
+                        }
+                        acknowledged = keyframeSequence(cursor, id);
+                    }
+                    long head = published.getAcquire();
+                    boolean waitingForAck = cursor - acknowledged > 2L * keyframeInterval;
+                    if (cursor < 0L || (head - cursor >= keyframeInterval && !waitingForAck)) {
+                        // Joining, or too far behind: continue from the newest keyframe.
+                        long target = latestKeyframe;
+                        if (cursor >= 0L && target > cursor) {
+                            skippedFrames.addAndGet(target - cursor);
+                        }
+                        cursor = target;
+                        acknowledged = target - keyframeInterval;
+                    }
+                    if (cursor < 0L || cursor > head || waitingForAck) {
+                        out.flush();
+                        LockSupport.parkNanos(IDLE_NANOS);
+                        continue;
+                    }
+                    int length = readSlot(cursor);
+                    if (length < 0) {
+                        // Overwritten while we looked at it; the lag check jumps us forward.
+                        cursor = head - keyframeInterval;
+                        continue;
+                    }
+                    out.writeByte(length);
+                    out.write(buffer, 0, length);
+                    bytesSent.addAndGet(length + 1);
+                    cursor++;
+                }
+            } catch (IOException e) {
+                // Viewer went away.
+            } finally {
+                close();
+                viewers.remove(this);
+            }
+        }
+
+        /**
+         * Sequence of the latest keyframe at or before {@code cursor} whose id is {@code id}.
+         */
+        private long keyframeSequence(long cursor, int id) {
+            long current = cursor / keyframeInterval;
+            return (current - ((current - id) & 0xFF)) * keyframeInterval;
+        }
+
+        /**
+         * Copy a frame out of the ring; -1 if the slot no longer holds that sequence.
+         */
+        private int readSlot(long sequence) {
+            int slot = (int) (sequence % CAPACITY);
+            if (slotSequences.getAcquire(slot) != sequence) {
+                return -1;
+            }
+            int length = lengths[slot];
+            System.arraycopy(frames[slot], 0, buffer, 0, length);
+            VarHandle.loadLoadFence();
+            return slotSequences.get(slot) == sequence ? length : -1;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Closing anyway.
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tekki.core;
+
+import java.util.Arrays;
+
+/**
+ * What a spectator sees of one tick, as a flat row of small integers so it can be delta-encoded field by field.
+ * <p>
+ * Positions are whole pixels; animation is sent as clip and frame index, so a viewer with the same sprites
+ * draws exactly what the players see.
+ */
+final class SpectatorState {
+
+    static final int TICK = 0;
+    static final int GAME_STATE = 1;
+    static final int LEVEL = 2;
+    static final int SCORE = 3;
+    /** First field of the player; the enemy follows with the same layout. */
+    static final int PLAYER = 4;
+    static final int ENEMY = PLAYER + FighterField.COUNT;
+    static final int FIELD_COUNT = ENEMY + FighterField.COUNT;
+
+    /** Offsets of a fighter's fields from {@link #PLAYER} or {@link #ENEMY}. */
+    static final class FighterField {
+        static final int X = 0;
+        static final int Y = 1;
+        static final int STATE = 2;
+        static final int HEALTH = 3;
+        /** Bit 0 facing right, bit 1 critical flash visible. */
+        static final int FLAGS = 4;
+        static final int CLIP = 5;
+        static final int FRAME = 6;
+        static final int COUNT = 7;
+
+        private FighterField() {
+        }
+    }
+
+    final int[] fields = new int[FIELD_COUNT];
+
+    void capture(long tick, GameState gameState, int levelIndex, int score, Fighter player, Fighter enemy) {
+        fields[TICK] = (int) tick;
+        fields[GAME_STATE] = gameState.ordinal();
+        fields[LEVEL] = levelIndex;
+        fields[SCORE] = score;
+        captureFighter(PLAYER, player);
+        captureFighter(ENEMY, enemy);
+    }
+
+    private void captureFighter(int base, Fighter fighter) {
+        if (fighter == null) {
+            Arrays.fill(fields, base, base + FighterField.COUNT, 0);
+            return;
+        }
+        fields[base + FighterField.X] = Math.round(fighter.x);
+        fields[base + FighterField.Y] = Math.round(fighter.y);
+        fields[base + FighterField.STATE] = fighter.getState().ordinal();
+        fields[base + FighterField.HEALTH] = fighter.getHealth();
+        fields[base + FighterField.FLAGS] = (fighter.facingRight ? 1 : 0) | (fighter.isCriticalFlashVisible() ? 2 : 0);
+        fields[base + FighterField.CLIP] = fighter.getAnimationClip();
+        fields[base + FighterField.FRAME] = fighter.getAnimationFrame();
+    }
+
+    /**
+     * Put a fighter built from the same profile into the streamed pose.
+     */
+    void applyTo(int base, Fighter fighter) {
+        int flags = fields[base + FighterField.FLAGS];
+        fighter.applySpectatorState(fields[base + FighterField.X], fields[base + FighterField.Y],
+                FighterState.values()[fields[base + FighterField.STATE]], fields[base + FighterField.HEALTH],
+                (flags & 1) != 0, (flags & 2) != 0, fields[base + FighterField.CLIP], fields[base + FighterField.FRAME]);
+    }
+
+    GameState getGameState() {
+        return GameState.values()[fields[GAME_STATE]];
+    }
+
+    void copyFrom(SpectatorState other) {
+        System.arraycopy(other.fields, 0, fields, 0, FIELD_COUNT);
+    }
+}
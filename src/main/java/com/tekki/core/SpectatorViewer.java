@@ -0,0 +1,109 @@
+package com.tekki.core;
+
+import java.awt.Dimension;
+import java.awt.EventQueue;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.List;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+
+/**
+ * Window that watches a match streamed by a {@link SpectatorServer}, drawn with the game's own sprites and
+ * {@link FightRenderer}. Start the game with {@code -Dtekki.spectator.port=7777}, then:
+ * <pre>
+ * java com.tekki.core.SpectatorViewer [host] [port]
+ * </pre>
+ */
+public final class SpectatorViewer extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SpectatorClient client;
+    private final List<Level> levels = Campaign.levels();
+    private final ParticleSystem particles = new ParticleSystem(1);
+    private final FightRenderer renderer = new FightRenderer(particles,
+            new TileCache(TileCache.DEFAULT_CAPACITY), false);
+    private final TripleBuffer<RenderSnapshot> snapshots =
+            new TripleBuffer<>(() -> new RenderSnapshot(particles.getCapacity()));
+    private final SpectatorState state = new SpectatorState();
+    private final Camera camera = new Camera(Campaign.ARENA_WIDTH, Campaign.ARENA_HEIGHT);
+    private Match match;
+    private int matchLevel = -1;
+
+    private SpectatorViewer(SpectatorClient client) {
+        this.client = client;
+        setPreferredSize(new Dimension(Campaign.ARENA_WIDTH, Campaign.ARENA_HEIGHT));
+        Thread thread = new Thread(this::receive, "tekki-spectator-view");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        SpectatorClient client = SpectatorClient.connect(host, port);
+        EventQueue.invokeLater(() -> {
+            JFrame window = new JFrame("Tekki - Spectator");
+            window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            window.setContentPane(new SpectatorViewer(client));
+            window.pack();
+            window.setLocationRelativeTo(null);
+            window.setResizable(false);
+            window.setVisible(true);
+        });
+    }
+
+    private void receive() {
+        while (client.next(state)) {
+            captureSnapshot(snapshots.back());
+            snapshots.publish();
+            repaint();
+        }
+        client.close();
+    }
+
+    /**
+     * Pose a local pair of fighters like the streamed ones and capture them as the game would.
+     */
+    private void captureSnapshot(RenderSnapshot snapshot) {
+        int levelIndex = Math.min(state.fields[SpectatorState.LEVEL], levels.size() - 1);
+        Level level = levels.get(levelIndex);
+        boolean newStage = levelIndex != matchLevel;
+        if (newStage) {
+            match = Campaign.newMatch(level, levelIndex, PhysicsMode.FLOAT, 0L, 0L);
+            matchLevel = levelIndex;
+        }
+        state.applyTo(SpectatorState.PLAYER, match.getPlayer());
+        state.applyTo(SpectatorState.ENEMY, match.getEnemy());
+        if (newStage) {
+            camera.reset(level.getStageWidth(), match.getPlayer(), match.getEnemy());
+        } else {
+            camera.update(1f / client.getTickRate(), match.getPlayer(), match.getEnemy());
+        }
+
+        long tick = state.fields[SpectatorState.TICK];
+        snapshot.gameState = state.getGameState();
+        snapshot.frameCounter = tick;
+        snapshot.promptHighlighted = (tick / (client.getTickRate() / 2)) % 2 != 0;
+        snapshot.score = state.fields[SpectatorState.SCORE];
+        snapshot.levelIndex = levelIndex;
+        snapshot.levelCount = levels.size();
+        snapshot.levelName = level.getName();
+        snapshot.nextLevelName = levelIndex + 1 < levels.size() ? levels.get(levelIndex + 1).getName() : "";
+        snapshot.backgroundColor = level.getBackgroundColor();
+        snapshot.floorColor = level.getFloorColor();
+        snapshot.backgroundLayers = level.getBackgroundLayers();
+        snapshot.showingStageIntro = false;
+        snapshot.koOverlayFade = 0f;
+        snapshot.captureFight(match.getPlayer(), match.getEnemy(), particles, camera);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g.create();
+        renderer.draw(g2d, snapshots.acquire(), getWidth(), getHeight());
+        g2d.dispose();
+    }
+}
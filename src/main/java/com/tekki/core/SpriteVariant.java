@@ -0,0 +1,114 @@
+package com.tekki.core;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ByteLookupTable;
+import java.awt.image.LookupOp;
+import java.util.Objects;
+
+/**
+ * Recoloring applied to sprite frames: a tint, a palette swap (hue rotation) or a flat silhouette.
+ * <p>
+ * Variants are value objects; {@link AnimationLibrary#variant} renders each (clip, variant) pair once and
+ * caches it, so drawing a variant costs the same blit as the base frame.
+ */
+public final class SpriteVariant {
+
+    /** Flat white shape, used for the critical-hit flash. */
+    public static final SpriteVariant WHITE_SILHOUETTE = silhouette(Color.WHITE);
+
+    private enum Kind { TINT, PALETTE_SWAP, SILHOUETTE }
+
+    private final Kind kind;
+    private final int rgb;
+    private final float amount;
+
+    private SpriteVariant(Kind kind, int rgb, float amount) {
+        this.kind = kind;
+        this.rgb = rgb & 0xFFFFFF;
+        this.amount = amount;
+    }
+
+    /**
+     * Blend every pixel toward {@code color} by {@code strength} (0 to 1), keeping alpha.
+     */
+    public static SpriteVariant tint(Color color, float strength) {
+        return new SpriteVariant(Kind.TINT, color.getRGB(), Math.max(0f, Math.min(1f, strength)));
+    }
+
+    /**
+     * Rotate the hue of every pixel by {@code degrees}, keeping saturation, brightness and alpha.
+     */
+    public static SpriteVariant paletteSwap(float degrees) {
+        return new SpriteVariant(Kind.PALETTE_SWAP, 0, degrees / 360f);
+    }
+
+    /**
+     * Replace every visible pixel with {@code color}, keeping alpha.
+     */
+    public static SpriteVariant silhouette(Color color) {
+        return new SpriteVariant(Kind.SILHOUETTE, color.getRGB(), 1f);
+    }
+
+    /**
+     * Render this variant of one frame into a new ARGB image.
+     */
+    BufferedImage apply(BufferedImage frame) {
+        BufferedImage source = toArgb(frame);
+        if (kind == Kind.PALETTE_SWAP) {
+            return rotateHue(source);
+        }
+        byte[][] tables = new byte[4][256];
+        int[] target = {(rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF};
+        for (int value = 0; value < 256; value++) {
+            for (int band = 0; band < 3; band++) {
+                tables[band][value] = (byte) Math.round(value + (target[band] - value) * amount);
+            }
+            tables[3][value] = (byte) value;
+        }
+        return new LookupOp(new ByteLookupTable(0, tables), null).filter(source, null);
+    }
+
+    private BufferedImage rotateHue(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int[] pixels = source.getRGB(0, 0, width, height, null, 0, width);
+        float[] hsb = new float[3];
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            if ((argb >>> 24) == 0) {
+                continue;
+            }
+            Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, hsb);
+            pixels[i] = (argb & 0xFF000000) | (Color.HSBtoRGB(hsb[0] + amount, hsb[1], hsb[2]) & 0xFFFFFF);
+        }
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        result.setRGB(0, 0, width, height, pixels, 0, width);
+        return result;
+    }
+
+    private static BufferedImage toArgb(BufferedImage frame) {
+        BufferedImage copy = new BufferedImage(frame.getWidth(), frame.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = copy.createGraphics();
+        g2d.drawImage(frame, 0, 0, null);
+        g2d.dispose();
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SpriteVariant variant)) {
+            return false;
+        }
+        return kind == variant.kind && rgb == variant.rgb && Float.compare(amount, variant.amount) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, rgb, amount);
+    }
+}
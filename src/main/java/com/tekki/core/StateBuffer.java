@@ -0,0 +1,109 @@
+package com.tekki.core;
+
+import java.util.Arrays;
+
+/**
+ * Flat row of ints holding a complete simulation state, written and read by the same {@code syncState}
+ * methods so saving and loading cannot drift apart:
+ * <pre>
+ * x = state.sync(x);
+ * </pre>
+ * stores {@code x} while saving and returns the stored value while loading. Floats and doubles keep their
+ * exact bits. The array grows on the first save only, so steady-state saving does not allocate.
+ */
+final class StateBuffer {
+
+    private int[] words = new int[256];
+    private int position;
+    private int size;
+    private boolean loading;
+
+    /**
+     * Start writing a state from the beginning.
+     */
+    void beginSave() {
+        loading = false;
+        position = 0;
+    }
+
+    /**
+     * Finish a save; {@link #size()} and {@link #words()} then describe it.
+     */
+    void endSave() {
+        size = position;
+    }
+
+    /**
+     * Start reading back the state currently in {@link #words()}.
+     */
+    void beginLoad() {
+        loading = true;
+        position = 0;
+    }
+
+    boolean isLoading() {
+        return loading;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Backing array; the first {@link #size()} entries are the state.
+     */
+    int[] words() {
+        return words;
+    }
+
+    /**
+     * Make room for a state of {@code size} words to be copied into {@link #words()} before loading.
+     */
+    void prepareLoad(int size) {
+        if (words.length < size) {
+            words = Arrays.copyOf(words, size);
+        }
+        this.size = size;
+    }
+
+    int sync(int value) {
+        if (loading) {
+            return words[position++];
+        }
+        if (position == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        words[position++] = value;
+        return value;
+    }
+
+    long sync(long value) {
+        long high = sync((int) (value >>> 32));
+        long low = sync((int) value);
+        return (high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    float sync(float value) {
+        return Float.intBitsToFloat(sync(Float.floatToRawIntBits(value)));
+    }
+
+    boolean sync(boolean value) {
+        return sync(value ? 1 : 0) != 0;
+    }
+
+    /**
+     * @param values the enum's {@code values()}, passed in so no array is allocated per call
+     */
+    <E extends Enum<E>> E sync(E value, E[] values) {
+        return values[sync(value.ordinal())];
+    }
+
+    /**
+     * Save or load every element of {@code array} in place.
+     */
+    void sync(int[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = sync(array[i]);
+        }
+    }
+}
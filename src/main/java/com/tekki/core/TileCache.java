@@ -0,0 +1,247 @@
+package com.tekki.core;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decoded {@link BackgroundLayer} tiles, at most {@code capacity} of them, least recently drawn evicted first.
+ * <p>
+ * A tile that is not resident is decoded on a background thread and shows up in a later frame, so scrolling
+ * onto new ground never stalls the render thread; the stage's background color shows through until then.
+ * Decoded tiles are copied into images compatible with the screen, split into the band of fully opaque rows,
+ * which is a plain copy to draw, and the band above it that needs blending, trimmed to its content. Safe to
+ * share between renderers on different threads.
+ */
+final class TileCache {
+
+    /** Width and height of every tile in pixels. */
+    static final int TILE_SIZE = 256;
+    /** Enough for every layer of a stage at the widest zoom, plus the tiles prefetched around it. */
+    static final int DEFAULT_CAPACITY = 96;
+    /** Resident stand-in for a tile with nothing to draw. */
+    private static final Tile EMPTY = new Tile(null, 0, 0, null, 0);
+
+    private final int capacity;
+    /** Decodes queued beyond this are dropped; the renderer asks again while the tile is still in view. */
+    private final int maxPending;
+    private final Map<Long, Tile> tiles;
+    private final Set<Long> pending = new HashSet<>();
+    private final ExecutorService decoder;
+    /** Screen the tiles are drawn to, or null when headless. */
+    private final GraphicsConfiguration configuration;
+    private long decoded;
+    private long evicted;
+
+    TileCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Tile cache needs room for a tile: " + capacity);
+        }
+        this.capacity = capacity;
+        this.maxPending = Math.max(1, capacity / 2);
+        this.tiles = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+                if (size() <= TileCache.this.capacity) {
+                    return false;
+                }
+                evicted++;
+                return true;
+            }
+        };
+        this.decoder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tekki-tiles");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        this.configuration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    private static long key(BackgroundLayer layer, int column, int row) {
+        return ((long) layer.getId() << 42) | ((long) column << 21) | row;
+    }
+
+    /**
+     * The tile if it is resident, marking it recently used. Otherwise null, and the tile is queued for
+     * decoding. Also null for a tile with nothing to draw.
+     */
+    synchronized Tile get(BackgroundLayer layer, int column, int row) {
+        long key = key(layer, column, row);
+        Tile tile = tiles.get(key);
+        if (tile == null) {
+            request(layer, column, row, key);
+            return null;
+        }
+        return tile == EMPTY ? null : tile;
+    }
+
+    /**
+     * Queue a tile for decoding unless it is resident or queued already. Leaves eviction order alone, so
+     * prefetching cannot push out tiles in view.
+     */
+    synchronized void prefetch(BackgroundLayer layer, int column, int row) {
+        long key = key(layer, column, row);
+        if (!tiles.containsKey(key)) {
+            request(layer, column, row, key);
+        }
+    }
+
+    /**
+     * The tile, decoded on the calling thread if it is not resident; for offline rendering, where every frame
+     * has to be complete.
+     */
+    Tile getNow(BackgroundLayer layer, int column, int row) {
+        long key = key(layer, column, row);
+        Tile tile;
+        synchronized (this) {
+            tile = tiles.get(key);
+        }
+        if (tile == null) {
+            tile = split(layer.decodeTile(column, row));
+            store(key, tile);
+        }
+        return tile == EMPTY ? null : tile;
+    }
+
+    private void request(BackgroundLayer layer, int column, int row, long key) {
+        if (pending.size() >= maxPending || !pending.add(key)) {
+            return;
+        }
+        decoder.execute(() -> {
+            Tile tile;
+            try {
+                tile = split(layer.decodeTile(column, row));
+            } catch (RuntimeException e) {
+                // Stored as empty, so a broken tile is reported once instead of retried every frame.
+                System.err.println("Background tile " + column + "_" + row + " of " + layer.getName()
+                        + " not drawn: " + e.getMessage());
+                tile = EMPTY;
+            }
+            store(key, tile);
+        });
+    }
+
+    private synchronized void store(long key, Tile tile) {
+        pending.remove(key);
+        tiles.put(key, tile);
+        decoded++;
+    }
+
+    private Tile split(BufferedImage image) {
+        if (image == null) {
+            return EMPTY;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        int top = height;
+        int bottom = 0;
+        int left = width;
+        int right = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (pixels[y * width + x] >>> 24 != 0) {
+                    top = Math.min(top, y);
+                    bottom = y + 1;
+                    left = Math.min(left, x);
+                    right = Math.max(right, x + 1);
+                }
+            }
+        }
+        if (top == height) {
+            return EMPTY;
+        }
+        int opaqueTop = bottom;
+        while (opaqueTop > top && isOpaqueRow(pixels, width, opaqueTop - 1)) {
+            opaqueTop--;
+        }
+        BufferedImage blended = opaqueTop > top
+                ? copy(image, left, top, right - left, opaqueTop - top, Transparency.TRANSLUCENT)
+                : null;
+        BufferedImage opaque = bottom > opaqueTop
+                ? copy(image, 0, opaqueTop, width, bottom - opaqueTop, Transparency.OPAQUE)
+                : null;
+        return new Tile(blended, left, top, opaque, opaqueTop);
+    }
+
+    private static boolean isOpaqueRow(int[] pixels, int width, int y) {
+        for (int x = 0; x < width; x++) {
+            if (pixels[y * width + x] >>> 24 != 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BufferedImage copy(BufferedImage image, int x, int y, int width, int height, int transparency) {
+        BufferedImage copy;
+        if (configuration != null) {
+            copy = configuration.createCompatibleImage(width, height, transparency);
+        } else {
+            copy = new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g2d = copy.createGraphics();
+        g2d.drawImage(image, -x, -y, null);
+        g2d.dispose();
+        return copy;
+    }
+
+    /**
+     * A decoded tile: its opaque bottom rows, copied without blending, and the trimmed part above them.
+     */
+    static final class Tile {
+
+        private final BufferedImage blended;
+        private final int blendedX;
+        private final int blendedY;
+        private final BufferedImage opaque;
+        private final int opaqueY;
+
+        private Tile(BufferedImage blended, int blendedX, int blendedY, BufferedImage opaque, int opaqueY) {
+            this.blended = blended;
+            this.blendedX = blendedX;
+            this.blendedY = blendedY;
+            this.opaque = opaque;
+            this.opaqueY = opaqueY;
+        }
+
+        /**
+         * Draw with the tile's top left corner at {@code x}, {@code y}.
+         */
+        void draw(Graphics2D g2d, int x, int y) {
+            if (blended != null) {
+                g2d.drawImage(blended, x + blendedX, y + blendedY, null);
+            }
+            if (opaque != null) {
+                g2d.drawImage(opaque, x, y + opaqueY, null);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return tiles.size();
+    }
+
+    synchronized int getPending() {
+        return pending.size();
+    }
+
+    synchronized long getDecoded() {
+        return decoded;
+    }
+
+    synchronized long getEvicted() {
+        return evicted;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tekki.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free hand-off of the latest value from one writer thread to one reader thread.
+ * <p>
+ * The writer fills {@link #back()} and {@link #publish()}es it by swapping it with the middle buffer; the reader
+ * {@link #acquire()}s by swapping its front buffer with the middle one when something new was published.
+ * Neither side ever waits, and each always owns a buffer the other cannot touch.
+ */
+public final class TripleBuffer<T> {
+
+    private static final int DIRTY = 4;
+    private static final int INDEX = 3;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 2;
+    private int front = 0;
+
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[] {factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * Writer side: the buffer to fill next.
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Writer side: make the filled back buffer the latest value.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | DIRTY) & INDEX;
+    }
+
+    /**
+     * Reader side: the most recently published value, or the previous one if nothing new arrived.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & DIRTY) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return (T) buffers[front];
+    }
+}
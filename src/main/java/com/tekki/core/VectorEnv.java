@@ -0,0 +1,242 @@
+package com.tekki.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Headless training environment that steps many independent matches in lockstep.
+ * <p>
+ * The agent controls the player of every match with an {@link InputFrame} button mask read from
+ * {@link #actions()}; the enemy keeps its own brain. After each {@link #step()} the observation of every
+ * match is in {@link #observations()} ({@link ObservationEncoder#SIZE} floats per match, player first),
+ * the reward for the step in {@link #rewards()} and the episode-end flag in {@link #dones()}. Finished
+ * matches are reset in the same step, so their observation already belongs to the next episode. All
+ * buffers are direct, native-order and allocated once; matches are split into contiguous slices, one per
+ * thread.
+ */
+public final class VectorEnv implements AutoCloseable {
+
+    public static final int OBSERVATION_SIZE = ObservationEncoder.SIZE;
+    /** Episodes are cut off after this many ticks even without a KO. */
+    public static final int MAX_EPISODE_TICKS = 99 * 60;
+
+    /** Buttons an agent may hold; START and the debug overlay are masked off. */
+    private static final int ACTION_MASK = InputFrame.LEFT | InputFrame.RIGHT | InputFrame.UP | InputFrame.DOWN
+            | InputFrame.ATTACK | InputFrame.DEFEND | InputFrame.DASH;
+
+    private final int count;
+    private final float deltaTime;
+    private final Match template;
+    private final Match[] matches;
+    private final int[] previousHeld;
+    /** One input frame per match, refilled every step. */
+    private final InputFrame[] inputs;
+    /** One seed stream per match so episodes do not depend on thread scheduling. */
+    private final DeterministicRandom[] seeds;
+
+    private final FloatBuffer observations;
+    private final IntBuffer actions;
+    private final FloatBuffer rewards;
+    private final IntBuffer dones;
+
+    private final Thread[] workers;
+    private final CyclicBarrier startBarrier;
+    private final CyclicBarrier endBarrier;
+    private volatile boolean running = true;
+
+    /**
+     * @param levelIndex stage of {@link Campaign#levels()} every match is played on
+     */
+    public VectorEnv(int count, int levelIndex, int threads, long seed) {
+        if (count <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("count and threads must be positive");
+        }
+        this.count = count;
+        this.deltaTime = 1f / MoveTable.FRAME_RATE;
+        // The same stage, starting positions and physics as the game and the match server, without sprites.
+        this.template = Campaign.newMatch(Campaign.levels().get(levelIndex), levelIndex, PhysicsMode.FIXED, 0L, 0L)
+                .copyWithoutSprites();
+        this.matches = new Match[count];
+        for (int i = 0; i < count; i++) {
+            matches[i] = template.copyWithoutSprites();
+        }
+        this.previousHeld = new int[count];
+        this.inputs = new InputFrame[count];
+        for (int i = 0; i < count; i++) {
+            inputs[i] = new InputFrame(0L, 0, 0, 0, 0L);
+        }
+        this.seeds = new DeterministicRandom[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = new DeterministicRandom(seed + i * 0x632BE59BD9B4E019L);
+        }
+
+        this.observations = allocate(count * OBSERVATION_SIZE).asFloatBuffer();
+        this.actions = allocate(count).asIntBuffer();
+        this.rewards = allocate(count).asFloatBuffer();
+        this.dones = allocate(count).asIntBuffer();
+
+        int threadCount = Math.min(threads, count);
+        this.startBarrier = new CyclicBarrier(threadCount);
+        this.endBarrier = new CyclicBarrier(threadCount);
+        this.workers = new Thread[threadCount - 1];
+        for (int t = 1; t < threadCount; t++) {
+            int from = sliceStart(t, threadCount);
+            int to = sliceStart(t + 1, threadCount);
+            Thread worker = new Thread(() -> runWorker(from, to), "tekki-env-" + t);
+            worker.setDaemon(true);
+            workers[t - 1] = worker;
+            worker.start();
+        }
+        reset();
+    }
+
+    private static ByteBuffer allocate(int slots) {
+        return ByteBuffer.allocateDirect(slots * 4).order(ByteOrder.nativeOrder());
+    }
+
+    private int sliceStart(int slice, int slices) {
+        return (int) ((long) count * slice / slices);
+    }
+
+    /**
+     * Give every enemy the same brain; it is called from several threads, so it must be stateless.
+     */
+    public void setEnemyBrain(EnemyBrain brain) {
+        for (Match match : matches) {
+            match.getEnemy().setBrain(brain);
+        }
+    }
+
+    /**
+     * Start a new episode in every match and write the initial observations.
+     */
+    public void reset() {
+        for (int i = 0; i < count; i++) {
+            reset(i);
+        }
+    }
+
+    /**
+     * Start a new episode in one match and write its initial observation.
+     */
+    public void reset(int env) {
+        long seed = seeds[env].nextLong();
+        Match match = matches[env];
+        match.copyFrom(template);
+        match.getPlayer().clearInputHistory();
+        match.reseed(seed);
+        match.getEnemy().reseed(~seed);
+        previousHeld[env] = 0;
+        rewards.put(env, 0f);
+        dones.put(env, 0);
+        writeObservation(env);
+    }
+
+    /**
+     * Advance every match by one tick using the current contents of {@link #actions()}.
+     */
+    public void step() {
+        await(startBarrier);
+        stepRange(0, sliceStart(1, workers.length + 1));
+        await(endBarrier);
+    }
+
+    private void runWorker(int from, int to) {
+        while (running) {
+            try {
+                startBarrier.await();
+                stepRange(from, to);
+                endBarrier.await();
+            } catch (InterruptedException | BrokenBarrierException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Break the barrier so step() fails instead of waiting forever for this slice.
+                endBarrier.reset();
+                throw e;
+            }
+        }
+    }
+
+    private void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping environments", e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("Environment worker failed", e);
+        }
+    }
+
+    private void stepRange(int from, int to) {
+        for (int env = from; env < to; env++) {
+            Match match = matches[env];
+            PlayerFighter player = match.getPlayer();
+            EnemyFighter enemy = match.getEnemy();
+            int held = actions.get(env) & ACTION_MASK;
+            int pressed = held & ~previousHeld[env];
+            int released = previousHeld[env] & ~held;
+            previousHeld[env] = held;
+
+            int playerHealth = player.getHealth();
+            int enemyHealth = enemy.getHealth();
+            InputFrame input = inputs[env];
+            input.set(match.getTick(), held, pressed, released, 0L);
+            match.applyPlayerInput(input);
+            match.step(deltaTime);
+            float dealt = enemyHealth - enemy.getHealth();
+            float taken = playerHealth - player.getHealth();
+
+            boolean done = match.isOver() || match.getTick() >= MAX_EPISODE_TICKS;
+            if (done) {
+                reset(env);
+            }
+            rewards.put(env, (dealt - taken) / player.getMaxHealth());
+            dones.put(env, done ? 1 : 0);
+            if (!done) {
+                writeObservation(env);
+            }
+        }
+    }
+
+    private void writeObservation(int env) {
+        Match match = matches[env];
+        ObservationEncoder.encode(match.getPlayer(), match.getEnemy(), deltaTime, observations, env * OBSERVATION_SIZE);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** {@code count * OBSERVATION_SIZE} floats, rewritten by every step and reset. */
+    public FloatBuffer observations() {
+        return observations;
+    }
+
+    /** One {@link InputFrame} button mask per match, written by the agent before each step. */
+    public IntBuffer actions() {
+        return actions;
+    }
+
+    /** Damage dealt minus damage taken in the last step, as a fraction of the player's max health. */
+    public FloatBuffer rewards() {
+        return rewards;
+    }
+
+    /** 1 where the last step ended an episode (KO or time limit), otherwise 0. */
+    public IntBuffer dones() {
+        return dones;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tekki.core;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Locale;
+
+/**
+ * Measures {@link VectorEnv} throughput with random actions and checks that results do not depend on
+ * the thread count.
+ * <p>
+ * Run from the folder containing the project with
+ * {@code java com.tekki.core.VectorEnvBenchmark [envs] [steps] [maxThreads]}.
+ */
+public final class VectorEnvBenchmark {
+
+    private static final int[] ACTIONS = {
+            0, InputFrame.LEFT, InputFrame.RIGHT, InputFrame.ATTACK, InputFrame.DEFEND, InputFrame.UP,
+            InputFrame.RIGHT | InputFrame.ATTACK, InputFrame.LEFT | InputFrame.DASH
+    };
+
+    private VectorEnvBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int envs = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 4_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long reference = 0L;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            try (VectorEnv env = new VectorEnv(envs, 0, threads, 42L)) {
+                run(env, steps / 4);
+                env.reset();
+                long start = System.nanoTime();
+                long hash = run(env, steps);
+                long elapsed = System.nanoTime() - start;
+                double perSecond = (double) envs * steps / (elapsed / 1e9);
+                System.out.printf(Locale.ROOT, "%2d threads %,12.0f env-steps/s  hash %016x%n", threads, perSecond, hash);
+                if (threads == 1) {
+                    reference = hash;
+                } else if (hash != reference) {
+                    System.out.println("Results DIFFER from the single-threaded run");
+                }
+            }
+        }
+    }
+
+    /**
+     * Step with a deterministic pseudo-random action per environment and hash rewards and observations.
+     */
+    private static long run(VectorEnv env, int steps) {
+        IntBuffer actions = env.actions();
+        FloatBuffer rewards = env.rewards();
+        FloatBuffer observations = env.observations();
+        DeterministicRandom random = new DeterministicRandom(7L);
+        long hash = 1125899906842597L;
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < env.getCount(); i++) {
+                if (step % 6 == 0) {
+                    actions.put(i, ACTIONS[random.nextInt(ACTIONS.length)]);
+                }
+            }
+            env.step();
+            for (int i = 0; i < env.getCount(); i++) {
+                hash = 31 * hash + Float.floatToIntBits(rewards.get(i));
+                hash = 31 * hash + env.dones().get(i);
+            }
+        }
+        for (int i = 0; i < observations.capacity(); i++) {
+            hash = 31 * hash + Float.floatToIntBits(observations.get(i));
+        }
+        return hash;
+    }
+}
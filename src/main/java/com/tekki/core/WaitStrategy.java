@@ -0,0 +1,25 @@
+package com.tekki.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread idles while polling a sequence counter: trading CPU for wake-up latency.
+ */
+public enum WaitStrategy {
+    /** Busy-spin with a CPU hint; lowest latency, burns a core. */
+    SPIN,
+    /** Yield to other runnable threads between polls. */
+    YIELD,
+    /** Sleep for a few microseconds between polls; cheapest, adds scheduler latency. */
+    PARK;
+
+    private static final long PARK_NANOS = 5_000L;
+
+    public void idle() {
+        switch (this) {
+            case SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            case PARK -> LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}